@@ -6,6 +6,7 @@ import io.github.requestlog.core.autoconfigure.RequestLogConfiguration;
 import io.github.requestlog.core.handler.AbstractRequestLogHandler;
 import org.apache.http.client.HttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,8 +29,9 @@ public class RequestLogApacheHttpClientAutoConfiguration {
     protected static class ApacheHttpClientRequestLogEnhancerConfiguration {
 
         @Bean
-        public ApacheHttpClientRequestLogEnhancer apacheHttpClientRequestLogEnhancer(@Autowired AbstractRequestLogHandler requestLogHandler) {
-            return new ApacheHttpClientRequestLogEnhancer(requestLogHandler);
+        public ApacheHttpClientRequestLogEnhancer apacheHttpClientRequestLogEnhancer(@Autowired AbstractRequestLogHandler requestLogHandler,
+                                                                                     @Value("${request-log.body-capture.max-bytes:-1}") int captureMaxBytes) {
+            return new ApacheHttpClientRequestLogEnhancer(requestLogHandler, captureMaxBytes);
         }
 
     }
@@ -1,10 +1,14 @@
 package io.github.requestlog.apachehttpclient.context.request;
 
+import io.github.requestlog.apachehttpclient.support.CapturingHttpEntity;
 import io.github.requestlog.apachehttpclient.support.HttpClientUtils;
 import io.github.requestlog.core.context.LogContext;
 import io.github.requestlog.core.context.request.OutboundRequestContext;
 import io.github.requestlog.core.enums.HttpMethod;
 import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.support.HttpUtils;
+import io.github.requestlog.core.support.io.BodyCapture;
+import io.github.requestlog.core.support.io.CapturingInputStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.*;
 import org.apache.http.client.HttpClient;
@@ -12,6 +16,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.StreamUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -38,21 +43,35 @@ public class ApacheHttpClientRequestContext extends OutboundRequestContext {
     @Nullable
     private HttpResponse response;
 
+    /**
+     * Max bytes read from repeatable request entities, negative to read them whole.
+     */
+    private final int captureMaxBytes;
 
-    private ApacheHttpClientRequestContext(LogContext logContext, HttpHost host, HttpRequest request) {
+
+    private ApacheHttpClientRequestContext(LogContext logContext, HttpHost host, HttpRequest request, int captureMaxBytes) {
         super(logContext);
         this.host = host;
         this.request = request;
         this.uri = HttpClientUtils.buildURI(host, request);
+        this.captureMaxBytes = captureMaxBytes;
     }
 
     public ApacheHttpClientRequestContext(LogContext logContext, HttpHost host, HttpRequest request, Exception exception) {
-        this(logContext, host, request);
-        super.exception = exception;
+        this(logContext, host, request, exception, -1);
     }
 
     public ApacheHttpClientRequestContext(LogContext logContext, HttpHost host, HttpRequest request, HttpResponse response) {
-        this(logContext, host, request);
+        this(logContext, host, request, response, -1);
+    }
+
+    public ApacheHttpClientRequestContext(LogContext logContext, HttpHost host, HttpRequest request, Exception exception, int captureMaxBytes) {
+        this(logContext, host, request, captureMaxBytes);
+        super.exception = exception;
+    }
+
+    public ApacheHttpClientRequestContext(LogContext logContext, HttpHost host, HttpRequest request, HttpResponse response, int captureMaxBytes) {
+        this(logContext, host, request, captureMaxBytes);
         this.response = response;
     }
 
@@ -98,11 +117,17 @@ public class ApacheHttpClientRequestContext extends OutboundRequestContext {
         }
 
         HttpEntity httpEntity = ((HttpEntityEnclosingRequest) request).getEntity();
+        if (httpEntity instanceof CapturingHttpEntity) {
+            return (requestBodyCache = ((CapturingHttpEntity) httpEntity).getCapturedString());
+        }
         if (httpEntity == null || !httpEntity.isRepeatable()) {
             return null;
         }
 
         try {
+            if (captureMaxBytes >= 0) {
+                return (requestBodyCache = readCapped(httpEntity));
+            }
             return (requestBodyCache = StreamUtils.copyToString(httpEntity.getContent(), StandardCharsets.UTF_8));
         } catch (IOException e) {
             log.warn("getRequestBody error", e);
@@ -140,6 +165,9 @@ public class ApacheHttpClientRequestContext extends OutboundRequestContext {
         if (responseBodyCache != null) {
             return responseBodyCache;
         }
+        if (response != null && response.getEntity() instanceof CapturingHttpEntity) {
+            return (responseBodyCache = ((CapturingHttpEntity) response.getEntity()).getCapturedString());
+        }
         if (response == null || response.getEntity() == null || !response.getEntity().isRepeatable()) {
             return null;
         }
@@ -151,4 +179,52 @@ public class ApacheHttpClientRequestContext extends OutboundRequestContext {
         }
     }
 
+    @Override
+    public Long getResponseBodyLength() {
+        if (response == null || response.getEntity() == null) {
+            return null;
+        }
+        CapturingInputStream capturedContent = getCapturedResponseContent();
+        if (capturedContent != null && capturedContent.isExhausted()) {
+            return capturedContent.getCapture().getLength();
+        }
+        long contentLength = response.getEntity().getContentLength();
+        return contentLength >= 0 ? contentLength : null;
+    }
+
+    @Override
+    public boolean isResponseBodyTruncated() {
+        CapturingInputStream capturedContent = getCapturedResponseContent();
+        if (capturedContent == null) {
+            return false;
+        }
+        return capturedContent.getCapture().isTruncated()
+                || (!capturedContent.isExhausted() && !Long.valueOf(capturedContent.getCapture().getLength()).equals(getResponseBodyLength()));
+    }
+
+    private CapturingInputStream getCapturedResponseContent() {
+        if (response == null || !(response.getEntity() instanceof CapturingHttpEntity)) {
+            return null;
+        }
+        return ((CapturingHttpEntity) response.getEntity()).getCapturedContent();
+    }
+
+    /**
+     * Reads at most {@link #captureMaxBytes} of a repeatable entity, binary entities are not read.
+     */
+    private String readCapped(HttpEntity httpEntity) throws IOException {
+        if (HttpUtils.isBinaryContentType(httpEntity.getContentType() == null ? null : httpEntity.getContentType().getValue())) {
+            return null;
+        }
+        BodyCapture capture = new BodyCapture(captureMaxBytes);
+        try (InputStream inputStream = httpEntity.getContent()) {
+            byte[] buffer = new byte[Math.max(1, Math.min(captureMaxBytes, 4096))];
+            int read;
+            while (capture.remaining() > 0 && (read = inputStream.read(buffer, 0, Math.min(buffer.length, capture.remaining()))) != -1) {
+                capture.write(buffer, 0, read);
+            }
+        }
+        return capture.toString(StandardCharsets.UTF_8);
+    }
+
 }
@@ -1,7 +1,6 @@
 package io.github.requestlog.apachehttpclient.support;
 
 import io.github.requestlog.core.handler.AbstractRequestLogHandler;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.client.HttpClient;
 
@@ -10,12 +9,26 @@ import org.apache.http.client.HttpClient;
  * Enhances an {@link HttpClient} with RequestLog capabilities.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class ApacheHttpClientRequestLogEnhancer {
 
 
     private final AbstractRequestLogHandler requestLogHandler;
 
+    /**
+     * See {@link HttpClientRequestLogDecorator#HttpClientRequestLogDecorator(AbstractRequestLogHandler, HttpClient, int)}.
+     */
+    private final int captureMaxBytes;
+
+
+    public ApacheHttpClientRequestLogEnhancer(AbstractRequestLogHandler requestLogHandler) {
+        this(requestLogHandler, -1);
+    }
+
+    public ApacheHttpClientRequestLogEnhancer(AbstractRequestLogHandler requestLogHandler, int captureMaxBytes) {
+        this.requestLogHandler = requestLogHandler;
+        this.captureMaxBytes = captureMaxBytes;
+    }
+
 
     /**
      * Enhances the provided {@link HttpClient} with RequestLog capabilities.
@@ -24,7 +37,7 @@ public class ApacheHttpClientRequestLogEnhancer {
         if (isEnhanced(httpClient)) {
             return httpClient;
         }
-        return new HttpClientRequestLogDecorator(requestLogHandler, httpClient);
+        return new HttpClientRequestLogDecorator(requestLogHandler, httpClient, captureMaxBytes);
     }
 
 
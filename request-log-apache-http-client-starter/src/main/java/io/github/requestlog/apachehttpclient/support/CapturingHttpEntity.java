@@ -0,0 +1,91 @@
+package io.github.requestlog.apachehttpclient.support;
+
+import io.github.requestlog.core.support.io.CapturingInputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+
+/**
+ * Decorator for a streaming {@link HttpEntity} that passes the content through, recording only its first bytes.
+ *
+ * Unlike {@link org.apache.http.entity.BufferedHttpEntity} the content is never held in memory as a whole, and it can be read once.
+ * The completion callback runs when the content is read to the end or closed, see {@link CapturingInputStream}.
+ */
+public class CapturingHttpEntity extends HttpEntityWrapper {
+
+    private final int maxBytes;
+    private final Consumer<CapturingInputStream> onComplete;
+
+    private CapturingInputStream content;
+
+    public CapturingHttpEntity(HttpEntity wrappedEntity, int maxBytes, Consumer<CapturingInputStream> onComplete) {
+        super(wrappedEntity);
+        this.maxBytes = maxBytes;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return false;
+    }
+
+    @Override
+    public synchronized InputStream getContent() throws IOException {
+        if (content == null) {
+            content = new CapturingInputStream(wrappedEntity.getContent(), maxBytes, onComplete);
+        }
+        return content;
+    }
+
+    @Override
+    public void writeTo(OutputStream outStream) throws IOException {
+        try (InputStream inStream = getContent()) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = inStream.read(buffer)) != -1) {
+                outStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+
+    /**
+     * Completes the capture of content never read or not read to the end: reads on until the capture is full and closes the content.
+     */
+    public void complete() {
+        try {
+            getContent().close();
+        } catch (IOException ignored) {
+            // completed anyway, see CapturingInputStream#close.
+        }
+    }
+
+    /**
+     * Content read so far, null if never read.
+     */
+    public synchronized CapturingInputStream getCapturedContent() {
+        return content;
+    }
+
+    /**
+     * Captured prefix of the content, decoded with the charset of the content type, UTF-8 by default.
+     */
+    public String getCapturedString() {
+        CapturingInputStream capturedContent = getCapturedContent();
+        if (capturedContent == null) {
+            return null;
+        }
+        ContentType contentType = ContentType.getLenient(wrappedEntity);
+        Charset charset = contentType == null || contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+        return capturedContent.getCapture().toString(charset);
+    }
+
+}
@@ -3,9 +3,11 @@ package io.github.requestlog.apachehttpclient.support;
 import io.github.requestlog.apachehttpclient.context.request.ApacheHttpClientRequestContext;
 import io.github.requestlog.core.context.LogContext;
 import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.enums.RequestContextType;
 import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.listener.RequestLogListeners;
+import io.github.requestlog.core.support.Predicates;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
@@ -13,11 +15,13 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.utils.URIUtils;
 import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.params.HttpParams;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 
@@ -25,7 +29,6 @@ import java.io.IOException;
 /**
  * Decorator for {@link HttpClient} to provide RequestLog capabilities.
  */
-@RequiredArgsConstructor
 @Slf4j
 public class HttpClientRequestLogDecorator implements HttpClient {
 
@@ -34,6 +37,26 @@ public class HttpClientRequestLogDecorator implements HttpClient {
     @Getter
     private final HttpClient httpClientTarget;
 
+    /**
+     * Max body bytes to capture, negative to buffer whole entities with {@link HttpClientUtils#convertEntityRepeatable}.
+     */
+    private final int captureMaxBytes;
+
+
+    public HttpClientRequestLogDecorator(AbstractRequestLogHandler requestLogHandler, HttpClient httpClientTarget) {
+        this(requestLogHandler, httpClientTarget, -1);
+    }
+
+    /**
+     * With a non-negative {@code captureMaxBytes}, entities stream to the caller and the request is handled
+     * once the caller has read or closed the response entity, or closed the response, see {@link CapturingHttpEntity}.
+     */
+    public HttpClientRequestLogDecorator(AbstractRequestLogHandler requestLogHandler, HttpClient httpClientTarget, int captureMaxBytes) {
+        this.requestLogHandler = requestLogHandler;
+        this.httpClientTarget = httpClientTarget;
+        this.captureMaxBytes = captureMaxBytes;
+    }
+
     @Override
     public HttpParams getParams() {
         return httpClientTarget.getParams();
@@ -67,18 +90,72 @@ public class HttpClientRequestLogDecorator implements HttpClient {
             return httpClientTarget.execute(target, request, context);
         }
 
+        if (captureMaxBytes >= 0) {
+            return executeCapturing(target, request, context);
+        }
+
+        long startNanos = System.nanoTime();
         try {
             HttpClientUtils.convertEntityRepeatable(request); // try to make request entity repeatable
             HttpResponse response = httpClientTarget.execute(target, request, context);
+            if (isDefaultSuccess(response, startNanos)) {
+                return response;
+            }
             HttpClientUtils.convertEntityRepeatable(response); // try to make response entity repeatable
-            requestLogHandler.handle(new ApacheHttpClientRequestContext(LogContext.THREAD_LOCAL.get(), target, request, response));
+            requestLogHandler.handle(new ApacheHttpClientRequestContext(LogContext.THREAD_LOCAL.get(), target, request, response).elapsedSince(startNanos));
             return response;
         } catch (Exception e) {
-            requestLogHandler.handle(new ApacheHttpClientRequestContext(LogContext.THREAD_LOCAL.get(), target, request, e));
+            requestLogHandler.handle(new ApacheHttpClientRequestContext(LogContext.THREAD_LOCAL.get(), target, request, e).elapsedSince(startNanos));
             throw e;
         }
     }
 
+    /**
+     * Entities are captured instead of buffered, the request is handled when the response entity completes.
+     * Responses without entity, or with a binary one, are handled right away.
+     */
+    private HttpResponse executeCapturing(HttpHost target, HttpRequest request, HttpContext context) throws IOException {
+        LogContext logContext = LogContext.THREAD_LOCAL.get();
+        long startNanos = System.nanoTime();
+        try {
+            HttpClientUtils.captureEntity(request, captureMaxBytes);
+            HttpResponse response = httpClientTarget.execute(target, request, context);
+            if (isDefaultSuccess(response, startNanos)) {
+                return response;
+            }
+            boolean captured = HttpClientUtils.captureEntity(response, captureMaxBytes, capturedContent -> {
+                try {
+                    RequestLogListeners.bodyCaptured(RequestContextType.APACHE_HTTP_CLIENT, capturedContent.getCapture().size());
+                    requestLogHandler.handle(new ApacheHttpClientRequestContext(logContext, target, request, response, captureMaxBytes).elapsedSince(startNanos));
+                } catch (Exception e) {
+                    // logging must not fail the caller reading the entity.
+                    log.warn("handle request log error, url: {}", request.getRequestLine().getUri(), e);
+                }
+            });
+            if (!captured) {
+                requestLogHandler.handle(new ApacheHttpClientRequestContext(logContext, target, request, response, captureMaxBytes).elapsedSince(startNanos));
+                return response;
+            }
+            // closing the response without touching the entity completes the capture too.
+            return response instanceof CloseableHttpResponse ? new CapturingHttpResponse((CloseableHttpResponse) response) : response;
+        } catch (Exception e) {
+            requestLogHandler.handle(new ApacheHttpClientRequestContext(logContext, target, request, e, captureMaxBytes).elapsedSince(startNanos));
+            throw e;
+        }
+    }
+
+    /**
+     * Successful by the default predicate, the response is returned as is without building a request context.
+     */
+    private static boolean isDefaultSuccess(HttpResponse response, long startNanos) {
+        if (response.getStatusLine() != null && Predicates.isDefaultSuccess(LogContext.THREAD_LOCAL.get(),
+                RequestContextType.APACHE_HTTP_CLIENT, response.getStatusLine().getStatusCode(), System.nanoTime() - startNanos)) {
+            RequestLogListeners.skipped(RequestContextType.APACHE_HTTP_CLIENT);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public <T> T execute(HttpUriRequest request, ResponseHandler<? extends T> responseHandler) throws IOException, ClientProtocolException {
         return execute(request, responseHandler, (HttpContext) null);
@@ -96,7 +173,16 @@ public class HttpClientRequestLogDecorator implements HttpClient {
 
     @Override
     public <T> T execute(HttpHost target, HttpRequest request, ResponseHandler<? extends T> responseHandler, HttpContext context) throws IOException, ClientProtocolException {
-        return responseHandler.handleResponse(execute(target, request, context));
+        HttpResponse response = execute(target, request, context);
+        if (captureMaxBytes < 0) {
+            return responseHandler.handleResponse(response);
+        }
+        try {
+            return responseHandler.handleResponse(response);
+        } finally {
+            // completes a captured entity the handler left unread.
+            EntityUtils.consumeQuietly(response.getEntity());
+        }
     }
 
 }
@@ -1,5 +1,7 @@
 package io.github.requestlog.apachehttpclient.support;
 
+import io.github.requestlog.core.support.HttpUtils;
+import io.github.requestlog.core.support.io.CapturingInputStream;
 import org.apache.http.*;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.utils.URIBuilder;
@@ -12,6 +14,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 
@@ -51,6 +54,43 @@ public class HttpClientUtils {
     }
 
 
+    /**
+     * Wraps a streaming entity of an {@link HttpRequest} in a {@link CapturingHttpEntity}, so its first bytes are recorded as it is sent.
+     * Repeatable entities are left as they are, they can be read again for the log.
+     */
+    public static void captureEntity(HttpRequest request, int maxBytes) {
+        if (!(request instanceof HttpEntityEnclosingRequest)) {
+            return;
+        }
+        HttpEntity httpEntity = ((HttpEntityEnclosingRequest) request).getEntity();
+        if (!isCapturable(httpEntity) || httpEntity.isRepeatable()) {
+            return;
+        }
+        ((HttpEntityEnclosingRequest) request).setEntity(new CapturingHttpEntity(httpEntity, maxBytes, capturedContent -> {
+        }));
+    }
+
+
+    /**
+     * Wraps the entity of an {@link HttpResponse} in a {@link CapturingHttpEntity}.
+     *
+     * @param onComplete called once the entity is read to the end or closed.
+     * @return false if there is no entity to capture, or the entity is binary.
+     */
+    public static boolean captureEntity(HttpResponse response, int maxBytes, Consumer<CapturingInputStream> onComplete) {
+        if (response == null || !isCapturable(response.getEntity())) {
+            return false;
+        }
+        response.setEntity(new CapturingHttpEntity(response.getEntity(), maxBytes, onComplete));
+        return true;
+    }
+
+    private static boolean isCapturable(HttpEntity httpEntity) {
+        return httpEntity != null && !(httpEntity instanceof CapturingHttpEntity)
+                && !HttpUtils.isBinaryContentType(httpEntity.getContentType() == null ? null : httpEntity.getContentType().getValue());
+    }
+
+
     /**
      * Converts an array of {@link Header} objects into a Map of header names and values.
      */
@@ -0,0 +1,131 @@
+package io.github.requestlog.apachehttpclient;
+
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.repository.impl.InMemoryRequestLogRepository;
+import io.github.requestlog.core.support.function.SupplierExp;
+import io.github.requestlog.test.model.RequestParamModel;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static io.github.requestlog.test.controller.TestRestController.*;
+
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = TestApplication.class,
+        properties = "request-log.body-capture.max-bytes=1024"
+)
+public class RequestLogApacheHttpClientCaptureTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private HttpClient httpClient;
+
+    @Autowired
+    private InMemoryRequestLogRepository inMemoryRequestLogRepository;
+
+
+    @DisplayName("Test large response streams through, only a prefix is logged")
+    @Test
+    public void testCaptureLargeBody() throws IOException {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        HttpGet request = new HttpGet(url(DOWNLOAD_ERROR_PATH + "?size=200000"));
+        HttpResponse response = LogContext.log().executeWithExp((SupplierExp<HttpResponse, IOException>) () -> httpClient.execute(request));
+        assert response.getStatusLine().getStatusCode() == 500;
+        // logged once the entity is consumed.
+        assert inMemoryRequestLogRepository.getRequestLogSize() == size;
+        assert EntityUtils.toString(response.getEntity()).length() == 200_000;
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getResponseBody().length() == 1024;
+        assert requestLog.getResponseBody().startsWith("abcdefghijklmnopqrstuvwxyzabc");
+        assert requestLog.getResponseBodyLength() == 200_000;
+        assert requestLog.getResponseBodyTruncated();
+    }
+
+
+    @DisplayName("Test response closed without reading the entity is logged with a prefix of the body")
+    @Test
+    public void testCloseWithoutRead() throws IOException {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        HttpGet request = new HttpGet(url(DOWNLOAD_ERROR_PATH + "?size=200000"));
+        try (CloseableHttpResponse response = LogContext.log().executeWithExp((SupplierExp<CloseableHttpResponse, IOException>) () ->
+                (CloseableHttpResponse) httpClient.execute(request))) {
+            assert response.getStatusLine().getStatusCode() == 500;
+            assert inMemoryRequestLogRepository.getRequestLogSize() == size;
+        }
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getResponseCode() == 500;
+        assert requestLog.getResponseBody().length() == 1024;
+        assert requestLog.getResponseBody().startsWith("abcdefghijklmnopqrstuvwxyzabc");
+        assert requestLog.getResponseBodyTruncated();
+    }
+
+
+    @DisplayName("Test streaming request entity is sent as it is and logged")
+    @Test
+    public void testCaptureStreamingRequest() throws IOException {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        String json = RequestParamModel.randomJson();
+        HttpPost request = new HttpPost(url(JSON_POST_ERROR_PATH));
+        request.setEntity(new InputStreamEntity(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), ContentType.APPLICATION_JSON));
+        HttpResponse response = LogContext.log().executeWithExp((SupplierExp<HttpResponse, IOException>) () -> httpClient.execute(request));
+        assert response.getStatusLine().getStatusCode() == 500;
+        EntityUtils.consume(response.getEntity());
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getRequestBody().equals(json.length() > 1024 ? json.substring(0, 1024) : json);
+        assert !requestLog.getResponseBodyTruncated();
+        assert requestLog.getResponseBodyLength() == requestLog.getResponseBody().length();
+    }
+
+
+    @DisplayName("Test binary response is not captured")
+    @Test
+    public void testSkipBinaryBody() throws IOException {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        HttpGet request = new HttpGet(url(DOWNLOAD_ERROR_PATH + "?size=200000&contentType=image/png"));
+        Integer code = LogContext.log().executeWithExp((SupplierExp<Integer, IOException>) () ->
+                httpClient.execute(request, response -> response.getStatusLine().getStatusCode()));
+        assert code == 500;
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getResponseBody() == null;
+        assert requestLog.getResponseBodyLength() == 200_000;
+        assert !requestLog.getResponseBodyTruncated();
+    }
+
+
+    private String url(String path) {
+        return String.format("http://localhost:%s%s", port, path);
+    }
+
+}
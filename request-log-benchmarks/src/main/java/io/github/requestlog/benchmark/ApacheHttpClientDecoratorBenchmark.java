@@ -0,0 +1,45 @@
+package io.github.requestlog.benchmark;
+
+import io.github.requestlog.apachehttpclient.support.HttpClientRequestLogDecorator;
+import io.github.requestlog.benchmark.support.BenchmarkSupport;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.io.IOException;
+
+
+/**
+ * {@link HttpClientRequestLogDecorator} around a pooled apache {@link HttpClient}.
+ */
+public class ApacheHttpClientDecoratorBenchmark extends BenchmarkSupport {
+
+    private CloseableHttpClient target;
+    private HttpClient httpClient;
+
+
+    @Override
+    protected void setupClient() {
+        target = HttpClients.custom().setMaxConnTotal(256).setMaxConnPerRoute(256).build();
+        httpClient = new HttpClientRequestLogDecorator(requestLogHandler, target);
+    }
+
+    @Override
+    protected void tearDownClient() throws IOException {
+        target.close();
+    }
+
+
+    @Benchmark
+    public String execute() throws Exception {
+        return scenario.execute(() -> {
+            HttpResponse response = httpClient.execute(new HttpGet(url));
+            return EntityUtils.toString(response.getEntity());
+        });
+    }
+
+}
@@ -0,0 +1,45 @@
+package io.github.requestlog.benchmark;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import io.github.requestlog.benchmark.support.BenchmarkSupport;
+import io.github.requestlog.feign.aop.RequestLogFeignAdvice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+
+/**
+ * {@link RequestLogFeignAdvice} woven around a {@link Client.Default}, as the Spring AOP proxy of the starter does.
+ */
+public class FeignAdviceBenchmark extends BenchmarkSupport {
+
+    private Client client;
+    private Request request;
+    private Request.Options options;
+
+
+    @Override
+    protected void setupClient() {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new Client.Default(null, null));
+        proxyFactory.addAspect(new RequestLogFeignAdvice(requestLogHandler));
+        client = proxyFactory.getProxy();
+        request = Request.create(Request.HttpMethod.GET, url, Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+        options = new Request.Options();
+    }
+
+
+    @Benchmark
+    public String execute() throws Exception {
+        return scenario.execute(() -> {
+            try (Response response = client.execute(request, options)) {
+                return Util.toString(response.body().asReader(StandardCharsets.UTF_8));
+            }
+        });
+    }
+
+}
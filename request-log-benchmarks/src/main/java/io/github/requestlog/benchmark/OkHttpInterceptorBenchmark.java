@@ -0,0 +1,42 @@
+package io.github.requestlog.benchmark;
+
+import io.github.requestlog.benchmark.support.BenchmarkSupport;
+import io.github.requestlog.okhttp.interceptor.RequestLogOkHttpInterceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+
+
+/**
+ * {@link RequestLogOkHttpInterceptor} on an {@link OkHttpClient}.
+ */
+public class OkHttpInterceptorBenchmark extends BenchmarkSupport {
+
+    private OkHttpClient okHttpClient;
+    private Request request;
+
+
+    @Override
+    protected void setupClient() {
+        okHttpClient = new OkHttpClient.Builder().addInterceptor(new RequestLogOkHttpInterceptor(requestLogHandler)).build();
+        request = new Request.Builder().url(url).build();
+    }
+
+    @Override
+    protected void tearDownClient() {
+        okHttpClient.dispatcher().executorService().shutdown();
+        okHttpClient.connectionPool().evictAll();
+    }
+
+
+    @Benchmark
+    public String execute() throws Exception {
+        return scenario.execute(() -> {
+            try (Response response = okHttpClient.newCall(request).execute()) {
+                return response.body().string();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,81 @@
+package io.github.requestlog.benchmark;
+
+import io.github.requestlog.benchmark.support.Payloads;
+import io.github.requestlog.benchmark.support.RepositoryType;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link IRequestLogRepository#saveRequestLog} from concurrent producers, see {@link ThroughputBenchmarkRunner} for thread counts.
+ *
+ * Storage is reopened every iteration, so file segments and tables do not grow over the whole run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositoryBenchmark {
+
+    @Param
+    public RepositoryType repository;
+
+    /**
+     * Approximate bytes of the request body and of the response body.
+     */
+    @Param({"1024", "16384"})
+    public int bodySize;
+
+    private IRequestLogRepository requestLogRepository;
+
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        requestLogRepository = repository.open();
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        RepositoryType.close(requestLogRepository);
+    }
+
+
+    /**
+     * Each producer saves its own log, repositories may set its id.
+     */
+    @State(Scope.Thread)
+    public static class Producer {
+
+        private RequestLog requestLog;
+
+        @Setup(Level.Trial)
+        public void setup(RepositoryBenchmark benchmark) {
+            requestLog = Payloads.requestLog(benchmark.bodySize);
+        }
+    }
+
+
+    @Benchmark
+    public void saveRequestLog(Producer producer) {
+        requestLogRepository.saveRequestLog(producer.requestLog);
+    }
+
+}
@@ -0,0 +1,98 @@
+package io.github.requestlog.benchmark;
+
+import io.github.requestlog.benchmark.support.BenchmarkRequestContext;
+import io.github.requestlog.benchmark.support.Payloads;
+import io.github.requestlog.benchmark.support.RepositoryType;
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.handler.impl.AsyncRequestLogHandler;
+import io.github.requestlog.core.handler.impl.DefaultRequestLogHandler;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * {@link AbstractRequestLogHandler#handle} of failed requests from concurrent producers, per dispatch mode and repository.
+ *
+ * Latency is the time the producer, i.e. the request thread, spends in the handler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RequestLogHandlerBenchmark {
+
+    public enum Dispatch {
+
+        /**
+         * {@link DefaultRequestLogHandler}, saved on the request thread.
+         */
+        SYNC,
+
+        /**
+         * {@link AsyncRequestLogHandler} with its defaults, saved by a consumer thread.
+         */
+        ASYNC,
+    }
+
+
+    @Param
+    public Dispatch dispatch;
+
+    @Param
+    public RepositoryType repository;
+
+    /**
+     * Approximate bytes of the request body and of the response body.
+     */
+    @Param({"1024", "16384"})
+    public int bodySize;
+
+    private IRequestLogRepository requestLogRepository;
+    private AbstractRequestLogHandler requestLogHandler;
+    private String body;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        body = Payloads.json(bodySize);
+    }
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        requestLogRepository = repository.open();
+        requestLogHandler = dispatch == Dispatch.SYNC ? new DefaultRequestLogHandler(requestLogRepository) : new AsyncRequestLogHandler(requestLogRepository);
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        if (requestLogHandler instanceof AsyncRequestLogHandler) {
+            ((AsyncRequestLogHandler) requestLogHandler).shutdown();
+        }
+        RepositoryType.close(requestLogRepository);
+    }
+
+
+    @Benchmark
+    public void handle() {
+        requestLogHandler.handle(new BenchmarkRequestContext(LogContext.log(), body, body));
+    }
+
+}
@@ -0,0 +1,38 @@
+package io.github.requestlog.benchmark;
+
+import io.github.requestlog.benchmark.support.BenchmarkSupport;
+import io.github.requestlog.resttemplate.interceptor.RequestLogRestTemplateInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+
+/**
+ * {@link RequestLogRestTemplateInterceptor} on a {@link RestTemplate}.
+ */
+public class RestTemplateInterceptorBenchmark extends BenchmarkSupport {
+
+    private RestTemplate restTemplate;
+
+
+    @Override
+    protected void setupClient() {
+        restTemplate = new RestTemplate(new SimpleClientHttpRequestFactory());
+        restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            protected boolean hasError(HttpStatus statusCode) {
+                return false;
+            }
+        });
+        restTemplate.getInterceptors().add(new RequestLogRestTemplateInterceptor(requestLogHandler));
+    }
+
+
+    @Benchmark
+    public String exchange() throws Exception {
+        return scenario.execute(() -> restTemplate.getForObject(url, String.class));
+    }
+
+}
@@ -0,0 +1,140 @@
+package io.github.requestlog.benchmark;
+
+import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.context.retry.RetryClient;
+import io.github.requestlog.core.context.retry.RetryResult;
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.enums.ThreadMode;
+import io.github.requestlog.core.model.HttpRequestContext;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.support.concurrent.RequestLogExecutors;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * {@code concurrency} retries submitted at once, each blocking {@code latencyMillis} like a http round trip,
+ * on a {@link RequestLogExecutors} executor per {@link ThreadMode}.
+ *
+ * Run on JDK 21 or later to compare: platform mode runs at most {@code platformThreads} retries at a time,
+ * virtual mode runs all of them at once on a few carrier threads. {@code peakThreads} is the peak live thread count of the JVM,
+ * which does not include virtual threads. Below JDK 21 both modes use platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class RetryExecutorBenchmark {
+
+    @Param
+    public ThreadMode threadMode;
+
+    @Param({"1000", "10000"})
+    public int concurrency;
+
+    @Param({"50"})
+    public int latencyMillis;
+
+    @Param({"200"})
+    public int platformThreads;
+
+    private ExecutorService executor;
+    private RequestLog requestLog;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        executor = RequestLogExecutors.newExecutor("request-log-retry", threadMode, platformThreads);
+        requestLog = new RequestLog();
+        requestLog.setHttpMethod(HttpMethod.POST);
+        requestLog.setRequestUrl("http://127.0.0.1/failure");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Threads {
+
+        public long peakThreads;
+    }
+
+
+    @Benchmark
+    public int retryAll(Threads threads) throws InterruptedException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        threadMXBean.resetPeakThreadCount();
+
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicInteger succeed = new AtomicInteger();
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                try {
+                    if (new SleepingRetryClient(RetryContext.create(requestLog), latencyMillis).execute().succeed()) {
+                        succeed.incrementAndGet();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+
+        threads.peakThreads = threadMXBean.getPeakThreadCount();
+        return succeed.get();
+    }
+
+
+    /**
+     * Sleeps instead of a http request, always responds 200.
+     */
+    private static class SleepingRetryClient extends RetryClient<Void> {
+
+        private final long latencyMillis;
+
+        SleepingRetryClient(RetryContext retryContext, long latencyMillis) {
+            super(retryContext);
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        protected RetryResult doExecute() {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            HttpRequestContext requestContext = new HttpRequestContext();
+            requestContext.setRequestUrl(retryContext.buildRequestUrl());
+            requestContext.setResponseCode(200);
+            return new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, requestContext);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package io.github.requestlog.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Runs {@link RepositoryBenchmark} and {@link RequestLogHandlerBenchmark} once per producer thread count,
+ * reporting throughput, sampled latency percentiles (p0.99) and allocation rate.
+ *
+ * Thread counts are read from {@code -Dthreads=1,4,16,64} (the default), other arguments are passed to JMH,
+ * e.g. {@code java -Dthreads=1,64 -cp benchmarks.jar io.github.requestlog.benchmark.ThroughputBenchmarkRunner -p repository=FILE}
+ */
+public class ThroughputBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        for (String threads : System.getProperty("threads", "1,4,16,64").split(",")) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .addProfiler(GCProfiler.class);
+            if (commandLineOptions.getIncludes().isEmpty()) {
+                options.include(RepositoryBenchmark.class.getSimpleName()).include(RequestLogHandlerBenchmark.class.getSimpleName());
+            }
+            new Runner(options.build()).run();
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package io.github.requestlog.benchmark.support;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.context.request.OutboundRequestContext;
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * A failed request as an interceptor would hand it to the handler, without a client.
+ */
+public class BenchmarkRequestContext extends OutboundRequestContext {
+
+    private final String requestBody;
+    private final String responseBody;
+
+    public BenchmarkRequestContext(LogContext logContext, String requestBody, String responseBody) {
+        super(logContext);
+        this.requestBody = requestBody;
+        this.responseBody = responseBody;
+    }
+
+    @Override
+    public RequestContextType getRequestContextType() {
+        return RequestContextType.REST_TEMPLATE;
+    }
+
+    @Override
+    public HttpMethod getRequestMethod() {
+        return HttpMethod.POST;
+    }
+
+    @Override
+    public String getRequestUrl() {
+        return "http://orders.internal:8080/api/v1/orders?tenant=benchmark";
+    }
+
+    @Override
+    public String getRequestPath() {
+        return "/api/v1/orders";
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return Payloads.requestHeaders();
+    }
+
+    @Override
+    public String getRequestBody() {
+        return requestBody;
+    }
+
+    @Override
+    public Integer getResponseCode() {
+        return 500;
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+        return Payloads.responseHeaders();
+    }
+
+    @Override
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+}
@@ -0,0 +1,74 @@
+package io.github.requestlog.benchmark.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * In-process http server, answers {@link #SUCCESS_PATH} with 200 and {@link #FAILURE_PATH} with 500.
+ *
+ * Kept minimal so the numbers are dominated by the client side.
+ */
+public class BenchmarkServer implements AutoCloseable {
+
+    public static final String SUCCESS_PATH = "/success";
+    public static final String FAILURE_PATH = "/failure";
+
+    private static final byte[] SUCCESS_BODY = "{\"code\":0,\"message\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FAILURE_BODY = "{\"code\":500,\"message\":\"internal error\"}".getBytes(StandardCharsets.UTF_8);
+
+
+    static {
+        // headers and body are written separately, without it delayed acks add ~40ms per request.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+
+    public BenchmarkServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 256);
+        this.executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        server.createContext(SUCCESS_PATH, exchange -> respond(exchange, 200, SUCCESS_BODY));
+        server.createContext(FAILURE_PATH, exchange -> respond(exchange, 500, FAILURE_BODY));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    private static void respond(HttpExchange exchange, int code, byte[] body) throws IOException {
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            byte[] discard = new byte[1024];
+            while (requestBody.read(discard) != -1) {
+                // drain the request so the connection can be reused.
+            }
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+
+    public String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.github.requestlog.benchmark.support;
+
+import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.handler.impl.DefaultRequestLogHandler;
+import io.github.requestlog.core.repository.impl.BoundedInMemoryRequestLogRepository;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Shared state of the interception suites, a server per trial and a synchronous handler saving into a bounded repository.
+ *
+ * Reports average time in ns/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public abstract class BenchmarkSupport {
+
+    @Param
+    public Scenario scenario;
+
+    protected BenchmarkServer server;
+    protected AbstractRequestLogHandler requestLogHandler;
+    protected String url;
+
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        server = new BenchmarkServer();
+        requestLogHandler = new DefaultRequestLogHandler(new BoundedInMemoryRequestLogRepository());
+        url = server.url(scenario.getPath());
+        setupClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        try {
+            tearDownClient();
+        } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * Builds the intercepted client, {@link #requestLogHandler} and {@link #url} are set.
+     */
+    protected abstract void setupClient() throws Exception;
+
+    protected void tearDownClient() throws Exception {
+    }
+
+}
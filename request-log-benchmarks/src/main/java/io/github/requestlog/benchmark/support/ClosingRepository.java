@@ -0,0 +1,51 @@
+package io.github.requestlog.benchmark.support;
+
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.tuples.Tuple2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * Repository with the storage it was opened on, released on {@link #close()}.
+ */
+class ClosingRepository implements IRequestLogRepository, Closeable {
+
+    private final IRequestLogRepository target;
+    private final Closeable storage;
+
+    ClosingRepository(IRequestLogRepository target, Closeable storage) {
+        this.target = target;
+        this.storage = storage;
+    }
+
+    @Override
+    public void saveRequestLog(RequestLog requestLog) {
+        target.saveRequestLog(requestLog);
+    }
+
+    @Override
+    public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+        target.saveRequestLogAndRetryJob(requestLog, requestRetryJob);
+    }
+
+    @Override
+    public void saveRequestLogs(List<RequestLog> requestLogs) {
+        target.saveRequestLogs(requestLogs);
+    }
+
+    @Override
+    public void saveRequestLogsAndRetryJobs(List<Tuple2<RequestLog, RequestRetryJob>> requestLogAndRetryJobs) {
+        target.saveRequestLogsAndRetryJobs(requestLogAndRetryJobs);
+    }
+
+    @Override
+    public void close() throws IOException {
+        storage.close();
+    }
+
+}
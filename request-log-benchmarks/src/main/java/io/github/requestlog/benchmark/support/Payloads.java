@@ -0,0 +1,74 @@
+package io.github.requestlog.benchmark.support;
+
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RequestLogErrorType;
+import io.github.requestlog.core.model.RequestLog;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Request log payloads shaped like a failed json api call.
+ */
+public final class Payloads {
+
+    private Payloads() {
+    }
+
+
+    /**
+     * Json of about {@code size} bytes.
+     */
+    public static String json(int size) {
+        StringBuilder builder = new StringBuilder(size + 64).append("{\"items\":[");
+        for (int i = 0; builder.length() < size; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\",\"enabled\":").append(i % 2 == 0).append('}');
+        }
+        return builder.append("]}").toString();
+    }
+
+    public static Map<String, List<String>> requestHeaders() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Accept", Collections.singletonList("application/json"));
+        headers.put("Accept-Encoding", Arrays.asList("gzip", "deflate"));
+        headers.put("Content-Type", Collections.singletonList("application/json;charset=UTF-8"));
+        headers.put("User-Agent", Collections.singletonList("request-log-benchmarks"));
+        headers.put("X-Request-Id", Collections.singletonList("8a3c6c1e-9f2b-4c51-a0c2-6d1f0e3b7a94"));
+        return headers;
+    }
+
+    public static Map<String, List<String>> responseHeaders() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", Collections.singletonList("application/json;charset=UTF-8"));
+        headers.put("Date", Collections.singletonList("Mon, 01 Jan 2024 00:00:00 GMT"));
+        headers.put("Server", Collections.singletonList("benchmark"));
+        return headers;
+    }
+
+    /**
+     * A failed POST with request and response bodies of about {@code bodySize} bytes each.
+     */
+    public static RequestLog requestLog(int bodySize) {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setContextType(RequestContextType.REST_TEMPLATE);
+        requestLog.setLogErrorType(RequestLogErrorType.RESPONSE);
+        requestLog.setHttpMethod(HttpMethod.POST);
+        requestLog.setRequestUrl("http://orders.internal:8080/api/v1/orders?tenant=benchmark");
+        requestLog.setRequestPath("/api/v1/orders");
+        requestLog.setRequestHeaders(requestHeaders());
+        requestLog.setRequestBody(json(bodySize));
+        requestLog.setResponseCode(500);
+        requestLog.setResponseHeaders(responseHeaders());
+        requestLog.setResponseBody(json(bodySize));
+        return requestLog;
+    }
+
+}
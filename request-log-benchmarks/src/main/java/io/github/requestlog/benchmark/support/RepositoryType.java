@@ -0,0 +1,96 @@
+package io.github.requestlog.benchmark.support;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.repository.impl.BoundedInMemoryRequestLogRepository;
+import io.github.requestlog.core.repository.impl.FileRequestLogRepository;
+import io.github.requestlog.core.repository.impl.JdbcRequestLogRepository;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+
+/**
+ * Repositories under benchmark, each opened on fresh storage.
+ */
+public enum RepositoryType {
+
+    BOUNDED_IN_MEMORY {
+        @Override
+        public IRequestLogRepository open() {
+            return new BoundedInMemoryRequestLogRepository();
+        }
+    },
+
+    /**
+     * Segments in a temporary directory, deleted on close.
+     */
+    FILE {
+        @Override
+        public IRequestLogRepository open() throws IOException {
+            Path directory = Files.createTempDirectory("request-log-benchmark");
+            FileRequestLogRepository repository = new FileRequestLogRepository(directory);
+            return new ClosingRepository(repository, () -> {
+                repository.close();
+                FileSystemUtils.deleteRecursively(directory);
+            });
+        }
+    },
+
+    /**
+     * In-memory H2 behind a Hikari pool, dropped on close.
+     */
+    JDBC {
+        @Override
+        public IRequestLogRepository open() throws IOException {
+            HikariConfig config = new HikariConfig();
+            config.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+            config.setMaximumPoolSize(64);
+            HikariDataSource dataSource = new HikariDataSource(config);
+            try (InputStream inputStream = RepositoryType.class.getClassLoader().getResourceAsStream("request-log/schema-h2.sql");
+                 Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                for (String sql : StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8).split(";")) {
+                    if (!sql.trim().isEmpty()) {
+                        statement.execute(sql);
+                    }
+                }
+            } catch (SQLException e) {
+                dataSource.close();
+                throw new IOException("init schema error", e);
+            }
+            return new ClosingRepository(new JdbcRequestLogRepository(dataSource), () -> {
+                try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                    statement.execute("SHUTDOWN");
+                } catch (SQLException ignored) {
+                } finally {
+                    dataSource.close();
+                }
+            });
+        }
+    },
+    ;
+
+
+    public abstract IRequestLogRepository open() throws IOException;
+
+    /**
+     * Releases what {@link #open()} allocated, if anything.
+     */
+    public static void close(IRequestLogRepository repository) throws IOException {
+        if (repository instanceof Closeable) {
+            ((Closeable) repository).close();
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package io.github.requestlog.benchmark.support;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.support.function.SupplierExp;
+
+import static io.github.requestlog.benchmark.support.BenchmarkServer.FAILURE_PATH;
+import static io.github.requestlog.benchmark.support.BenchmarkServer.SUCCESS_PATH;
+
+
+/**
+ * Interception paths measured by every suite.
+ */
+public enum Scenario {
+
+    /**
+     * Successful request outside {@link LogContext}, the interceptor passes through.
+     */
+    NO_LOG_CONTEXT(SUCCESS_PATH, false),
+
+    /**
+     * Successful request inside {@link LogContext}, nothing is logged.
+     */
+    SUCCESS(SUCCESS_PATH, true),
+
+    /**
+     * Failed request inside {@link LogContext}, a request log is built and saved.
+     */
+    FAILURE(FAILURE_PATH, true),
+    ;
+
+    private final String path;
+    private final boolean logContext;
+
+    Scenario(String path, boolean logContext) {
+        this.path = path;
+        this.logContext = logContext;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Runs the request as an application would, within {@link LogContext#log()} if the scenario logs.
+     */
+    public <T> T execute(SupplierExp<T, Exception> request) throws Exception {
+        return logContext ? LogContext.log().executeWithExp(request) : request.get();
+    }
+
+}
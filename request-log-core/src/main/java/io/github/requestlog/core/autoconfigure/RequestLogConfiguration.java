@@ -1,14 +1,24 @@
 package io.github.requestlog.core.autoconfigure;
 
+import io.github.requestlog.core.context.retry.RetryBulkhead;
+import io.github.requestlog.core.enums.OverflowPolicy;
+import io.github.requestlog.core.enums.ThreadMode;
 import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.handler.RequestLogCoalescer;
+import io.github.requestlog.core.handler.impl.AsyncRequestLogHandler;
 import io.github.requestlog.core.handler.impl.DefaultRequestLogHandler;
 import io.github.requestlog.core.repository.IRequestLogRepository;
 import io.github.requestlog.core.repository.impl.Slf4jRequestLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.Collections;
+
 
 /**
  * Core configuration for RequestLog.
@@ -33,17 +43,62 @@ public class RequestLogConfiguration {
 
     /**
      * Default {@link AbstractRequestLogHandler}.
+     * Persists on a background ring buffer when 'request-log.async.enabled' is 'true', otherwise on the calling thread.
+     * Folds identical request logs when 'request-log.coalesce.window-millis' is positive.
      */
     @Configuration(proxyBeanMethods = false)
     @ConditionalOnMissingBean(AbstractRequestLogHandler.class)
     public static class HandlerConfiguration {
 
-        @Bean
+        @Value("${request-log.coalesce.window-millis:0}")
+        private long coalesceWindowMillis;
+
+        @Value("${request-log.coalesce.max-fingerprints:1024}")
+        private int coalesceMaxFingerprints;
+
+        @Bean(destroyMethod = "close")
+        @ConditionalOnProperty(value = "request-log.async.enabled", havingValue = "false", matchIfMissing = true)
         public AbstractRequestLogHandler requestLogHandler(@Autowired IRequestLogRepository requestLogRepository) {
-            return new DefaultRequestLogHandler(requestLogRepository);
+            return coalesce(new DefaultRequestLogHandler(requestLogRepository));
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        @ConditionalOnProperty(value = "request-log.async.enabled", havingValue = "true")
+        public AbstractRequestLogHandler asyncRequestLogHandler(@Autowired IRequestLogRepository requestLogRepository,
+                                                                @Value("${request-log.async.buffer-size:8192}") int bufferSize,
+                                                                @Value("${request-log.async.consumer-threads:1}") int consumerThreads,
+                                                                @Value("${request-log.async.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                                                                @Value("${request-log.async.batch-size:256}") int batchSize,
+                                                                @Value("${request-log.async.linger-millis:0}") long lingerMillis,
+                                                                @Value("${request-log.async.thread-mode:PLATFORM}") ThreadMode threadMode) {
+            return coalesce(new AsyncRequestLogHandler(requestLogRepository, bufferSize, consumerThreads, overflowPolicy, batchSize, lingerMillis, threadMode));
+        }
+
+        private AbstractRequestLogHandler coalesce(AbstractRequestLogHandler requestLogHandler) {
+            if (coalesceWindowMillis > 0) {
+                requestLogHandler.setCoalescer(new RequestLogCoalescer(Duration.ofMillis(coalesceWindowMillis), coalesceMaxFingerprints));
+            }
+            return requestLogHandler;
         }
 
     }
 
-}
+    /**
+     * Global {@link RetryBulkhead}, enabled by 'request-log.retry.bulkhead.permits-per-host'.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty("request-log.retry.bulkhead.permits-per-host")
+    @ConditionalOnMissingBean(RetryBulkhead.class)
+    public static class RetryBulkheadConfiguration {
 
+        @Bean
+        public RetryBulkhead retryBulkhead(@Value("${request-log.retry.bulkhead.permits-per-host}") int permitsPerHost,
+                                           @Value("${request-log.retry.bulkhead.max-wait-millis:-1}") long maxWaitMillis) {
+            RetryBulkhead retryBulkhead = new RetryBulkhead(permitsPerHost, Collections.emptyMap(), maxWaitMillis);
+            RetryBulkhead.registerGlobal(retryBulkhead);
+            return retryBulkhead;
+        }
+
+    }
+
+}
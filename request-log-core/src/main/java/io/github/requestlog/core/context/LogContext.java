@@ -3,10 +3,12 @@ package io.github.requestlog.core.context;
 
 import io.github.requestlog.core.enums.RetryWaitStrategy;
 import io.github.requestlog.core.model.HttpRequestContext;
+import io.github.requestlog.core.support.sampler.RequestLogSampler;
 import io.github.requestlog.core.support.function.RunnableExp;
 import io.github.requestlog.core.support.function.SupplierExp;
 import lombok.Getter;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
@@ -82,6 +84,21 @@ public final class LogContext {
     @Getter
     private Predicate<HttpRequestContext> successHttpResponsePredicate;
 
+    /**
+     * Slow threshold for current request.
+     * overrides global thresholds.
+     * Successful requests taking longer are still logged, as slow.
+     */
+    @Getter
+    private Duration slowThreshold;
+
+    /**
+     * Sampler for current request.
+     * overrides global samplers.
+     */
+    @Getter
+    private RequestLogSampler sampler;
+
     /**
      * Custom key value.
      */
@@ -152,6 +169,29 @@ public final class LogContext {
         return this;
     }
 
+    /**
+     * Logs requests that succeeded but took longer than the threshold, with {@link io.github.requestlog.core.enums.RequestLogErrorType#SLOW}.
+     * Slow requests never generate retry jobs.
+     *
+     * @param slowThreshold positive duration.
+     */
+    public LogContext slowThreshold(Duration slowThreshold) {
+        assert slowThreshold != null && !slowThreshold.isNegative() && !slowThreshold.isZero();
+        this.slowThreshold = slowThreshold;
+        return this;
+    }
+
+    /**
+     * Keeps only the request logs accepted by the sampler, see {@link io.github.requestlog.core.support.sampler.Samplers}.
+     * Requests with {@link #retry} are always kept.
+     *
+     * @param sampler shared instance, stateful samplers count over all requests using them.
+     */
+    public LogContext sample(RequestLogSampler sampler) {
+        this.sampler = sampler;
+        return this;
+    }
+
 
     /**
      * Time millis before {@link #execute(Supplier)}
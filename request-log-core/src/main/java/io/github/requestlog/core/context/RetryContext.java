@@ -1,5 +1,6 @@
 package io.github.requestlog.core.context;
 
+import io.github.requestlog.core.context.retry.RetryBulkhead;
 import io.github.requestlog.core.context.retry.RetryClient;
 import io.github.requestlog.core.model.HttpRequestContext;
 import io.github.requestlog.core.model.RequestLog;
@@ -105,6 +106,8 @@ public class RetryContext {
     private Predicate<Exception> ignoreExceptionPredicate;
     private Predicate<HttpRequestContext> successHttpResponsePredicate;
 
+    private RetryBulkhead bulkhead;
+
 
     /**
      * Rewrites the scheme of the URL using the specified override value.
@@ -305,6 +308,15 @@ public class RetryContext {
     }
 
 
+    /**
+     * Limits concurrent retries per host, overrides the global bulkhead registered by {@link RetryBulkhead#registerGlobal}.
+     */
+    public RetryContext bulkhead(RetryBulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+        return this;
+    }
+
+
     /**
      * Build request url for execute.
      */
@@ -327,6 +339,13 @@ public class RetryContext {
 
     }
 
+    /**
+     * Host of {@link #buildRequestUrl()}, the key of {@link RetryBulkhead}.
+     */
+    public String buildRequestHost() {
+        return URI.create(buildRequestUrl()).getHost();
+    }
+
 
     /**
      * Build request headers.
@@ -2,8 +2,13 @@ package io.github.requestlog.core.context.request;
 
 import io.github.requestlog.core.enums.RequestContextType;
 import io.github.requestlog.core.enums.RequestLogErrorType;
+import io.github.requestlog.core.model.LazyRequestLog;
 import io.github.requestlog.core.model.RequestLog;
 import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.support.sampler.RequestLogSampler;
+import io.github.requestlog.core.support.sampler.Samplers;
+
+import java.nio.charset.StandardCharsets;
 
 
 /**
@@ -30,6 +35,29 @@ public abstract class BaseRequestContext implements HttpRequestContext {
      */
     public abstract boolean retryRequest();
 
+    /**
+     * Return if current request log is kept by the sampler.
+     *
+     * Only asked when {@link #logRequest()} is true, requests with a retry job are always kept.
+     */
+    public boolean sampleRequest() {
+        if (sampleRequestCache != null) {
+            return sampleRequestCache;
+        }
+        if (retryRequest()) {
+            return (sampleRequestCache = true);
+        }
+        RequestLogSampler sampler = getSampler();
+        return (sampleRequestCache = sampler == null || sampler.sample(this));
+    }
+
+    /**
+     * Sampler for {@link #sampleRequest()}, null keeps every request log.
+     */
+    protected RequestLogSampler getSampler() {
+        return Samplers.getSampler(getRequestContextType());
+    }
+
 
     /**
      * Build {@link RequestLog}
@@ -38,7 +66,8 @@ public abstract class BaseRequestContext implements HttpRequestContext {
         if (requestLogCache != null) {
             return requestLogCache;
         }
-        RequestLog requestLog = new RequestLog();
+        // bodies available as bytes are decoded when the repository reads them.
+        LazyRequestLog requestLog = new LazyRequestLog();
         requestLog.setContextType(getRequestContextType());
         requestLog.setLogErrorType(requestLogErrorType);
 
@@ -50,12 +79,25 @@ public abstract class BaseRequestContext implements HttpRequestContext {
         requestLog.setRequestUrl(getRequestUrl());
         requestLog.setRequestPath(getRequestPath());
         requestLog.setRequestHeaders(getRequestHeaders());
-        requestLog.setRequestBody(getRequestBody());
+        byte[] requestBodyBytes = getRequestBodyBytes();
+        if (requestBodyBytes != null) {
+            requestLog.deferRequestBody(requestBodyBytes, StandardCharsets.UTF_8);
+        } else {
+            requestLog.setRequestBody(getRequestBody());
+        }
 
         // response
         requestLog.setResponseCode(getResponseCode());
         requestLog.setResponseHeaders(getResponseHeaders());
-        requestLog.setResponseBody(getResponseBody());
+        byte[] responseBodyBytes = getResponseBodyBytes();
+        if (responseBodyBytes != null) {
+            requestLog.deferResponseBody(responseBodyBytes, getResponseBodyCharset());
+        } else {
+            requestLog.setResponseBody(getResponseBody());
+        }
+        requestLog.setResponseBodyLength(getResponseBodyLength());
+        requestLog.setResponseBodyTruncated(isResponseBodyTruncated());
+        requestLog.setDurationNanos(durationNanos);
 
         return (requestLogCache = requestLog);
     }
@@ -66,6 +108,36 @@ public abstract class BaseRequestContext implements HttpRequestContext {
     public abstract RequestRetryJob buildRequestRetryJob();
 
 
+    /**
+     * Records the request duration as the time elapsed since {@code startNanos}, taken with {@link System#nanoTime()}.
+     */
+    public BaseRequestContext elapsedSince(long startNanos) {
+        this.durationNanos = System.nanoTime() - startNanos;
+        return this;
+    }
+
+    /**
+     * Request duration in nanoseconds, null if not measured.
+     */
+    public Long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Exception of the request, null if it got a response.
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    /**
+     * Error type, assigned by {@link #logRequest()}.
+     */
+    public RequestLogErrorType getRequestLogErrorType() {
+        return requestLogErrorType;
+    }
+
+
     /**
      * Cache for {@link #logRequest()}
      */
@@ -76,6 +148,11 @@ public abstract class BaseRequestContext implements HttpRequestContext {
      */
     protected Boolean retryRequestCache;
 
+    /**
+     * Cache for {@link #sampleRequest()}
+     */
+    protected Boolean sampleRequestCache;
+
     /**
      * Cache for {@link #buildRequestLog()}
      */
@@ -99,4 +176,9 @@ public abstract class BaseRequestContext implements HttpRequestContext {
      */
     protected RequestLogErrorType requestLogErrorType;
 
+    /**
+     * Request duration in nanoseconds, see {@link #elapsedSince(long)}.
+     */
+    protected Long durationNanos;
+
 }
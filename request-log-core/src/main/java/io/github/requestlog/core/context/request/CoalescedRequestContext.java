@@ -0,0 +1,95 @@
+package io.github.requestlog.core.context.request;
+
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Request context around an already built {@link RequestLog}, standing for requests folded by a
+ * {@link io.github.requestlog.core.handler.RequestLogCoalescer}.
+ *
+ * Always logged, never sampled, never retried.
+ */
+public class CoalescedRequestContext extends BaseRequestContext {
+
+    private final RequestLog requestLog;
+
+    public CoalescedRequestContext(RequestLog requestLog) {
+        this.requestLog = requestLog;
+        super.requestLogCache = requestLog;
+        super.logRequestCache = true;
+        super.retryRequestCache = false;
+        super.sampleRequestCache = true;
+        super.requestLogErrorType = requestLog.getLogErrorType();
+        super.exception = requestLog.getException();
+        super.durationNanos = requestLog.getDurationNanos();
+    }
+
+
+    @Override
+    public RequestContextType getRequestContextType() {
+        return requestLog.getContextType();
+    }
+
+    @Override
+    public boolean logRequest() {
+        return true;
+    }
+
+    @Override
+    public boolean retryRequest() {
+        return false;
+    }
+
+    @Override
+    public RequestRetryJob buildRequestRetryJob() {
+        return null;
+    }
+
+
+    @Override
+    public HttpMethod getRequestMethod() {
+        return requestLog.getHttpMethod();
+    }
+
+    @Override
+    public String getRequestUrl() {
+        return requestLog.getRequestUrl();
+    }
+
+    @Override
+    public String getRequestPath() {
+        return requestLog.getRequestPath();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return requestLog.getRequestHeaders();
+    }
+
+    @Override
+    public String getRequestBody() {
+        return requestLog.getRequestBody();
+    }
+
+    @Override
+    public Integer getResponseCode() {
+        return requestLog.getResponseCode();
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+        return requestLog.getResponseHeaders();
+    }
+
+    @Override
+    public String getResponseBody() {
+        return requestLog.getResponseBody();
+    }
+
+}
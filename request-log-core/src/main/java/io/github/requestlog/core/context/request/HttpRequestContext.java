@@ -3,6 +3,8 @@ package io.github.requestlog.core.context.request;
 import io.github.requestlog.core.enums.HttpMethod;
 import io.github.requestlog.core.support.HttpUtils;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +26,14 @@ public interface HttpRequestContext {
 
     String getRequestBody();
 
+    /**
+     * Request body as UTF-8 bytes, null if only available as {@link #getRequestBody()}.
+     * The array is kept by the built log and decoded when first read, it must not be modified afterwards.
+     */
+    default byte[] getRequestBodyBytes() {
+        return null;
+    }
+
 
     Integer getResponseCode();
 
@@ -36,4 +46,33 @@ public interface HttpRequestContext {
      */
     String getResponseBody();
 
+    /**
+     * Response body bytes, null if only available as {@link #getResponseBody()}.
+     * The array is kept by the built log and decoded when first read, it must not be modified afterwards.
+     */
+    default byte[] getResponseBodyBytes() {
+        return null;
+    }
+
+    /**
+     * Charset to decode {@link #getResponseBodyBytes()} with.
+     */
+    default Charset getResponseBodyCharset() {
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Length of the whole response body in bytes, null if unknown.
+     */
+    default Long getResponseBodyLength() {
+        return null;
+    }
+
+    /**
+     * Whether {@link #getResponseBody()} returns only a prefix of the response body.
+     */
+    default boolean isResponseBodyTruncated() {
+        return false;
+    }
+
 }
@@ -0,0 +1,161 @@
+package io.github.requestlog.core.context.request;
+
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.support.CollectionUtils;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * {@link io.github.requestlog.core.model.HttpRequestContext} reading each field from the request context on first access,
+ * so a predicate only pays for the fields it reads, e.g. the response code.
+ *
+ * Not thread-safe, predicates run on the thread handling the request.
+ */
+class LazyHttpRequestContext extends io.github.requestlog.core.model.HttpRequestContext {
+
+    private static final int HTTP_METHOD = 1;
+    private static final int REQUEST_URL = 1 << 1;
+    private static final int REQUEST_PATH = 1 << 2;
+    private static final int REQUEST_HEADERS = 1 << 3;
+    private static final int REQUEST_BODY = 1 << 4;
+    private static final int RESPONSE_CODE = 1 << 5;
+    private static final int RESPONSE_HEADERS = 1 << 6;
+    private static final int RESPONSE_BODY = 1 << 7;
+
+    private final BaseRequestContext source;
+
+    /**
+     * Fields already read or set.
+     */
+    private int loaded;
+
+    LazyHttpRequestContext(BaseRequestContext source) {
+        this.source = source;
+        super.setRequestContextType(source.getRequestContextType());
+    }
+
+    private boolean load(int field) {
+        if ((loaded & field) != 0) {
+            return false;
+        }
+        loaded |= field;
+        return true;
+    }
+
+
+    @Override
+    public HttpMethod getHttpMethod() {
+        if (load(HTTP_METHOD)) {
+            super.setHttpMethod(source.getRequestMethod());
+        }
+        return super.getHttpMethod();
+    }
+
+    @Override
+    public void setHttpMethod(HttpMethod httpMethod) {
+        loaded |= HTTP_METHOD;
+        super.setHttpMethod(httpMethod);
+    }
+
+    @Override
+    public String getRequestUrl() {
+        if (load(REQUEST_URL)) {
+            super.setRequestUrl(source.getRequestUrl());
+        }
+        return super.getRequestUrl();
+    }
+
+    @Override
+    public void setRequestUrl(String requestUrl) {
+        loaded |= REQUEST_URL;
+        super.setRequestUrl(requestUrl);
+    }
+
+    @Override
+    public String getRequestPath() {
+        if (load(REQUEST_PATH)) {
+            super.setRequestPath(source.getRequestPath());
+        }
+        return super.getRequestPath();
+    }
+
+    @Override
+    public void setRequestPath(String requestPath) {
+        loaded |= REQUEST_PATH;
+        super.setRequestPath(requestPath);
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        if (load(REQUEST_HEADERS)) {
+            super.setRequestHeaders(CollectionUtils.unmodifiableMap(source.getRequestHeaders()));
+        }
+        return super.getRequestHeaders();
+    }
+
+    @Override
+    public void setRequestHeaders(Map<String, List<String>> requestHeaders) {
+        loaded |= REQUEST_HEADERS;
+        super.setRequestHeaders(requestHeaders);
+    }
+
+    @Override
+    public String getRequestBody() {
+        if (load(REQUEST_BODY)) {
+            super.setRequestBody(source.getRequestBody());
+        }
+        return super.getRequestBody();
+    }
+
+    @Override
+    public void setRequestBody(String requestBody) {
+        loaded |= REQUEST_BODY;
+        super.setRequestBody(requestBody);
+    }
+
+    @Override
+    public Integer getResponseCode() {
+        if (load(RESPONSE_CODE)) {
+            super.setResponseCode(source.getResponseCode());
+        }
+        return super.getResponseCode();
+    }
+
+    @Override
+    public void setResponseCode(Integer responseCode) {
+        loaded |= RESPONSE_CODE;
+        super.setResponseCode(responseCode);
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+        if (load(RESPONSE_HEADERS)) {
+            super.setResponseHeaders(CollectionUtils.unmodifiableMap(source.getResponseHeaders()));
+        }
+        return super.getResponseHeaders();
+    }
+
+    @Override
+    public void setResponseHeaders(Map<String, List<String>> responseHeaders) {
+        loaded |= RESPONSE_HEADERS;
+        super.setResponseHeaders(responseHeaders);
+    }
+
+    @Override
+    public String getResponseBody() {
+        if (load(RESPONSE_BODY)) {
+            super.setResponseBody(source.getResponseBody());
+        }
+        return super.getResponseBody();
+    }
+
+    @Override
+    public void setResponseBody(String responseBody) {
+        loaded |= RESPONSE_BODY;
+        super.setResponseBody(responseBody);
+    }
+
+}
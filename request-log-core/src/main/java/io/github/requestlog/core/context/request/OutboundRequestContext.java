@@ -10,8 +10,10 @@ import io.github.requestlog.core.model.RequestRetryJob;
 import io.github.requestlog.core.support.CollectionUtils;
 import io.github.requestlog.core.support.Predicates;
 import io.github.requestlog.core.support.SupplierChain;
+import io.github.requestlog.core.support.sampler.RequestLogSampler;
 import lombok.RequiredArgsConstructor;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.function.Predicate;
 
@@ -50,8 +52,18 @@ public abstract class OutboundRequestContext extends BaseRequestContext {
                 .or(Predicates.getSuccessHttpResponsePredicate(getRequestContextType())).get();
 
         // TODO: 2024/1/31 catch predicate error
-        if (super.logRequestCache = !successHttpResponsePredicate.test(buildHttpRequestContext())) {
+        // fields are read on demand, a status code check does not touch headers or bodies.
+        if (super.logRequestCache = !successHttpResponsePredicate.test(new LazyHttpRequestContext(this))) {
             requestLogErrorType = RequestLogErrorType.RESPONSE;
+            return super.logRequestCache;
+        }
+
+        // successful, still logged if slower than the threshold.
+        Duration slowThreshold = SupplierChain.of(logContext.getSlowThreshold())
+                .or(Predicates.getSlowThreshold(getRequestContextType())).get();
+        if (slowThreshold != null && durationNanos != null && durationNanos >= slowThreshold.toNanos()) {
+            requestLogErrorType = RequestLogErrorType.SLOW;
+            super.logRequestCache = true;
         }
 
         return super.logRequestCache;
@@ -62,7 +74,14 @@ public abstract class OutboundRequestContext extends BaseRequestContext {
         if (retryRequestCache != null) {
             return retryRequestCache;
         }
-        return (retryRequestCache = (logRequest() && Boolean.TRUE.equals(logContext.getRetry())));
+        // a slow request succeeded, retrying it would repeat it.
+        return (retryRequestCache = (logRequest() && requestLogErrorType != RequestLogErrorType.SLOW && Boolean.TRUE.equals(logContext.getRetry())));
+    }
+
+
+    @Override
+    protected RequestLogSampler getSampler() {
+        return SupplierChain.of(logContext.getSampler()).or(super.getSampler()).get();
     }
 
 
@@ -94,6 +113,9 @@ public abstract class OutboundRequestContext extends BaseRequestContext {
 
 
     // TODO: 2024/2/12 super?
+    /**
+     * Snapshot of all fields, e.g. for a retry result read after the response is closed.
+     */
     public HttpRequestContext buildHttpRequestContext() {
         HttpRequestContext requestContext = new HttpRequestContext();
         requestContext.setHttpMethod(getRequestMethod());
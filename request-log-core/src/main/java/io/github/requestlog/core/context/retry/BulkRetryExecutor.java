@@ -0,0 +1,280 @@
+package io.github.requestlog.core.context.retry;
+
+import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.Preconditions;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+
+/**
+ * Retries a large number of {@link RequestLog} or {@link RequestRetryJob} with bounded parallelism, e.g. after a partner outage.
+ *
+ * The input is consumed lazily on the calling thread, at most {@link #parallelism} retries are in flight.
+ * While retries run, the calling thread persists completed ones in batches:
+ * retry logs through {@link IRequestLogRepository#saveRequestRetryLogs}, succeeded jobs through {@link IRequestLogRepository#deleteRequestRetryJobs},
+ * other jobs, updated by {@link RetryResult#updateRetryJob()}, through {@link IRequestLogRepository#updateRequestRetryJobs}.
+ *
+ * The retry function is usually {@code context -> context.with(OkHttpRetryClient.class, okHttpClient).executeAsync()},
+ * see {@link RetryClient#executeAsync()}.
+ */
+@Slf4j
+public class BulkRetryExecutor {
+
+    private final IRequestLogRepository requestLogRepository;
+    private final Function<RetryContext, CompletableFuture<RetryResult>> retryFunction;
+
+    @Getter
+    private int parallelism = 64;
+
+    @Getter
+    private int batchSize = 500;
+
+    @Getter
+    private long progressIntervalMillis = 5000;
+
+    private Consumer<BulkRetryReport> progressListener;
+
+    @Getter
+    private boolean collectResults;
+
+
+    /**
+     * @param retryFunction starts a retry, called on the calling thread, the future may complete on any thread.
+     */
+    public BulkRetryExecutor(IRequestLogRepository requestLogRepository, Function<RetryContext, CompletableFuture<RetryResult>> retryFunction) {
+        Preconditions.check(requestLogRepository != null, "requestLogRepository can not be null");
+        Preconditions.check(retryFunction != null, "retryFunction can not be null");
+        this.requestLogRepository = requestLogRepository;
+        this.retryFunction = retryFunction;
+    }
+
+
+    /**
+     * Max retries in flight, default 64.
+     */
+    public BulkRetryExecutor parallelism(int parallelism) {
+        Preconditions.check(parallelism > 0, "parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Max records per repository call, default 500.
+     */
+    public BulkRetryExecutor batchSize(int batchSize) {
+        Preconditions.check(batchSize > 0, "batchSize must be positive");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Called on the calling thread every {@code intervalMillis}, and once more with the final report.
+     */
+    public BulkRetryExecutor onProgress(Consumer<BulkRetryReport> progressListener, long intervalMillis) {
+        Preconditions.check(intervalMillis > 0, "intervalMillis must be positive");
+        this.progressListener = progressListener;
+        this.progressIntervalMillis = intervalMillis;
+        return this;
+    }
+
+    /**
+     * Keep every {@link RetryResult} in the final report, off by default to bound memory.
+     */
+    public BulkRetryExecutor collectResults(boolean collectResults) {
+        this.collectResults = collectResults;
+        return this;
+    }
+
+
+    /**
+     * Retries request logs without retry job, only retry logs are saved.
+     */
+    public BulkRetryReport retryLogs(Iterator<RequestLog> requestLogs) {
+        return new Run().execute(requestLogs, requestLog -> RetryContext.create(requestLog, null));
+    }
+
+    public BulkRetryReport retryLogs(Stream<RequestLog> requestLogs) {
+        return retryLogs(requestLogs.iterator());
+    }
+
+    /**
+     * Retries saved jobs, each with its {@link RequestRetryJob#getRequestLog()}.
+     */
+    public BulkRetryReport retryJobs(Iterator<RequestRetryJob> requestRetryJobs) {
+        return new Run().execute(requestRetryJobs, requestRetryJob -> RetryContext.create(requestRetryJob.getRequestLog(), requestRetryJob));
+    }
+
+    public BulkRetryReport retryJobs(Stream<RequestRetryJob> requestRetryJobs) {
+        return retryJobs(requestRetryJobs.iterator());
+    }
+
+
+    /**
+     * State of one run, only touched by the calling thread except {@link #completions} and {@link #permits}.
+     */
+    private class Run {
+
+        // settings may change between runs.
+        private final int parallelism = BulkRetryExecutor.this.parallelism;
+        private final int batchSize = BulkRetryExecutor.this.batchSize;
+        private final Semaphore permits = new Semaphore(parallelism);
+        private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+        private final List<Completion> pending = new ArrayList<>();
+        private final List<RetryResult> results = collectResults ? new ArrayList<>() : null;
+        private final long startNanos = System.nanoTime();
+        private long lastProgressNanos = startNanos;
+
+        private long submittedCount;
+        private long succeededCount;
+        private long failedCount;
+        private long errorCount;
+        private long persistErrorCount;
+
+        <T> BulkRetryReport execute(Iterator<T> items, Function<T, RetryContext> contextFunction) {
+            try {
+                while (items.hasNext()) {
+                    RetryContext retryContext = contextFunction.apply(items.next());
+                    while (!permits.tryAcquire(10, TimeUnit.MILLISECONDS)) {
+                        drain(false);
+                    }
+                    submit(retryContext);
+                    drain(false);
+                }
+                while (!permits.tryAcquire(parallelism, 10, TimeUnit.MILLISECONDS)) {
+                    drain(false);
+                }
+            } catch (InterruptedException e) {
+                // retries in flight are not waited for.
+                Thread.currentThread().interrupt();
+            }
+            drain(true);
+            BulkRetryReport report = report(results);
+            if (progressListener != null) {
+                progressListener.accept(report);
+            }
+            return report;
+        }
+
+        private void submit(RetryContext retryContext) {
+            submittedCount++;
+            RequestRetryJob requestRetryJob = retryContext.getRequestRetryJob();
+            CompletableFuture<RetryResult> future;
+            try {
+                future = retryFunction.apply(retryContext);
+                Preconditions.check(future != null, "retryFunction returned null");
+            } catch (RuntimeException e) {
+                complete(requestRetryJob, null, e);
+                return;
+            }
+            future.whenComplete((retryResult, e) -> complete(requestRetryJob, retryResult, e));
+        }
+
+        private void complete(RequestRetryJob requestRetryJob, RetryResult retryResult, Throwable e) {
+            completions.add(new Completion(requestRetryJob, retryResult, e));
+            permits.release();
+        }
+
+        private void drain(boolean force) {
+            Completion completion;
+            while ((completion = completions.poll()) != null) {
+                pending.add(completion);
+                if (pending.size() >= batchSize) {
+                    flush();
+                }
+            }
+            if (force) {
+                flush();
+            }
+            long nowNanos = System.nanoTime();
+            if (progressListener != null && !force && nowNanos - lastProgressNanos >= TimeUnit.MILLISECONDS.toNanos(progressIntervalMillis)) {
+                lastProgressNanos = nowNanos;
+                progressListener.accept(report(null));
+            }
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<RequestRryLog> retryLogs = new ArrayList<>(pending.size());
+            List<RequestRetryJob> deletedJobs = new ArrayList<>();
+            List<RequestRetryJob> updatedJobs = new ArrayList<>();
+            for (Completion completion : pending) {
+                RetryResult retryResult = completion.retryResult;
+                if (retryResult == null) {
+                    errorCount++;
+                    log.warn("bulk retry error, job id: {}", completion.requestRetryJob == null ? null : completion.requestRetryJob.getId(), completion.exception);
+                    continue;
+                }
+                retryLogs.add(retryResult.generateRetryLog());
+                if (retryResult.succeed()) {
+                    succeededCount++;
+                    if (completion.requestRetryJob != null) {
+                        deletedJobs.add(completion.requestRetryJob);
+                    }
+                } else {
+                    failedCount++;
+                    if (completion.requestRetryJob != null) {
+                        retryResult.updateRetryJob();
+                        updatedJobs.add(completion.requestRetryJob);
+                    }
+                }
+                if (results != null) {
+                    results.add(retryResult);
+                }
+            }
+            pending.clear();
+            persist(retryLogs, requestLogRepository::saveRequestRetryLogs);
+            persist(deletedJobs, requestLogRepository::deleteRequestRetryJobs);
+            persist(updatedJobs, requestLogRepository::updateRequestRetryJobs);
+        }
+
+        private <R> void persist(List<R> records, Consumer<List<R>> repositoryCall) {
+            if (records.isEmpty()) {
+                return;
+            }
+            try {
+                repositoryCall.accept(records);
+            } catch (Exception e) {
+                persistErrorCount += records.size();
+                log.error("bulk retry persist error, size: {}", records.size(), e);
+            }
+        }
+
+        private BulkRetryReport report(List<RetryResult> results) {
+            return new BulkRetryReport(submittedCount, succeededCount + failedCount + errorCount, succeededCount, failedCount, errorCount,
+                    persistErrorCount, System.nanoTime() - startNanos, results);
+        }
+    }
+
+
+    private static class Completion {
+
+        private final RequestRetryJob requestRetryJob;
+        private final RetryResult retryResult;
+        private final Throwable exception;
+
+        Completion(RequestRetryJob requestRetryJob, RetryResult retryResult, Throwable exception) {
+            this.requestRetryJob = requestRetryJob;
+            this.retryResult = retryResult;
+            this.exception = exception;
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package io.github.requestlog.core.context.retry;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Progress of a {@link BulkRetryExecutor} run, reported periodically and returned once all retries completed.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BulkRetryReport {
+
+    /**
+     * Retries started.
+     */
+    private final long submittedCount;
+
+    /**
+     * Retries completed and persisted, the sum of succeeded, failed and error counts.
+     */
+    private final long completedCount;
+
+    private final long succeededCount;
+
+    private final long failedCount;
+
+    /**
+     * Retries which threw or returned no {@link RetryResult}, their jobs are left untouched.
+     */
+    private final long errorCount;
+
+    /**
+     * Records the repository failed to save, update or delete.
+     */
+    private final long persistErrorCount;
+
+    private final long elapsedNanos;
+
+    /**
+     * Results of completed retries in completion order, null unless collected, see {@link BulkRetryExecutor#collectResults}.
+     */
+    private final List<RetryResult> results;
+
+
+    /**
+     * Completed retries per second.
+     */
+    public double getThroughput() {
+        return elapsedNanos <= 0 ? 0 : completedCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("submitted: %d, completed: %d, succeeded: %d, failed: %d, errors: %d, persist errors: %d, elapsed: %dms, throughput: %.1f/s",
+                submittedCount, completedCount, succeededCount, failedCount, errorCount, persistErrorCount,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getThroughput());
+    }
+
+}
@@ -0,0 +1,154 @@
+package io.github.requestlog.core.context.retry;
+
+import io.github.requestlog.core.support.Preconditions;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Limits concurrent retries per target host, so a backlog drains at the rate the host can absorb.
+ *
+ * Each host gets a fair semaphore, waiting retries are served in FIFO order.
+ * Used by {@link RetryClient#execute()}, from {@link io.github.requestlog.core.context.RetryContext#bulkhead} or else the registered global bulkhead.
+ */
+public class RetryBulkhead {
+
+    private static volatile RetryBulkhead global;
+
+    /**
+     * Register the bulkhead used by retries that do not specify one, null to unregister.
+     */
+    public static void registerGlobal(RetryBulkhead retryBulkhead) {
+        global = retryBulkhead;
+    }
+
+    public static RetryBulkhead getGlobal() {
+        return global;
+    }
+
+
+    @Getter
+    private final int permitsPerHost;
+
+    private final Map<String, Integer> hostPermits;
+
+    /**
+     * Max time to wait for a permit, negative to wait indefinitely.
+     */
+    @Getter
+    private final long maxWaitMillis;
+
+    private final ConcurrentHashMap<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+
+    public RetryBulkhead(int permitsPerHost) {
+        this(permitsPerHost, Collections.emptyMap(), -1);
+    }
+
+    /**
+     * @param permitsPerHost default concurrent retries per host.
+     * @param hostPermits    concurrent retries of specific hosts.
+     * @param maxWaitMillis  max time to wait for a permit, negative to wait indefinitely.
+     */
+    public RetryBulkhead(int permitsPerHost, Map<String, Integer> hostPermits, long maxWaitMillis) {
+        Preconditions.check(permitsPerHost > 0, "permitsPerHost must be positive");
+        Preconditions.check(hostPermits.values().stream().allMatch(permits -> permits != null && permits > 0), "hostPermits must be positive");
+        this.permitsPerHost = permitsPerHost;
+        this.hostPermits = new HashMap<>(hostPermits);
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+
+    /**
+     * Waits for a permit of the host.
+     *
+     * @throws RejectedExecutionException if no permit was available within {@link #getMaxWaitMillis()}, or interrupted.
+     */
+    public Permit acquire(String host) {
+        String key = host == null ? "" : host;
+        Semaphore semaphore = semaphores.computeIfAbsent(key, k -> new Semaphore(hostPermits.getOrDefault(k, permitsPerHost), true));
+        try {
+            if (maxWaitMillis < 0) {
+                semaphore.acquire();
+            } else if (!semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                rejectedCount.incrementAndGet();
+                throw new RejectedExecutionException("retry bulkhead of host '" + key + "' is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("interrupted while waiting for retry bulkhead of host '" + key + "'", e);
+        }
+        return new Permit(semaphore);
+    }
+
+
+    /**
+     * Number of retries waiting for a permit of the host, an estimate.
+     */
+    public int getQueueLength(String host) {
+        Semaphore semaphore = semaphores.get(host == null ? "" : host);
+        return semaphore == null ? 0 : semaphore.getQueueLength();
+    }
+
+    /**
+     * Number of permits of the host not in use.
+     */
+    public int getAvailablePermits(String host) {
+        Semaphore semaphore = semaphores.get(host == null ? "" : host);
+        return semaphore == null ? hostPermits.getOrDefault(host, permitsPerHost) : semaphore.availablePermits();
+    }
+
+    /**
+     * Number of waiting retries of each host seen so far.
+     */
+    public Map<String, Integer> getQueueLengths() {
+        Map<String, Integer> queueLengths = new HashMap<>();
+        semaphores.forEach((host, semaphore) -> queueLengths.put(host, semaphore.getQueueLength()));
+        return queueLengths;
+    }
+
+    /**
+     * Number of retries rejected by timeout or interruption.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+
+    /**
+     * Permit held while a retry executes, released once.
+     */
+    public static final class Permit implements AutoCloseable {
+
+        private final Semaphore semaphore;
+        private boolean released;
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        public void release() {
+            if (!released) {
+                released = true;
+                semaphore.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+
+}
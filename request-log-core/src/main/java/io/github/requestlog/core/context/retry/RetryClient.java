@@ -1,14 +1,21 @@
 package io.github.requestlog.core.context.retry;
 
 import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.enums.ThreadMode;
+import io.github.requestlog.core.listener.RequestLogListeners;
 import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.support.Preconditions;
+import io.github.requestlog.core.support.concurrent.RequestLogExecutors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.StringUtils;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -22,6 +29,30 @@ public abstract class RetryClient<C> {
     public static final Map<Class<? extends RetryClient<?>>, Function<RetryContext, RetryClient<?>>> NEW_INSTANCE_MAP = new HashMap<>();
 
 
+    private static volatile Executor asyncExecutor;
+
+    /**
+     * Register the executor used by {@link #executeAsync()}, null to restore the default.
+     */
+    public static void registerAsyncExecutor(Executor executor) {
+        asyncExecutor = executor;
+    }
+
+    /**
+     * The registered executor, or by default a shared one running each retry on a virtual thread,
+     * or on a pool of platform threads below JDK 21, see {@link RequestLogExecutors}.
+     */
+    public static Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        return executor != null ? executor : DefaultAsyncExecutorHolder.EXECUTOR;
+    }
+
+    private static class DefaultAsyncExecutorHolder {
+        private static final Executor EXECUTOR = RequestLogExecutors.newExecutor("request-log-retry-async", ThreadMode.VIRTUAL,
+                Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+    }
+
+
     protected final RetryContext retryContext;
 
     protected C httpClient;
@@ -35,24 +66,113 @@ public abstract class RetryClient<C> {
      */
     protected long beforeDoExecuteTimeMillis;
 
+    /**
+     * Waits for a permit of the {@link RetryBulkhead} if any, then performs the request.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if the bulkhead rejected the retry.
+     */
     public RetryResult execute() {
+        RetryBulkhead bulkhead = retryContext.getBulkhead() != null ? retryContext.getBulkhead() : RetryBulkhead.getGlobal();
+        RetryBulkhead.Permit permit = bulkhead == null ? null : bulkhead.acquire(retryContext.buildRequestHost());
         RetryContext carry = RetryContext.THREAD_LOCAL.get();
         try {
             RetryContext.THREAD_LOCAL.set(retryContext);
             beforeDoExecuteTimeMillis = System.currentTimeMillis();
-            return doExecute();
+            long startNanos = System.nanoTime();
+            RetryResult retryResult = doExecute();
+            if (retryResult != null) {
+                retryResult.setDurationNanos(System.nanoTime() - startNanos);
+                RequestLogListeners.retried(retryResult);
+            }
+            return retryResult;
         } finally {
             if (carry == null) {
                 RetryContext.THREAD_LOCAL.remove();
             } else {
                 RetryContext.THREAD_LOCAL.set(carry);
             }
+            if (permit != null) {
+                permit.release();
+            }
         }
     }
 
     protected abstract RetryResult doExecute();
 
 
+    /**
+     * Performs the request without blocking the calling thread, see {@link #executeAsync(Executor)}.
+     */
+    public CompletableFuture<RetryResult> executeAsync() {
+        return executeAsync(getAsyncExecutor());
+    }
+
+    /**
+     * Performs the request without blocking the calling thread, see {@link #doExecuteAsync(Executor)}.
+     * Requests of the retry are not logged, as with {@link #execute()}.
+     * The future completes exceptionally if the bulkhead rejected the retry or the context is not valid.
+     */
+    public CompletableFuture<RetryResult> executeAsync(Executor executor) {
+        Preconditions.check(executor != null, "executor can not be null");
+        CompletableFuture<RetryResult> future;
+        try {
+            future = doExecuteAsync(executor);
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Runs {@link #execute()} on {@code executor}, which also waits for the {@link RetryBulkhead} permit if any.
+     *
+     * Clients with a non-blocking API override it, usually with {@link #executeNative(Executor, Supplier)}.
+     */
+    protected CompletableFuture<RetryResult> doExecuteAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(this::execute, executor);
+    }
+
+    /**
+     * Sends the request through the non-blocking API of the http client,
+     * waiting for the {@link RetryBulkhead} permit if any on {@code executor} and holding it until the request completes.
+     *
+     * {@link RetryContext#THREAD_LOCAL} is not set, the request interceptors run on the client's own threads:
+     * mark the request with the retry context instead, so interceptors can skip it.
+     */
+    protected final CompletableFuture<RetryResult> executeNative(Executor executor, Supplier<CompletableFuture<RetryResult>> sender) {
+        RetryBulkhead bulkhead = retryContext.getBulkhead() != null ? retryContext.getBulkhead() : RetryBulkhead.getGlobal();
+        if (bulkhead == null) {
+            return sendNative(null, sender);
+        }
+        return CompletableFuture.supplyAsync(() -> bulkhead.acquire(retryContext.buildRequestHost()), executor)
+                .thenCompose(permit -> sendNative(permit, sender));
+    }
+
+    private CompletableFuture<RetryResult> sendNative(RetryBulkhead.Permit permit, Supplier<CompletableFuture<RetryResult>> sender) {
+        CompletableFuture<RetryResult> future;
+        beforeDoExecuteTimeMillis = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        try {
+            future = sender.get();
+        } catch (RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        return future.whenComplete((retryResult, e) -> {
+            if (permit != null) {
+                permit.release();
+            }
+        }).thenApply(retryResult -> {
+            if (retryResult != null) {
+                retryResult.setDurationNanos(System.nanoTime() - startNanos);
+                RequestLogListeners.retried(retryResult);
+            }
+            return retryResult;
+        });
+    }
+
+
     protected String generateRetryHeaderValue() {
         // TODO: 2024/2/18 generate retry header from retryContext.requestLog retryContext.requestRetryJob(may be null)
         //  maybe define some method like #getId、#getId4Retry
@@ -0,0 +1,340 @@
+package io.github.requestlog.core.context.retry;
+
+import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.Preconditions;
+import io.github.requestlog.core.support.concurrent.HierarchicalTimingWheel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+
+/**
+ * Executes saved {@link RequestRetryJob} at their {@link RequestRetryJob#getNextExecuteTimeMillis()}.
+ *
+ * A loader thread periodically pulls jobs due before the next load through {@link IRequestLogRepository#findDueRetryJobs},
+ * and places them on a {@link HierarchicalTimingWheel} advanced by a ticker thread.
+ * Expired jobs run on the worker executor through the retry function, usually
+ * {@code context -> context.with(RestTemplateRetryClient.class, restTemplate).execute()}.
+ *
+ * After each execution the {@link RequestRryLog} is saved, a succeeded job is deleted,
+ * otherwise the job is updated by {@link RetryResult#updateRetryJob()} and scheduled again while {@link RetryResult#shouldContinue()}.
+ *
+ * Jobs are tracked by {@link RequestRetryJob#getId()}, a job already scheduled or executing is not loaded twice.
+ *
+ * When several nodes share a repository, give each scheduler a unique lease owner:
+ * jobs are then claimed through {@link IRequestLogRepository#claimDueRetryJobs} instead of found,
+ * each load renews the leases held by this node, and jobs of a node that stopped renewing are claimed by others once its leases expire.
+ */
+@Slf4j
+public class RetryJobScheduler implements Closeable {
+
+    private final IRequestLogRepository requestLogRepository;
+    private final Function<RetryContext, RetryResult> retryFunction;
+    private final Executor workerExecutor;
+
+    @Getter
+    private final long tickMillis;
+
+    @Getter
+    private final long loadIntervalMillis;
+
+    @Getter
+    private final int loadLimit;
+
+    /**
+     * Unique node id, null when running on a single node.
+     */
+    @Getter
+    private final String leaseOwner;
+
+    @Getter
+    private final long leaseMillis;
+
+    /**
+     * Leases held at this time were kept alive by every renewal since, until {@link #leaseValidUntilMillis}.
+     * Only written by the loader thread.
+     */
+    private volatile long leaseRenewedSinceMillis;
+    private volatile long leaseValidUntilMillis;
+
+    private final HierarchicalTimingWheel<RequestRetryJob> timingWheel;
+
+    /**
+     * Ids of jobs on the wheel or executing.
+     */
+    private final Set<Long> scheduledIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Ids released since the current load started, the load may have read them before their update.
+     */
+    private final Set<Long> releasedIds = ConcurrentHashMap.newKeySet();
+
+    private final Object lifecycleMonitor = new Object();
+    private Thread ticker;
+    private Thread loader;
+    private volatile boolean running;
+
+
+    public RetryJobScheduler(IRequestLogRepository requestLogRepository, Function<RetryContext, RetryResult> retryFunction, Executor workerExecutor) {
+        this(requestLogRepository, retryFunction, workerExecutor, 100, 5000, 10_000);
+    }
+
+    /**
+     * @param retryFunction      executes a retry, called on the worker executor.
+     * @param workerExecutor     runs retries, not shut down by {@link #close()}.
+     * @param tickMillis         timing wheel resolution, jobs fire at most one tick late.
+     * @param loadIntervalMillis how often due jobs are loaded, each load covers jobs due before the next one.
+     * @param loadLimit          max jobs loaded at once, should exceed the jobs due within one load interval.
+     */
+    public RetryJobScheduler(IRequestLogRepository requestLogRepository, Function<RetryContext, RetryResult> retryFunction, Executor workerExecutor,
+                             long tickMillis, long loadIntervalMillis, int loadLimit) {
+        this(requestLogRepository, retryFunction, workerExecutor, tickMillis, loadIntervalMillis, loadLimit, null, 0);
+    }
+
+    /**
+     * @param leaseOwner  unique id of this node, e.g. host name and pid, null disables leasing.
+     * @param leaseMillis lease duration, renewed every load interval, so it must be longer, 3 load intervals is a good start.
+     */
+    public RetryJobScheduler(IRequestLogRepository requestLogRepository, Function<RetryContext, RetryResult> retryFunction, Executor workerExecutor,
+                             long tickMillis, long loadIntervalMillis, int loadLimit, String leaseOwner, long leaseMillis) {
+        Preconditions.check(requestLogRepository != null, "requestLogRepository can not be null");
+        Preconditions.check(retryFunction != null, "retryFunction can not be null");
+        Preconditions.check(workerExecutor != null, "workerExecutor can not be null");
+        Preconditions.check(tickMillis > 0, "tickMillis must be positive");
+        Preconditions.check(loadIntervalMillis > 0, "loadIntervalMillis must be positive");
+        Preconditions.check(loadLimit > 0, "loadLimit must be positive");
+        Preconditions.check(leaseOwner == null || leaseMillis > loadIntervalMillis, "leaseMillis must be longer than loadIntervalMillis");
+        this.requestLogRepository = requestLogRepository;
+        this.retryFunction = retryFunction;
+        this.workerExecutor = workerExecutor;
+        this.tickMillis = tickMillis;
+        this.loadIntervalMillis = loadIntervalMillis;
+        this.loadLimit = loadLimit;
+        this.leaseOwner = leaseOwner;
+        this.leaseMillis = leaseMillis;
+        // 64 ^ 5 ticks, years at 100ms.
+        this.timingWheel = new HierarchicalTimingWheel<>(tickMillis, 64, 5, System.currentTimeMillis(), this::dispatch);
+    }
+
+
+    /**
+     * Starts the loader and ticker threads.
+     */
+    public void start() {
+        synchronized (lifecycleMonitor) {
+            if (running) {
+                return;
+            }
+            running = true;
+            ticker = new Thread(this::tick, "request-log-retry-ticker");
+            ticker.setDaemon(true);
+            ticker.start();
+            loader = new Thread(this::load, "request-log-retry-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+    }
+
+    /**
+     * Schedules a saved job at its next execute time, without waiting for the next load.
+     * With leasing, a job not leased by this node is skipped when it fires and left to the next claim.
+     *
+     * @return false if the job is already scheduled or executing.
+     */
+    public boolean schedule(RequestRetryJob requestRetryJob) {
+        Preconditions.check(requestRetryJob.getRequestLog() != null, "requestRetryJob.requestLog can not be null");
+        if (requestRetryJob.getId() != null && !scheduledIds.add(requestRetryJob.getId())) {
+            return false;
+        }
+        Long nextExecuteTimeMillis = requestRetryJob.getNextExecuteTimeMillis();
+        timingWheel.schedule(requestRetryJob, nextExecuteTimeMillis == null ? 0 : nextExecuteTimeMillis);
+        return true;
+    }
+
+    /**
+     * Number of jobs waiting on the timing wheel.
+     */
+    public int getPendingCount() {
+        return timingWheel.size();
+    }
+
+
+    private void tick() {
+        while (running) {
+            try {
+                timingWheel.advanceTo(System.currentTimeMillis());
+            } catch (Throwable e) {
+                log.error("retry job scheduler tick error", e);
+            }
+            sleep(tickMillis);
+        }
+    }
+
+    private void load() {
+        while (running) {
+            try {
+                loadDueJobs(System.currentTimeMillis());
+            } catch (Throwable e) {
+                log.error("retry job scheduler load error", e);
+            }
+            sleep(loadIntervalMillis);
+        }
+    }
+
+    /**
+     * Loads jobs due before the next load, so they are already on the wheel when their time comes.
+     */
+    void loadDueJobs(long nowMillis) {
+        releasedIds.clear();
+        List<RequestRetryJob> dueJobs;
+        if (leaseOwner == null) {
+            dueJobs = requestLogRepository.findDueRetryJobs(nowMillis + loadIntervalMillis, loadLimit);
+        } else {
+            // heartbeat first, jobs still held by this node are claimed again only if not scheduled.
+            requestLogRepository.renewRetryJobLeases(leaseOwner, nowMillis, nowMillis + leaseMillis);
+            if (nowMillis >= leaseValidUntilMillis) {
+                // renewed too late, leases held before may have been claimed by others.
+                leaseRenewedSinceMillis = nowMillis;
+            }
+            leaseValidUntilMillis = nowMillis + leaseMillis;
+            dueJobs = requestLogRepository.claimDueRetryJobs(leaseOwner, nowMillis + loadIntervalMillis, nowMillis, nowMillis + leaseMillis, loadLimit);
+        }
+        for (RequestRetryJob requestRetryJob : dueJobs) {
+            Long id = requestRetryJob.getId();
+            if (id == null) {
+                schedule(requestRetryJob);
+            } else if (scheduledIds.add(id)) {
+                // checked after the add, release adds to releasedIds before removing from scheduledIds.
+                if (releasedIds.contains(id)) {
+                    // stale row, picked up again by the next load.
+                    scheduledIds.remove(id);
+                } else {
+                    timingWheel.schedule(requestRetryJob, requestRetryJob.getNextExecuteTimeMillis());
+                }
+            }
+        }
+    }
+
+    private void dispatch(RequestRetryJob requestRetryJob) {
+        try {
+            workerExecutor.execute(() -> execute(requestRetryJob));
+        } catch (RejectedExecutionException e) {
+            // left to the next load.
+            log.warn("retry job rejected by worker executor, id: {}", requestRetryJob.getId());
+            release(requestRetryJob);
+        }
+    }
+
+    /**
+     * Whether the lease of the job is still held, renewals are not reflected on the job object.
+     */
+    private boolean holdsLease(RequestRetryJob requestRetryJob) {
+        if (leaseOwner == null) {
+            return true;
+        }
+        if (!leaseOwner.equals(requestRetryJob.getLeaseOwner()) || requestRetryJob.getLeaseExpireTimeMillis() == null) {
+            return false;
+        }
+        long nowMillis = System.currentTimeMillis();
+        long leaseExpireTimeMillis = requestRetryJob.getLeaseExpireTimeMillis();
+        long validUntilMillis = leaseValidUntilMillis;
+        return nowMillis < leaseExpireTimeMillis || (nowMillis < validUntilMillis && leaseExpireTimeMillis > leaseRenewedSinceMillis);
+    }
+
+    private void execute(RequestRetryJob requestRetryJob) {
+        boolean rescheduled = false;
+        try {
+            if (!holdsLease(requestRetryJob)) {
+                log.warn("retry job lease lost, skipped, id: {}", requestRetryJob.getId());
+                return;
+            }
+            RetryResult retryResult;
+            try {
+                retryResult = retryFunction.apply(RetryContext.create(requestRetryJob.getRequestLog(), requestRetryJob));
+            } catch (Exception e) {
+                log.warn("retry job execute error, id: {}", requestRetryJob.getId(), e);
+                retryResult = null;
+            }
+
+            boolean shouldContinue;
+            if (retryResult == null) {
+                // no result to record, count the attempt so a broken job can not run forever.
+                requestRetryJob.setLastExecuteTimeMillis(System.currentTimeMillis());
+                requestRetryJob.setExecuteCount(requestRetryJob.getExecuteCount() + 1);
+                requestRetryJob.setNextExecuteTimeMillis(requestRetryJob.getRetryWaitStrategy().nextExecuteTime(requestRetryJob.getExecuteCount(), requestRetryJob.getRetryInterval()));
+                shouldContinue = requestRetryJob.getMaxExecuteCount() > requestRetryJob.getExecuteCount();
+            } else {
+                requestLogRepository.saveRequestRetryLog(retryResult.generateRetryLog());
+                if (retryResult.succeed()) {
+                    requestLogRepository.deleteRequestRetryJob(requestRetryJob);
+                    return;
+                }
+                shouldContinue = retryResult.shouldContinue();
+                retryResult.updateRetryJob();
+            }
+
+            // exhausted jobs are kept, they are no longer due.
+            requestLogRepository.updateRequestRetryJob(requestRetryJob);
+            if (shouldContinue && running) {
+                timingWheel.schedule(requestRetryJob, requestRetryJob.getNextExecuteTimeMillis());
+                rescheduled = true;
+            }
+        } catch (Exception e) {
+            log.error("retry job update error, id: {}", requestRetryJob.getId(), e);
+        } finally {
+            if (!rescheduled) {
+                release(requestRetryJob);
+            }
+        }
+    }
+
+    private void release(RequestRetryJob requestRetryJob) {
+        if (requestRetryJob.getId() != null) {
+            releasedIds.add(requestRetryJob.getId());
+            scheduledIds.remove(requestRetryJob.getId());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Stops the loader and ticker threads, jobs left on the wheel fire once started again.
+     * Retries already handed to the worker executor are not interrupted.
+     */
+    @Override
+    public void close() {
+        synchronized (lifecycleMonitor) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            for (Thread thread : new Thread[]{ticker, loader}) {
+                thread.interrupt();
+                try {
+                    thread.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+}
@@ -64,6 +64,16 @@ public class RetryResult {
     @Getter
     private final HttpRequestContext requestContext;
 
+    /**
+     * Time {@link RetryClient#doExecute()} took, in nanoseconds, set by {@link RetryClient#execute()}.
+     */
+    @Getter
+    private Long durationNanos;
+
+    void setDurationNanos(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+
 
     private Boolean succeedCache;
 
@@ -154,6 +164,7 @@ public class RetryResult {
         retryLog.setSucceed(succeed());
         retryLog.setExecuteCount(Optional.ofNullable(retryContext.getRequestRetryJob()).map(RequestRetryJob::getExecuteCount).orElse(1)); // TODO: 2024/2/14 retry job object maybe updated
         retryLog.setExecuteTimeMillis(executeTimeMillis);
+        retryLog.setDurationNanos(durationNanos);
 
         retryLog.setException(exception);
         retryLog.setRequestUrl(requestContext.getRequestUrl());
@@ -0,0 +1,27 @@
+package io.github.requestlog.core.enums;
+
+
+/**
+ * When appended records are forced from the page cache to the storage device.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Never force explicitly, leave it to the operating system.
+     * Records survive a process crash, not a power loss.
+     */
+    NEVER,
+
+    /**
+     * Force before each write call returns.
+     * Concurrent writers share one force (group commit), a batch write is forced once.
+     */
+    EVERY_WRITE,
+
+    /**
+     * Force periodically on a background thread.
+     * At most one interval of records may be lost on power loss.
+     */
+    INTERVAL,
+
+}
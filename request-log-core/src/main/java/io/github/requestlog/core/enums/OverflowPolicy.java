@@ -0,0 +1,30 @@
+package io.github.requestlog.core.enums;
+
+
+/**
+ * What an asynchronous handler does when its buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Wait on the calling thread until a slot becomes free.
+     */
+    BLOCK,
+
+    /**
+     * Discard the request context being handled.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discard the oldest buffered request context to make room.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Persist on the calling thread, as the synchronous handler does.
+     */
+    CALLER_RUNS,
+    ;
+
+}
@@ -12,6 +12,11 @@ public enum RequestLogErrorType {
      * http response code and body
      */
     RESPONSE,
+
+    /**
+     * successful, but slower than the slow threshold
+     */
+    SLOW,
     ;
 
 }
@@ -0,0 +1,20 @@
+package io.github.requestlog.core.enums;
+
+
+/**
+ * Kind of threads background work runs on.
+ */
+public enum ThreadMode {
+
+    /**
+     * Platform (OS) threads.
+     */
+    PLATFORM,
+
+    /**
+     * Virtual threads on JDK 21 and later, suited to work blocking on I/O such as retries and repository writes.
+     * Falls back to {@link #PLATFORM} on older runtimes.
+     */
+    VIRTUAL,
+
+}
@@ -1,15 +1,37 @@
 package io.github.requestlog.core.handler;
 
 import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.listener.RequestLogListeners;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
 import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.tuples.Tuple2;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
 
+
+@Slf4j
 @RequiredArgsConstructor
 public abstract class AbstractRequestLogHandler {
 
     protected final IRequestLogRepository requestLogRepository;
 
+    private final LongAdder sampledOutCount = new LongAdder();
+
+    /**
+     * Folds identical request logs, null to save each of them.
+     */
+    @Getter
+    private volatile RequestLogCoalescer coalescer;
+
+    private ScheduledFuture<?> coalesceSweep;
+
 
     // TODO: 2024/1/31 extension methods behaviors
     public void handle(BaseRequestContext requestContext) {
@@ -19,15 +41,167 @@ public abstract class AbstractRequestLogHandler {
         }
 
         if (!requestContext.logRequest()) {
+            RequestLogListeners.skipped(requestContext.getRequestContextType());
+            return;
+        }
+        if (sampledOut(requestContext) || coalesced(requestContext)) {
             return;
         }
 
-        if (!requestContext.retryRequest()) {
-            requestLogRepository.saveRequestLog(requestContext.buildRequestLog());
-        } else {
-            requestLogRepository.saveRequestLogAndRetryJob(requestContext.buildRequestLog(), requestContext.buildRequestRetryJob());
+        save(requestContext);
+    }
+
+
+    /**
+     * Asks the sampler of a request decided to be logged, a request sampled out is counted and not saved.
+     */
+    protected boolean sampledOut(BaseRequestContext requestContext) {
+        if (requestContext.sampleRequest()) {
+            return false;
+        }
+        sampledOutCount.increment();
+        RequestLogListeners.sampledOut(requestContext);
+        return true;
+    }
+
+    /**
+     * Offers a request decided to be logged to the coalescer, a folded request is counted and not saved.
+     * Summaries of elapsed windows are handled on the way.
+     */
+    protected boolean coalesced(BaseRequestContext requestContext) {
+        RequestLogCoalescer coalescer = this.coalescer;
+        if (coalescer == null) {
+            return false;
+        }
+        long nowNanos = System.nanoTime();
+        boolean coalesced = coalescer.coalesce(requestContext, nowNanos);
+        if (coalesced) {
+            RequestLogListeners.coalesced(requestContext);
+        }
+        coalescer.sweep(nowNanos);
+        handleSummaries(coalescer);
+        return coalesced;
+    }
+
+    /**
+     * Sets the coalescer, its elapsed windows are also closed on a timer, see {@link RequestLogCoalescer}.
+     */
+    public synchronized void setCoalescer(RequestLogCoalescer coalescer) {
+        cancelCoalesceSweep();
+        this.coalescer = coalescer;
+        if (coalescer != null) {
+            coalesceSweep = coalescer.scheduleSweep(() -> sweepCoalesced(coalescer));
+        }
+    }
+
+    private synchronized void cancelCoalesceSweep() {
+        if (coalesceSweep != null) {
+            coalesceSweep.cancel(false);
+            coalesceSweep = null;
+        }
+    }
+
+    /**
+     * Closes elapsed windows and saves their summaries, without waiting for the next request.
+     */
+    private void sweepCoalesced(RequestLogCoalescer coalescer) {
+        try {
+            coalescer.sweep(System.nanoTime());
+            handleSummaries(coalescer);
+        } catch (Exception e) {
+            // keep the timer running.
+            log.error("save coalesced request log summaries error", e);
+        }
+    }
+
+    /**
+     * Closes all coalescing windows and saves their summaries, e.g. on shutdown.
+     */
+    public void flushCoalesced() {
+        RequestLogCoalescer coalescer = this.coalescer;
+        if (coalescer != null) {
+            coalescer.closeAll();
+            handleSummaries(coalescer);
+        }
+    }
+
+    /**
+     * Stops the coalescing timer, which would otherwise keep this handler reachable, and saves the summaries of all windows.
+     */
+    public void close() {
+        cancelCoalesceSweep();
+        flushCoalesced();
+    }
+
+    private void handleSummaries(RequestLogCoalescer coalescer) {
+        BaseRequestContext summary;
+        while ((summary = coalescer.pollSummary()) != null) {
+            handle(summary);
+        }
+    }
+
+    /**
+     * Request logs dropped by samplers.
+     */
+    public long getSampledOutCount() {
+        return sampledOutCount.sum();
+    }
+
+
+    /**
+     * Persists a request context which has already been decided to be logged.
+     */
+    protected void save(BaseRequestContext requestContext) {
+        RequestLogListeners.logged(requestContext);
+        long startNanos = System.nanoTime();
+        try {
+            if (!requestContext.retryRequest()) {
+                requestLogRepository.saveRequestLog(requestContext.buildRequestLog());
+            } else {
+                requestLogRepository.saveRequestLogAndRetryJob(requestContext.buildRequestLog(), requestContext.buildRequestRetryJob());
+            }
+        } catch (RuntimeException e) {
+            RequestLogListeners.saved(1, System.nanoTime() - startNanos, e);
+            throw e;
         }
+        RequestLogListeners.saved(1, System.nanoTime() - startNanos, null);
+    }
 
+    /**
+     * Persists a batch of request contexts which have already been decided to be logged.
+     * Contexts are grouped by whether they carry a retry job, each group is saved in one repository call.
+     */
+    protected void saveBatch(List<BaseRequestContext> requestContexts) {
+        List<RequestLog> requestLogs = new ArrayList<>(requestContexts.size());
+        List<Tuple2<RequestLog, RequestRetryJob>> requestLogAndRetryJobs = new ArrayList<>();
+        for (BaseRequestContext requestContext : requestContexts) {
+            RequestLogListeners.logged(requestContext);
+            if (!requestContext.retryRequest()) {
+                requestLogs.add(requestContext.buildRequestLog());
+            } else {
+                requestLogAndRetryJobs.add(Tuple2.of(requestContext.buildRequestLog(), requestContext.buildRequestRetryJob()));
+            }
+        }
+        if (!requestLogs.isEmpty()) {
+            long startNanos = System.nanoTime();
+            try {
+                requestLogRepository.saveRequestLogs(requestLogs);
+            } catch (RuntimeException e) {
+                RequestLogListeners.saved(requestLogs.size(), System.nanoTime() - startNanos, e);
+                throw e;
+            }
+            RequestLogListeners.saved(requestLogs.size(), System.nanoTime() - startNanos, null);
+        }
+        if (!requestLogAndRetryJobs.isEmpty()) {
+            long startNanos = System.nanoTime();
+            try {
+                requestLogRepository.saveRequestLogsAndRetryJobs(requestLogAndRetryJobs);
+            } catch (RuntimeException e) {
+                RequestLogListeners.saved(requestLogAndRetryJobs.size(), System.nanoTime() - startNanos, e);
+                throw e;
+            }
+            RequestLogListeners.saved(requestLogAndRetryJobs.size(), System.nanoTime() - startNanos, null);
+        }
     }
 
 }
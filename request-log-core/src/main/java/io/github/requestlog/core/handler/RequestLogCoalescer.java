@@ -0,0 +1,278 @@
+package io.github.requestlog.core.handler;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.context.request.CoalescedRequestContext;
+import io.github.requestlog.core.enums.ThreadMode;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.support.Preconditions;
+import io.github.requestlog.core.support.concurrent.RequestLogExecutors;
+import org.springframework.beans.BeanUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Folds identical request logs within a time window, set on a handler with {@link AbstractRequestLogHandler#setCoalescer}.
+ *
+ * Requests are identical when they share the fingerprint: context type, error type, http method, host,
+ * path with id-like segments replaced, response code and exception class.
+ * The first request of a window, the exemplar, is saved as usual. The following identical ones are only counted,
+ * once the window has elapsed one summary is saved for them: a copy of the exemplar with {@link RequestLog#getOccurrenceCount()}.
+ *
+ * Requests with a retry job are never folded. Fingerprints beyond {@code maxFingerprints} are not folded either.
+ *
+ * Elapsed windows are closed when the handler sees the next request, and by a shared daemon timer every window length,
+ * so a summary is saved at most about one window length late even when no further request is logged.
+ */
+public class RequestLogCoalescer {
+
+    private final long windowNanos;
+    private final int maxFingerprints;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Queue<CoalescedRequestContext> summaries = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextSweepNanos;
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * Created on first use, runs sweeps of all coalescers.
+     */
+    private static volatile ScheduledExecutorService sweeper;
+
+
+    public RequestLogCoalescer(Duration window) {
+        this(window, 1024);
+    }
+
+    /**
+     * @param window          time identical requests are folded after the exemplar.
+     * @param maxFingerprints fingerprints tracked at once.
+     */
+    public RequestLogCoalescer(Duration window, int maxFingerprints) {
+        Preconditions.check(window != null && !window.isNegative() && !window.isZero(), "window must be positive");
+        Preconditions.check(maxFingerprints > 0, "maxFingerprints must be positive");
+        this.windowNanos = window.toNanos();
+        this.maxFingerprints = maxFingerprints;
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+
+    /**
+     * Returns true if the request was folded into the window of an identical exemplar, it must not be saved then.
+     */
+    public boolean coalesce(BaseRequestContext requestContext, long nowNanos) {
+        if (requestContext instanceof CoalescedRequestContext || requestContext.retryRequest()) {
+            return false;
+        }
+        String fingerprint = fingerprint(requestContext);
+        while (true) {
+            Window window = windows.get(fingerprint);
+            if (window == null) {
+                if (windows.size() >= maxFingerprints) {
+                    return false;
+                }
+                // the exemplar is built now, the handler saves this same cached instance.
+                if (windows.putIfAbsent(fingerprint, new Window(requestContext.buildRequestLog(), nowNanos)) == null) {
+                    return false;
+                }
+                continue;
+            }
+            if (window.count(nowNanos)) {
+                coalescedCount.increment();
+                return true;
+            }
+            // elapsed, this request starts the next window.
+            close(fingerprint, window);
+        }
+    }
+
+    /**
+     * Closes the windows elapsed at {@code nowNanos}, at most once per window length.
+     */
+    public void sweep(long nowNanos) {
+        long next = nextSweepNanos.get();
+        if (nowNanos - next < 0 || !nextSweepNanos.compareAndSet(next, nowNanos + windowNanos)) {
+            return;
+        }
+        windows.forEach((fingerprint, window) -> {
+            if (window.isElapsed(nowNanos)) {
+                close(fingerprint, window);
+            }
+        });
+    }
+
+    /**
+     * Runs {@code sweep} every window length on the shared daemon timer, the handler sweeps and saves the summaries.
+     */
+    ScheduledFuture<?> scheduleSweep(Runnable sweep) {
+        return sweeper().scheduleWithFixedDelay(sweep, windowNanos, windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static ScheduledExecutorService sweeper() {
+        if (sweeper == null) {
+            synchronized (RequestLogCoalescer.class) {
+                if (sweeper == null) {
+                    sweeper = Executors.newSingleThreadScheduledExecutor(RequestLogExecutors.threadFactory("request-log-coalesce-sweep", ThreadMode.PLATFORM));
+                }
+            }
+        }
+        return sweeper;
+    }
+
+    /**
+     * Closes every window, e.g. on shutdown.
+     */
+    public void closeAll() {
+        windows.forEach(this::close);
+    }
+
+    /**
+     * Next summary of a closed window to be saved, null if none.
+     */
+    public CoalescedRequestContext pollSummary() {
+        return summaries.poll();
+    }
+
+    private void close(String fingerprint, Window window) {
+        int duplicates = window.close();
+        windows.remove(fingerprint, window);
+        if (duplicates > 0) {
+            RequestLog summary = new RequestLog();
+            BeanUtils.copyProperties(window.exemplar, summary);
+            summary.setId(null);
+            summary.setOccurrenceCount(duplicates);
+            summaries.add(new CoalescedRequestContext(summary));
+        }
+    }
+
+
+    /**
+     * Requests folded so far.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Windows currently open.
+     */
+    public int getWindowCount() {
+        return windows.size();
+    }
+
+
+    static String fingerprint(BaseRequestContext requestContext) {
+        StringBuilder builder = new StringBuilder(128)
+                .append(requestContext.getRequestContextType()).append('|')
+                .append(requestContext.getRequestLogErrorType()).append('|')
+                .append(requestContext.getRequestMethod()).append('|');
+        appendUrlTemplate(builder, requestContext.getRequestUrl());
+        builder.append('|').append(requestContext.getResponseCode()).append('|');
+        Exception exception = requestContext.getException();
+        return builder.append(exception == null ? "" : exception.getClass().getName()).toString();
+    }
+
+    /**
+     * Appends the url without query, path segments looking like ids replaced by '{}'.
+     */
+    static void appendUrlTemplate(StringBuilder builder, String url) {
+        if (url == null) {
+            return;
+        }
+        int end = url.indexOf('?');
+        end = end < 0 ? url.length() : end;
+        int schemeEnd = url.indexOf("://");
+        int pathStart = url.indexOf('/', schemeEnd < 0 ? 0 : schemeEnd + 3);
+        if (pathStart < 0 || pathStart > end) {
+            builder.append(url, 0, end);
+            return;
+        }
+        builder.append(url, 0, pathStart);
+        int segmentStart = pathStart + 1;
+        builder.append('/');
+        while (segmentStart <= end) {
+            int segmentEnd = url.indexOf('/', segmentStart);
+            if (segmentEnd < 0 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            if (isIdLike(url, segmentStart, segmentEnd)) {
+                builder.append("{}");
+            } else {
+                builder.append(url, segmentStart, segmentEnd);
+            }
+            if (segmentEnd < end) {
+                builder.append('/');
+            }
+            segmentStart = segmentEnd + 1;
+        }
+    }
+
+    /**
+     * Numbers, and tokens of 16 or more hex digits or dashes such as uuids.
+     */
+    private static boolean isIdLike(String url, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        boolean digitsOnly = true;
+        boolean hexOnly = true;
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            boolean digit = c >= '0' && c <= '9';
+            digitsOnly &= digit;
+            hexOnly &= digit || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == '-';
+        }
+        return digitsOnly || (hexOnly && end - start >= 16);
+    }
+
+
+    private final class Window {
+
+        private final RequestLog exemplar;
+        private final long startNanos;
+        private int duplicates;
+        private boolean closed;
+
+        private Window(RequestLog exemplar, long startNanos) {
+            this.exemplar = exemplar;
+            this.startNanos = startNanos;
+        }
+
+        private boolean isElapsed(long nowNanos) {
+            return nowNanos - startNanos >= windowNanos;
+        }
+
+        /**
+         * Counts a duplicate, false if the window is elapsed or closed.
+         */
+        private synchronized boolean count(long nowNanos) {
+            if (closed || isElapsed(nowNanos)) {
+                return false;
+            }
+            duplicates++;
+            return true;
+        }
+
+        /**
+         * Duplicates counted, 0 if already closed.
+         */
+        private synchronized int close() {
+            if (closed) {
+                return 0;
+            }
+            closed = true;
+            return duplicates;
+        }
+    }
+
+}
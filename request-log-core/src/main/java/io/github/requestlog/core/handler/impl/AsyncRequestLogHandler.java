@@ -0,0 +1,320 @@
+package io.github.requestlog.core.handler.impl;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.enums.OverflowPolicy;
+import io.github.requestlog.core.enums.ThreadMode;
+import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.Preconditions;
+import io.github.requestlog.core.support.concurrent.MpmcRingBuffer;
+import io.github.requestlog.core.support.concurrent.RequestLogExecutors;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * {@link AbstractRequestLogHandler} that persists request contexts on dedicated consumer threads.
+ *
+ * The calling thread only decides whether to log, then hands the context over through a bounded lock-free ring buffer.
+ * When the buffer is full, the configured {@link OverflowPolicy} applies.
+ *
+ * Consumers flush in batches through the batch methods of {@link IRequestLogRepository}:
+ * a batch is flushed once it reaches the batch size, or when the buffer runs empty and the linger time has elapsed.
+ */
+@Slf4j
+public class AsyncRequestLogHandler extends AbstractRequestLogHandler {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int IDLE_SPINS = 64;
+
+
+    private final MpmcRingBuffer<BaseRequestContext> ringBuffer;
+
+    @Getter
+    private final OverflowPolicy overflowPolicy;
+
+    @Getter
+    private final int batchSize;
+
+    private final long lingerNanos;
+
+    private final Thread[] consumers;
+
+    /**
+     * Consumers parked on an empty buffer, woken by producers.
+     */
+    private final Queue<Thread> parkedConsumers = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running = true;
+
+    /**
+     * Producers between their {@link #running} check and their offer, the final drain of {@link #shutdown()} waits for them.
+     */
+    private final AtomicInteger inFlightProducers = new AtomicInteger();
+
+    /**
+     * Number of request contexts discarded by {@link OverflowPolicy#DROP_NEWEST} or {@link OverflowPolicy#DROP_OLDEST}.
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+
+    public AsyncRequestLogHandler(IRequestLogRepository requestLogRepository) {
+        this(requestLogRepository, 8192, 1, OverflowPolicy.BLOCK);
+    }
+
+    public AsyncRequestLogHandler(IRequestLogRepository requestLogRepository, int bufferSize, int consumerThreads, OverflowPolicy overflowPolicy) {
+        this(requestLogRepository, bufferSize, consumerThreads, overflowPolicy, 256, 0);
+    }
+
+    /**
+     * @param bufferSize      ring buffer capacity, rounded up to a power of two.
+     * @param consumerThreads number of threads persisting buffered contexts.
+     * @param overflowPolicy  behavior when the buffer is full.
+     * @param batchSize       max number of contexts flushed in one repository call.
+     * @param lingerMillis    how long a partial batch may wait for more contexts, 0 flushes as soon as the buffer runs empty.
+     */
+    public AsyncRequestLogHandler(IRequestLogRepository requestLogRepository, int bufferSize, int consumerThreads, OverflowPolicy overflowPolicy,
+                                  int batchSize, long lingerMillis) {
+        this(requestLogRepository, bufferSize, consumerThreads, overflowPolicy, batchSize, lingerMillis, ThreadMode.PLATFORM);
+    }
+
+    /**
+     * @param threadMode kind of consumer threads, {@link ThreadMode#VIRTUAL} keeps repositories blocking on I/O off platform threads.
+     */
+    public AsyncRequestLogHandler(IRequestLogRepository requestLogRepository, int bufferSize, int consumerThreads, OverflowPolicy overflowPolicy,
+                                  int batchSize, long lingerMillis, ThreadMode threadMode) {
+        super(requestLogRepository);
+        Preconditions.check(consumerThreads > 0, "consumerThreads must be positive");
+        Preconditions.check(overflowPolicy != null, "overflowPolicy can not be null");
+        Preconditions.check(batchSize > 0, "batchSize must be positive");
+        Preconditions.check(lingerMillis >= 0, "lingerMillis can not be negative");
+        this.ringBuffer = new MpmcRingBuffer<>(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.consumers = new Thread[consumerThreads];
+        ThreadFactory threadFactory = RequestLogExecutors.threadFactory("request-log-async", threadMode);
+        for (int i = 0; i < consumerThreads; i++) {
+            Thread consumer = threadFactory.newThread(this::consume);
+            consumers[i] = consumer;
+            consumer.start();
+        }
+    }
+
+
+    /**
+     * Hands the context over to the consumers, or persists it on the calling thread if the buffer does not take it.
+     */
+    @Override
+    protected void save(BaseRequestContext requestContext) {
+
+        // Build on the calling thread, the underlying request and response objects may be recycled once the call returns.
+        requestContext.buildRequestLog();
+        if (requestContext.retryRequest()) {
+            requestContext.buildRequestRetryJob();
+        }
+
+        inFlightProducers.incrementAndGet();
+        boolean enqueued;
+        try {
+            enqueued = running && enqueue(requestContext);
+        } finally {
+            inFlightProducers.decrementAndGet();
+        }
+        if (!enqueued) {
+            super.save(requestContext);
+        }
+    }
+
+    /**
+     * Offers to the buffer applying the {@link OverflowPolicy}, false if the context should be persisted on the calling thread.
+     */
+    private boolean enqueue(BaseRequestContext requestContext) {
+        if (ringBuffer.offer(requestContext)) {
+            wakeConsumer();
+            return true;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                while (!ringBuffer.offer(requestContext)) {
+                    if (!running) {
+                        return false;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+                wakeConsumer();
+                return true;
+            case DROP_NEWEST:
+                onDropped(requestContext);
+                return true;
+            case DROP_OLDEST:
+                while (!ringBuffer.offer(requestContext)) {
+                    BaseRequestContext oldest = ringBuffer.poll();
+                    if (oldest != null) {
+                        onDropped(oldest);
+                    }
+                }
+                wakeConsumer();
+                return true;
+            case CALLER_RUNS:
+            default:
+                return false;
+        }
+    }
+
+
+    private void onDropped(BaseRequestContext requestContext) {
+        long dropped = droppedCount.incrementAndGet();
+        // avoid flooding logs during an incident, report on powers of two.
+        if ((dropped & (dropped - 1)) == 0) {
+            log.warn("request-log buffer is full, {} request contexts dropped so far, overflowPolicy: {}", dropped, overflowPolicy);
+        }
+    }
+
+
+    /**
+     * Unparks one parked consumer, if any.
+     */
+    private void wakeConsumer() {
+        Thread consumer = parkedConsumers.poll();
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Parks until a producer or {@link #shutdown()} wakes this consumer, at most {@code timeoutNanos} if positive.
+     * Registering before checking the buffer again, a producer offering meanwhile either is seen or sees this consumer.
+     */
+    private void park(long timeoutNanos) {
+        Thread current = Thread.currentThread();
+        parkedConsumers.add(current);
+        if (running && ringBuffer.isEmpty()) {
+            if (timeoutNanos > 0) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            } else {
+                LockSupport.park(this);
+            }
+        }
+        parkedConsumers.remove(current);
+    }
+
+
+    private void consume() {
+        List<BaseRequestContext> batch = new ArrayList<>(batchSize);
+        long batchStartNanos = 0;
+        int idle = 0;
+        while (running || !ringBuffer.isEmpty()) {
+            BaseRequestContext requestContext = ringBuffer.poll();
+            if (requestContext != null) {
+                idle = 0;
+                if (batch.isEmpty()) {
+                    batchStartNanos = System.nanoTime();
+                }
+                batch.add(requestContext);
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                }
+                continue;
+            }
+            long lingeredNanos = System.nanoTime() - batchStartNanos;
+            if (!batch.isEmpty() && lingeredNanos >= lingerNanos) {
+                flush(batch);
+                continue;
+            }
+            if (++idle < IDLE_SPINS) {
+                Thread.yield();
+            } else {
+                // timed only while a partial batch lingers, otherwise until woken.
+                park(batch.isEmpty() ? 0 : lingerNanos - lingeredNanos);
+            }
+        }
+        flush(batch);
+    }
+
+
+    private void flush(List<BaseRequestContext> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            saveBatch(batch);
+        } catch (Exception e) {
+            log.error("save request log batch error, size: {}", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+
+    /**
+     * Number of request contexts waiting to be persisted.
+     */
+    public int getPendingCount() {
+        return ringBuffer.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+
+    /**
+     * Stops accepting new contexts and waits for consumers to drain the buffer.
+     * Contexts handled after shutdown are persisted on the calling thread.
+     */
+    public void shutdown() {
+        super.close();
+        running = false;
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        // producers which saw running before it was cleared finish their offer, then contexts offered while consumers were exiting are drained.
+        while (inFlightProducers.get() > 0) {
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        drain();
+    }
+
+    /**
+     * Same as {@link #shutdown()}.
+     */
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    /**
+     * Persists buffered contexts on the calling thread.
+     */
+    private void drain() {
+        List<BaseRequestContext> batch = new ArrayList<>(batchSize);
+        BaseRequestContext requestContext;
+        while ((requestContext = ringBuffer.poll()) != null) {
+            batch.add(requestContext);
+            if (batch.size() >= batchSize) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+    }
+
+}
@@ -0,0 +1,61 @@
+package io.github.requestlog.core.listener;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.context.retry.RetryResult;
+import io.github.requestlog.core.enums.RequestContextType;
+
+
+/**
+ * Callbacks on what request-log does, e.g. for metrics, registered with {@link RequestLogListeners#register}.
+ *
+ * Called on the thread doing the work, implementations must be fast and thread-safe.
+ * Exceptions are logged and ignored.
+ */
+public interface RequestLogListener {
+
+    /**
+     * A request decided to be logged, right before it is saved.
+     * Requests buffered by an asynchronous handler are reported by its consumer, not at all if dropped by the overflow policy.
+     */
+    default void onLogged(BaseRequestContext requestContext) {
+    }
+
+    /**
+     * A request decided to be logged, dropped by the sampler.
+     */
+    default void onSampledOut(BaseRequestContext requestContext) {
+    }
+
+    /**
+     * A request decided to be logged, folded into an identical one by the coalescer.
+     */
+    default void onCoalesced(BaseRequestContext requestContext) {
+    }
+
+    /**
+     * A request decided not to be logged, including successful responses skipped before a context was built.
+     */
+    default void onSkipped(RequestContextType requestContextType) {
+    }
+
+    /**
+     * A repository call saving {@code count} request logs returned.
+     *
+     * @param error null if saved.
+     */
+    default void onSaved(int count, long elapsedNanos, Throwable error) {
+    }
+
+    /**
+     * A streamed response body completed, of which {@code capturedBytes} were kept for the log.
+     */
+    default void onBodyCaptured(RequestContextType requestContextType, int capturedBytes) {
+    }
+
+    /**
+     * A retry request was executed.
+     */
+    default void onRetried(RetryResult retryResult) {
+    }
+
+}
@@ -0,0 +1,112 @@
+package io.github.requestlog.core.listener;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.context.retry.RetryResult;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.support.Preconditions;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+
+/**
+ * Global registry of {@link RequestLogListener}, notified by handlers, interceptors and retry clients.
+ *
+ * Listeners are kept in a copy-on-write array, notifying allocates nothing and costs a volatile read when none is registered.
+ */
+@Slf4j
+public final class RequestLogListeners {
+
+    private static volatile RequestLogListener[] listeners = new RequestLogListener[0];
+
+    private RequestLogListeners() {
+    }
+
+
+    public static synchronized void register(RequestLogListener listener) {
+        Preconditions.check(listener != null, "listener can not be null");
+        RequestLogListener[] registered = Arrays.copyOf(listeners, listeners.length + 1);
+        registered[listeners.length] = listener;
+        listeners = registered;
+    }
+
+    public static synchronized void unregister(RequestLogListener listener) {
+        listeners = Arrays.stream(listeners).filter(registered -> registered != listener).toArray(RequestLogListener[]::new);
+    }
+
+    public static boolean isEmpty() {
+        return listeners.length == 0;
+    }
+
+
+    public static void logged(BaseRequestContext requestContext) {
+        for (RequestLogListener listener : listeners) {
+            try {
+                listener.onLogged(requestContext);
+            } catch (Exception e) {
+                log.warn("request-log listener onLogged error", e);
+            }
+        }
+    }
+
+    public static void sampledOut(BaseRequestContext requestContext) {
+        for (RequestLogListener listener : listeners) {
+            try {
+                listener.onSampledOut(requestContext);
+            } catch (Exception e) {
+                log.warn("request-log listener onSampledOut error", e);
+            }
+        }
+    }
+
+    public static void coalesced(BaseRequestContext requestContext) {
+        for (RequestLogListener listener : listeners) {
+            try {
+                listener.onCoalesced(requestContext);
+            } catch (Exception e) {
+                log.warn("request-log listener onCoalesced error", e);
+            }
+        }
+    }
+
+    public static void skipped(RequestContextType requestContextType) {
+        for (RequestLogListener listener : listeners) {
+            try {
+                listener.onSkipped(requestContextType);
+            } catch (Exception e) {
+                log.warn("request-log listener onSkipped error", e);
+            }
+        }
+    }
+
+    public static void saved(int count, long elapsedNanos, Throwable error) {
+        for (RequestLogListener listener : listeners) {
+            try {
+                listener.onSaved(count, elapsedNanos, error);
+            } catch (Exception e) {
+                log.warn("request-log listener onSaved error", e);
+            }
+        }
+    }
+
+    public static void bodyCaptured(RequestContextType requestContextType, int capturedBytes) {
+        for (RequestLogListener listener : listeners) {
+            try {
+                listener.onBodyCaptured(requestContextType, capturedBytes);
+            } catch (Exception e) {
+                log.warn("request-log listener onBodyCaptured error", e);
+            }
+        }
+    }
+
+    public static void retried(RetryResult retryResult) {
+        for (RequestLogListener listener : listeners) {
+            try {
+                listener.onRetried(retryResult);
+            } catch (Exception e) {
+                log.warn("request-log listener onRetried error", e);
+            }
+        }
+    }
+
+}
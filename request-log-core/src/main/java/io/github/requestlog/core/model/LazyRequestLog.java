@@ -0,0 +1,76 @@
+package io.github.requestlog.core.model;
+
+import java.nio.charset.Charset;
+
+
+/**
+ * {@link RequestLog} keeping bodies as bytes until first read.
+ *
+ * Built on the request thread, the bodies are usually decoded by the repository, e.g. on the async consumer thread.
+ */
+public class LazyRequestLog extends RequestLog {
+
+    private byte[] requestBodyBytes;
+    private Charset requestBodyCharset;
+
+    private byte[] responseBodyBytes;
+    private Charset responseBodyCharset;
+
+
+    /**
+     * Request body decoded from {@code bytes} when first read.
+     */
+    public synchronized void deferRequestBody(byte[] bytes, Charset charset) {
+        super.setRequestBody(null);
+        this.requestBodyBytes = bytes;
+        this.requestBodyCharset = charset;
+    }
+
+    /**
+     * Response body decoded from {@code bytes} when first read.
+     */
+    public synchronized void deferResponseBody(byte[] bytes, Charset charset) {
+        super.setResponseBody(null);
+        this.responseBodyBytes = bytes;
+        this.responseBodyCharset = charset;
+    }
+
+
+    @Override
+    public synchronized String getRequestBody() {
+        if (requestBodyBytes != null) {
+            super.setRequestBody(new String(requestBodyBytes, requestBodyCharset));
+            requestBodyBytes = null;
+        }
+        return super.getRequestBody();
+    }
+
+    @Override
+    public synchronized void setRequestBody(String requestBody) {
+        requestBodyBytes = null;
+        super.setRequestBody(requestBody);
+    }
+
+    @Override
+    public synchronized String getResponseBody() {
+        if (responseBodyBytes != null) {
+            super.setResponseBody(new String(responseBodyBytes, responseBodyCharset));
+            responseBodyBytes = null;
+        }
+        return super.getResponseBody();
+    }
+
+    @Override
+    public synchronized void setResponseBody(String responseBody) {
+        responseBodyBytes = null;
+        super.setResponseBody(responseBody);
+    }
+
+    /**
+     * Whether a body is still held as bytes.
+     */
+    public synchronized boolean isBodyDeferred() {
+        return requestBodyBytes != null || responseBodyBytes != null;
+    }
+
+}
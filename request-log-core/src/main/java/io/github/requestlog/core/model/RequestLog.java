@@ -14,6 +14,11 @@ import java.util.Map;
 @ToString
 public class RequestLog {
 
+    /**
+     * Assigned by repositories generating keys, e.g. JdbcRequestLogRepository.
+     */
+    private Long id;
+
     // context-type、http-client-type
     private RequestContextType contextType;
 
@@ -37,4 +42,26 @@ public class RequestLog {
     private Map<String, List<String>> responseHeaders;
     private String responseBody;
 
+    /**
+     * Length of the whole response body in bytes when known, {@link #responseBody} may hold only a prefix of it.
+     */
+    private Long responseBodyLength;
+
+    /**
+     * Whether {@link #responseBody} was cut off at the capture limit.
+     */
+    private Boolean responseBodyTruncated;
+
+    /**
+     * Time from sending the request until its response body was read or it failed, in nanoseconds, measured with {@link System#nanoTime()}.
+     * Null when not measured, e.g. for logs loaded from storage written before this field existed.
+     */
+    private Long durationNanos;
+
+    /**
+     * Number of identical requests this log stands for, null for a single request.
+     * Set on summaries of a {@link io.github.requestlog.core.handler.RequestLogCoalescer}.
+     */
+    private Integer occurrenceCount;
+
 }
@@ -9,6 +9,11 @@ import lombok.ToString;
 @ToString
 public class RequestRetryJob {
 
+    /**
+     * Assigned by repositories generating keys, e.g. JdbcRequestLogRepository.
+     */
+    private Long id;
+
     private RequestLog requestLog;
 
     /**
@@ -48,4 +53,14 @@ public class RequestRetryJob {
      */
     private Integer maxExecuteCount;
 
+    /**
+     * Node currently holding the job, see IRequestLogRepository#claimDueRetryJobs.
+     */
+    private String leaseOwner;
+
+    /**
+     * Lease expiration time, other nodes may claim the job afterwards.
+     */
+    private Long leaseExpireTimeMillis;
+
 }
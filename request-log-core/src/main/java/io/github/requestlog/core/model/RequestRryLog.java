@@ -21,6 +21,11 @@ public class RequestRryLog {
     private Integer executeCount;
     private Long executeTimeMillis;
 
+    /**
+     * Time the retry execution took, in nanoseconds, measured with {@link System#nanoTime()}.
+     */
+    private Long durationNanos;
+
     // Exception
     private Exception exception;
 
@@ -4,6 +4,10 @@ import io.github.requestlog.core.enums.RetryWaitStrategy;
 import io.github.requestlog.core.model.RequestLog;
 import io.github.requestlog.core.model.RequestRetryJob;
 import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.support.tuples.Tuple2;
+
+import java.util.Collections;
+import java.util.List;
 
 
 public interface IRequestLogRepository {
@@ -35,6 +39,126 @@ public interface IRequestLogRepository {
     }
 
 
+    /**
+     * Save a batch of {@link RequestLog}
+     *
+     * Loops over {@link #saveRequestLog} by default, override to write the batch in one round trip.
+     */
+    default void saveRequestLogs(List<RequestLog> requestLogs) {
+        for (RequestLog requestLog : requestLogs) {
+            saveRequestLog(requestLog);
+        }
+    }
+
+    /**
+     * Save a batch of {@link RequestLog} with their {@link RequestRetryJob}
+     *
+     * Loops over {@link #saveRequestLogAndRetryJob} by default.
+     */
+    default void saveRequestLogsAndRetryJobs(List<Tuple2<RequestLog, RequestRetryJob>> requestLogAndRetryJobs) {
+        for (Tuple2<RequestLog, RequestRetryJob> tuple : requestLogAndRetryJobs) {
+            saveRequestLogAndRetryJob(tuple.getT1(), tuple.getT2());
+        }
+    }
+
+    /**
+     * Save a batch of {@link RequestRetryJob}
+     *
+     * Loops over {@link #saveRequestRetryJob} by default.
+     */
+    default void saveRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+            saveRequestRetryJob(requestRetryJob);
+        }
+    }
+
+    /**
+     * Save a batch of {@link RequestRryLog}
+     *
+     * Loops over {@link #saveRequestRetryLog} by default.
+     */
+    default void saveRequestRetryLogs(List<RequestRryLog> requestRryLogs) {
+        for (RequestRryLog requestRryLog : requestRryLogs) {
+            saveRequestRetryLog(requestRryLog);
+        }
+    }
+
+
+    /**
+     * Find retry jobs due at {@code nowMillis} which have not reached their max execute count,
+     * ordered by {@link RequestRetryJob#getNextExecuteTimeMillis()}, each with its {@link RequestRetryJob#getRequestLog()}.
+     *
+     * Repositories that can not query return an empty list.
+     *
+     * @param limit max number of jobs returned.
+     */
+    default List<RequestRetryJob> findDueRetryJobs(long nowMillis, int limit) {
+        return Collections.emptyList();
+    }
+
+
+    /**
+     * Claim due retry jobs for {@code leaseOwner} until {@code leaseExpireTimeMillis}, so nodes sharing a repository do not execute a job twice.
+     *
+     * A job can be claimed when it is due at {@code dueTimeMillis}, has not reached its max execute count,
+     * and is not leased, its lease expired at {@code nowMillis}, or is already leased by {@code leaseOwner}.
+     * Claiming must be atomic per job, returned jobs carry the new lease.
+     *
+     * Repositories without leasing fall back to {@link #findDueRetryJobs}, suitable for a single node only.
+     *
+     * @param limit max number of jobs claimed.
+     */
+    default List<RequestRetryJob> claimDueRetryJobs(String leaseOwner, long dueTimeMillis, long nowMillis, long leaseExpireTimeMillis, int limit) {
+        return findDueRetryJobs(dueTimeMillis, limit);
+    }
+
+    /**
+     * Heartbeat, extend all leases held by {@code leaseOwner} which have not expired at {@code nowMillis}.
+     *
+     * @return number of leases extended.
+     */
+    default int renewRetryJobLeases(String leaseOwner, long nowMillis, long leaseExpireTimeMillis) {
+        return 0;
+    }
+
+
+    /**
+     * Update execution state of a saved {@link RequestRetryJob}, after a retry that should continue.
+     *
+     * Updates lastExecuteTimeMillis, nextExecuteTimeMillis and executeCount.
+     */
+    default void updateRequestRetryJob(RequestRetryJob requestRetryJob) {
+    }
+
+    /**
+     * Delete a saved {@link RequestRetryJob}, after a retry that succeeded or should not continue.
+     */
+    default void deleteRequestRetryJob(RequestRetryJob requestRetryJob) {
+    }
+
+    /**
+     * Update a batch of saved {@link RequestRetryJob}, see {@link #updateRequestRetryJob}.
+     *
+     * Loops over {@link #updateRequestRetryJob} by default.
+     */
+    default void updateRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+            updateRequestRetryJob(requestRetryJob);
+        }
+    }
+
+    /**
+     * Delete a batch of saved {@link RequestRetryJob}, see {@link #deleteRequestRetryJob}.
+     *
+     * Loops over {@link #deleteRequestRetryJob} by default.
+     */
+    default void deleteRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+            deleteRequestRetryJob(requestRetryJob);
+        }
+    }
+
+
     /**
      * Generate a {@link RequestRetryJob} from given {@link RequestLog}
      */
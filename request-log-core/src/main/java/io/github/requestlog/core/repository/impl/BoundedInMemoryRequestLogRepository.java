@@ -0,0 +1,151 @@
+package io.github.requestlog.core.repository.impl;
+
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.concurrent.EvictingRingBuffer;
+
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Thread-safe, bounded in-memory implementation of a request log repository.
+ *
+ * Keeps the most recent records of each kind in a lock-free {@link EvictingRingBuffer},
+ * bounded by count and by estimated bytes, evicting the oldest first.
+ * Snapshot getters never block writers, suitable as a hot cache of recent failures for diagnostics.
+ */
+public class BoundedInMemoryRequestLogRepository implements IRequestLogRepository {
+
+    private final EvictingRingBuffer<RequestLog> requestLogs;
+    private final EvictingRingBuffer<RequestRetryJob> requestRetryJobs;
+    private final EvictingRingBuffer<RequestRryLog> requestRryLogs;
+
+
+    /**
+     * 1024 records and 16MB of each kind.
+     */
+    public BoundedInMemoryRequestLogRepository() {
+        this(1024, 16 * 1024 * 1024);
+    }
+
+    /**
+     * @param maxCount max records of each kind, rounded up to a power of two.
+     * @param maxBytes max estimated bytes of each kind.
+     */
+    public BoundedInMemoryRequestLogRepository(int maxCount, long maxBytes) {
+        this.requestLogs = new EvictingRingBuffer<>(maxCount, maxBytes, BoundedInMemoryRequestLogRepository::estimateSize);
+        this.requestRetryJobs = new EvictingRingBuffer<>(maxCount, maxBytes, job -> 64 + estimateSize(job.getRequestLog()));
+        this.requestRryLogs = new EvictingRingBuffer<>(maxCount, maxBytes, BoundedInMemoryRequestLogRepository::estimateSize);
+    }
+
+
+    @Override
+    public void saveRequestLog(RequestLog requestLog) {
+        requestLogs.add(requestLog);
+    }
+
+    @Override
+    public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+        requestLogs.add(requestLog);
+        requestRetryJobs.add(requestRetryJob);
+    }
+
+    @Override
+    public void saveRequestRetryJob(RequestRetryJob requestRetryJob) {
+        requestRetryJobs.add(requestRetryJob);
+    }
+
+    @Override
+    public void saveRequestRetryLog(RequestRryLog requestRryLog) {
+        requestRryLogs.add(requestRryLog);
+    }
+
+
+    /**
+     * Snapshot of live {@link RequestLog}, oldest first.
+     */
+    public List<RequestLog> getRequestLogs() {
+        return requestLogs.snapshot();
+    }
+
+    /**
+     * Snapshot of live {@link RequestRetryJob}, oldest first.
+     */
+    public List<RequestRetryJob> getRequestRetryJobs() {
+        return requestRetryJobs.snapshot();
+    }
+
+    /**
+     * Snapshot of live {@link RequestRryLog}, oldest first.
+     */
+    public List<RequestRryLog> getRequestRryLogs() {
+        return requestRryLogs.snapshot();
+    }
+
+    /**
+     * Get last saved {@link RequestLog}.
+     */
+    public RequestLog getLastRequestLog() {
+        return requestLogs.last();
+    }
+
+    /**
+     * Number of records of all kinds evicted so far.
+     */
+    public long getEvictedCount() {
+        return requestLogs.getEvictedCount() + requestRetryJobs.getEvictedCount() + requestRryLogs.getEvictedCount();
+    }
+
+
+    /**
+     * Rough heap footprint, strings counted as 2 bytes per char plus fixed overheads.
+     */
+    private static int estimateSize(RequestLog requestLog) {
+        if (requestLog == null) {
+            return 0;
+        }
+        long size = 128;
+        size += estimateSize(requestLog.getRequestUrl()) + estimateSize(requestLog.getRequestPath());
+        size += estimateSize(requestLog.getRequestBody()) + estimateSize(requestLog.getResponseBody());
+        size += estimateSize(requestLog.getRequestHeaders()) + estimateSize(requestLog.getResponseHeaders());
+        if (requestLog.getAttributeMap() != null) {
+            size += 48L * requestLog.getAttributeMap().size();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    /**
+     * The referenced request log and retry job are not counted, they are usually held by other records.
+     */
+    private static int estimateSize(RequestRryLog requestRryLog) {
+        long size = 128;
+        size += estimateSize(requestRryLog.getRequestUrl());
+        size += estimateSize(requestRryLog.getRequestBody()) + estimateSize(requestRryLog.getResponseBody());
+        size += estimateSize(requestRryLog.getRequestHeaders()) + estimateSize(requestRryLog.getResponseHeaders());
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    private static long estimateSize(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    private static long estimateSize(Map<String, List<String>> headers) {
+        if (headers == null) {
+            return 0;
+        }
+        long size = 48;
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            size += 32 + estimateSize(entry.getKey());
+            if (entry.getValue() != null) {
+                for (String value : entry.getValue()) {
+                    size += estimateSize(value);
+                }
+            }
+        }
+        return size;
+    }
+
+}
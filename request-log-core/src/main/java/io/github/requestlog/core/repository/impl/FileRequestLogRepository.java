@@ -0,0 +1,263 @@
+package io.github.requestlog.core.repository.impl;
+
+import io.github.requestlog.core.enums.FsyncPolicy;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.codec.RequestLogCodec;
+import io.github.requestlog.core.support.file.SegmentedFileLog;
+import io.github.requestlog.core.support.tuples.Tuple2;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+
+/**
+ * Durable local implementation of a request log repository.
+ *
+ * Records are appended to rolling memory-mapped segment files under the given directory, see {@link SegmentedFileLog},
+ * and can be read back in write order with {@link #readRecords()}, including after a restart.
+ * Batch methods are written contiguously and forced once, thread-safe.
+ *
+ * Segments are kept until the directory is cleaned up by the caller, unless {@code maxSegments} bounds them:
+ * the oldest segments are then deleted as new ones roll, and their records are lost.
+ */
+public class FileRequestLogRepository implements IRequestLogRepository, Closeable {
+
+    private final SegmentedFileLog fileLog;
+
+
+    /**
+     * 64MB segments, forced every second, never deleted.
+     */
+    public FileRequestLogRepository(Path directory) {
+        this(directory, 64 * 1024 * 1024, FsyncPolicy.INTERVAL, 1000);
+    }
+
+    /**
+     * Segments are never deleted.
+     */
+    public FileRequestLogRepository(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        this(directory, segmentSize, 0, fsyncPolicy, fsyncIntervalMillis);
+    }
+
+    /**
+     * @param maxSegments segment files kept, the oldest are deleted with their records; 0 keeps every segment.
+     */
+    public FileRequestLogRepository(Path directory, int segmentSize, int maxSegments, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) {
+        try {
+            this.fileLog = new SegmentedFileLog(directory, segmentSize, maxSegments, fsyncPolicy, fsyncIntervalMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException("open request-log directory error: " + directory, e);
+        }
+    }
+
+
+    @Override
+    public void saveRequestLog(RequestLog requestLog) {
+        append(Collections.singletonList(FileRecord.of(requestLog)));
+    }
+
+    @Override
+    public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+        append(Collections.singletonList(FileRecord.of(requestLog, requestRetryJob)));
+    }
+
+    @Override
+    public void saveRequestRetryJob(RequestRetryJob requestRetryJob) {
+        append(Collections.singletonList(FileRecord.of(requestRetryJob)));
+    }
+
+    @Override
+    public void saveRequestRetryLog(RequestRryLog requestRryLog) {
+        append(Collections.singletonList(FileRecord.of(requestRryLog)));
+    }
+
+    @Override
+    public void saveRequestLogs(List<RequestLog> requestLogs) {
+        List<FileRecord> records = new ArrayList<>(requestLogs.size());
+        for (RequestLog requestLog : requestLogs) {
+            records.add(FileRecord.of(requestLog));
+        }
+        append(records);
+    }
+
+    @Override
+    public void saveRequestLogsAndRetryJobs(List<Tuple2<RequestLog, RequestRetryJob>> requestLogAndRetryJobs) {
+        List<FileRecord> records = new ArrayList<>(requestLogAndRetryJobs.size());
+        for (Tuple2<RequestLog, RequestRetryJob> tuple : requestLogAndRetryJobs) {
+            records.add(FileRecord.of(tuple.getT1(), tuple.getT2()));
+        }
+        append(records);
+    }
+
+    @Override
+    public void saveRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        List<FileRecord> records = new ArrayList<>(requestRetryJobs.size());
+        for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+            records.add(FileRecord.of(requestRetryJob));
+        }
+        append(records);
+    }
+
+    @Override
+    public void saveRequestRetryLogs(List<RequestRryLog> requestRryLogs) {
+        List<FileRecord> records = new ArrayList<>(requestRryLogs.size());
+        for (RequestRryLog requestRryLog : requestRryLogs) {
+            records.add(FileRecord.of(requestRryLog));
+        }
+        append(records);
+    }
+
+
+    /**
+     * Appends records in order, encoding happens outside the file lock.
+     */
+    public void append(List<FileRecord> records) {
+        List<SegmentedFileLog.Entry> entries = new ArrayList<>(records.size());
+        for (FileRecord record : records) {
+            entries.add(record.encode());
+        }
+        try {
+            fileLog.append(entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("append request-log records error", e);
+        }
+    }
+
+
+    /**
+     * Streams records written so far, in write order.
+     * Records are decoded lazily, segment by segment.
+     */
+    public Iterator<FileRecord> readRecords() {
+        Iterator<SegmentedFileLog.Entry> entries = fileLog.read();
+        return new Iterator<FileRecord>() {
+            @Override
+            public boolean hasNext() {
+                return entries.hasNext();
+            }
+
+            @Override
+            public FileRecord next() {
+                return FileRecord.decode(entries.next());
+            }
+        };
+    }
+
+
+    /**
+     * Forces records written so far to the storage device, regardless of {@link FsyncPolicy}.
+     */
+    public void sync() {
+        fileLog.sync();
+    }
+
+    /**
+     * Segment files currently in the directory.
+     */
+    public int getSegmentCount() {
+        return fileLog.getSegmentCount();
+    }
+
+    @Override
+    public void close() {
+        fileLog.close();
+    }
+
+
+    /**
+     * A record read back from, or written to, the file repository.
+     * Only the fields of its {@link Type} are set.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class FileRecord {
+
+        private final Type type;
+        private final RequestLog requestLog;
+        private final RequestRetryJob requestRetryJob;
+        private final RequestRryLog requestRryLog;
+
+        public static FileRecord of(RequestLog requestLog) {
+            return new FileRecord(Type.REQUEST_LOG, requestLog, null, null);
+        }
+
+        /**
+         * Stored as the retry job, which carries the request log, see {@link RequestRetryJob#getRequestLog()}.
+         */
+        public static FileRecord of(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+            return new FileRecord(Type.REQUEST_LOG_AND_RETRY_JOB, requestLog, requestRetryJob, null);
+        }
+
+        public static FileRecord of(RequestRetryJob requestRetryJob) {
+            return new FileRecord(Type.RETRY_JOB, null, requestRetryJob, null);
+        }
+
+        public static FileRecord of(RequestRryLog requestRryLog) {
+            return new FileRecord(Type.RETRY_LOG, null, null, requestRryLog);
+        }
+
+        private SegmentedFileLog.Entry encode() {
+            switch (type) {
+                case REQUEST_LOG:
+                    return new SegmentedFileLog.Entry(type.code, RequestLogCodec.encode(requestLog));
+                case REQUEST_LOG_AND_RETRY_JOB:
+                case RETRY_JOB:
+                    return new SegmentedFileLog.Entry(type.code, RequestLogCodec.encode(requestRetryJob));
+                case RETRY_LOG:
+                default:
+                    return new SegmentedFileLog.Entry(type.code, RequestLogCodec.encode(requestRryLog));
+            }
+        }
+
+        private static FileRecord decode(SegmentedFileLog.Entry entry) {
+            Type type = Type.of(entry.getType());
+            switch (type) {
+                case REQUEST_LOG:
+                    return of(RequestLogCodec.decodeRequestLog(entry.getPayload()));
+                case REQUEST_LOG_AND_RETRY_JOB:
+                    RequestRetryJob requestRetryJob = RequestLogCodec.decodeRequestRetryJob(entry.getPayload());
+                    return of(requestRetryJob.getRequestLog(), requestRetryJob);
+                case RETRY_JOB:
+                    return of(RequestLogCodec.decodeRequestRetryJob(entry.getPayload()));
+                case RETRY_LOG:
+                default:
+                    return of(RequestLogCodec.decodeRequestRryLog(entry.getPayload()));
+            }
+        }
+
+
+        @RequiredArgsConstructor
+        public enum Type {
+
+            REQUEST_LOG((byte) 1),
+            REQUEST_LOG_AND_RETRY_JOB((byte) 2),
+            RETRY_JOB((byte) 3),
+            RETRY_LOG((byte) 4),
+            ;
+
+            private final byte code;
+
+            static Type of(byte code) {
+                for (Type type : values()) {
+                    if (type.code == code) {
+                        return type;
+                    }
+                }
+                throw new IllegalStateException("unknown request-log record type: " + code);
+            }
+        }
+    }
+
+}
@@ -40,6 +40,11 @@ public class InMemoryRequestLogRepository implements IRequestLogRepository {
         requestRetryJobList.add(requestRetryJob);
     }
 
+    @Override
+    public void saveRequestLogs(List<RequestLog> requestLogs) {
+        requestLogList.addAll(requestLogs);
+    }
+
     @Override
     public void saveRequestRetryJob(RequestRetryJob requestRetryJob) {
         requestRetryJobList.add(requestRetryJob);
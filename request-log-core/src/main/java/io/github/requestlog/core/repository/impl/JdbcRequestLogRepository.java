@@ -0,0 +1,630 @@
+package io.github.requestlog.core.repository.impl;
+
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RequestLogErrorType;
+import io.github.requestlog.core.enums.RetryWaitStrategy;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.codec.DecodedException;
+import io.github.requestlog.core.support.tuples.Tuple2;
+import lombok.Getter;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Plain JDBC implementation of a request log repository, thread-safe.
+ *
+ * Tables are described by 'request-log/schema-{h2,mysql,postgresql}.sql' on the classpath.
+ * Batch methods insert with prepared statement batching in one transaction, generated ids are set back on the models.
+ * {@link #findDueRetryJobs} is served by the index on (next_execute_time_millis, execute_count).
+ * {@link #claimDueRetryJobs} leases jobs with conditional updates, safe for several nodes sharing the tables.
+ *
+ * Headers and attributes are stored as 'name: value' lines, exceptions as class name and message.
+ */
+public class JdbcRequestLogRepository implements IRequestLogRepository {
+
+    private static final String INSERT_REQUEST_LOG = "INSERT INTO request_log (context_type, log_error_type, attributes, exception_class, exception_message, " +
+            "http_method, request_url, request_path, request_headers, request_body, response_code, response_headers, response_body, " +
+            "response_body_length, response_body_truncated, duration_nanos, occurrence_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_RETRY_JOB = "INSERT INTO request_retry_job (request_log_id, retry_wait_strategy, retry_interval, " +
+            "last_execute_time_millis, next_execute_time_millis, execute_count, max_execute_count) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_RETRY_LOG = "INSERT INTO request_retry_log (request_log_id, request_retry_job_id, retry_client_type, succeed, " +
+            "execute_count, execute_time_millis, exception_class, exception_message, request_url, request_headers, request_body, " +
+            "response_code, response_headers, response_body, duration_nanos) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_RETRY_JOBS = "SELECT j.id AS job_id, j.retry_wait_strategy, j.retry_interval, j.last_execute_time_millis, " +
+            "j.next_execute_time_millis, j.execute_count, j.max_execute_count, j.lease_owner, j.lease_expire_time_millis, " +
+            "l.id AS log_id, l.context_type, l.log_error_type, l.attributes, " +
+            "l.exception_class, l.exception_message, l.http_method, l.request_url, l.request_path, l.request_headers, l.request_body, " +
+            "l.response_code, l.response_headers, l.response_body, l.response_body_length, l.response_body_truncated, l.duration_nanos, l.occurrence_count " +
+            "FROM request_retry_job j JOIN request_log l ON l.id = j.request_log_id ";
+
+    private static final String SELECT_DUE_RETRY_JOBS = SELECT_RETRY_JOBS +
+            "WHERE j.next_execute_time_millis <= ? AND j.execute_count < j.max_execute_count " +
+            "ORDER BY j.next_execute_time_millis";
+
+    private static final String CLAIMABLE = "(lease_expire_time_millis IS NULL OR lease_expire_time_millis <= ? OR lease_owner = ?)";
+
+    private static final String SELECT_CLAIMABLE_RETRY_JOB_IDS = "SELECT id FROM request_retry_job " +
+            "WHERE next_execute_time_millis <= ? AND execute_count < max_execute_count AND " + CLAIMABLE + " " +
+            "ORDER BY next_execute_time_millis";
+
+    private static final String CLAIM_RETRY_JOB = "UPDATE request_retry_job SET lease_owner = ?, lease_expire_time_millis = ? " +
+            "WHERE id = ? AND " + CLAIMABLE;
+
+    private static final String SELECT_CLAIMED_RETRY_JOBS = SELECT_RETRY_JOBS +
+            "WHERE j.lease_owner = ? AND j.lease_expire_time_millis = ? AND j.next_execute_time_millis <= ? AND j.execute_count < j.max_execute_count " +
+            "ORDER BY j.next_execute_time_millis";
+
+    private static final String RENEW_RETRY_JOB_LEASES = "UPDATE request_retry_job SET lease_expire_time_millis = ? " +
+            "WHERE lease_owner = ? AND lease_expire_time_millis > ? AND execute_count < max_execute_count";
+
+    private static final String UPDATE_RETRY_JOB = "UPDATE request_retry_job SET last_execute_time_millis = ?, next_execute_time_millis = ?, " +
+            "execute_count = ? WHERE id = ?";
+
+    private static final String DELETE_RETRY_JOB = "DELETE FROM request_retry_job WHERE id = ?";
+
+
+    /**
+     * Candidates read per claimed job, spreads concurrent claims over more rows.
+     */
+    private static final int CLAIM_CANDIDATE_FACTOR = 4;
+
+
+    @Getter
+    private final DataSource dataSource;
+
+    public JdbcRequestLogRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+
+    @Override
+    public void saveRequestLog(RequestLog requestLog) {
+        saveRequestLogs(Collections.singletonList(requestLog));
+    }
+
+    @Override
+    public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+        saveRequestLogsAndRetryJobs(Collections.singletonList(Tuple2.of(requestLog, requestRetryJob)));
+    }
+
+    @Override
+    public void saveRequestRetryJob(RequestRetryJob requestRetryJob) {
+        saveRequestRetryJobs(Collections.singletonList(requestRetryJob));
+    }
+
+    @Override
+    public void saveRequestRetryLog(RequestRryLog requestRryLog) {
+        saveRequestRetryLogs(Collections.singletonList(requestRryLog));
+    }
+
+    @Override
+    public void saveRequestLogs(List<RequestLog> requestLogs) {
+        inTransaction("save request logs error", connection -> insertRequestLogs(connection, requestLogs));
+    }
+
+    @Override
+    public void saveRequestLogsAndRetryJobs(List<Tuple2<RequestLog, RequestRetryJob>> requestLogAndRetryJobs) {
+        List<RequestLog> requestLogs = new ArrayList<>(requestLogAndRetryJobs.size());
+        List<RequestRetryJob> requestRetryJobs = new ArrayList<>(requestLogAndRetryJobs.size());
+        for (Tuple2<RequestLog, RequestRetryJob> tuple : requestLogAndRetryJobs) {
+            requestLogs.add(tuple.getT1());
+            tuple.getT2().setRequestLog(tuple.getT1());
+            requestRetryJobs.add(tuple.getT2());
+        }
+        inTransaction("save request logs and retry jobs error", connection -> {
+            insertRequestLogs(connection, requestLogs);
+            insertRetryJobs(connection, requestRetryJobs);
+        });
+    }
+
+    /**
+     * Jobs whose {@link RequestRetryJob#getRequestLog()} has not been saved yet get it saved first.
+     */
+    @Override
+    public void saveRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        List<RequestLog> unsaved = new ArrayList<>();
+        for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+            if (requestRetryJob.getRequestLog().getId() == null) {
+                unsaved.add(requestRetryJob.getRequestLog());
+            }
+        }
+        inTransaction("save request retry jobs error", connection -> {
+            insertRequestLogs(connection, unsaved);
+            insertRetryJobs(connection, requestRetryJobs);
+        });
+    }
+
+    @Override
+    public void saveRequestRetryLogs(List<RequestRryLog> requestRryLogs) {
+        inTransaction("save request retry logs error", connection -> insertRetryLogs(connection, requestRryLogs));
+    }
+
+
+    @Override
+    public List<RequestRetryJob> findDueRetryJobs(long nowMillis, int limit) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_DUE_RETRY_JOBS)) {
+            // portable alternative to LIMIT, rows are read in index order.
+            statement.setMaxRows(limit);
+            statement.setFetchSize(Math.min(limit, 500));
+            statement.setLong(1, nowMillis);
+            List<RequestRetryJob> requestRetryJobs = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    requestRetryJobs.add(mapRetryJob(resultSet));
+                }
+            }
+            return requestRetryJobs;
+        } catch (SQLException e) {
+            throw new IllegalStateException("find due retry jobs error", e);
+        }
+    }
+
+    /**
+     * Portable optimistic claim, no row locking syntax required:
+     * candidates are read from the due index, shuffled so concurrent nodes rarely compete for the same rows,
+     * then claimed one conditional update each, in batches until the limit is reached.
+     * Claimed jobs are read back by owner and lease expiration.
+     */
+    @Override
+    public List<RequestRetryJob> claimDueRetryJobs(String leaseOwner, long dueTimeMillis, long nowMillis, long leaseExpireTimeMillis, int limit) {
+        List<Long> candidateIds = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_CLAIMABLE_RETRY_JOB_IDS)) {
+            statement.setMaxRows((int) Math.min(Integer.MAX_VALUE, (long) limit * CLAIM_CANDIDATE_FACTOR));
+            statement.setLong(1, dueTimeMillis);
+            statement.setLong(2, nowMillis);
+            statement.setString(3, leaseOwner);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    candidateIds.add(resultSet.getLong(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("claim due retry jobs error", e);
+        }
+        if (candidateIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Collections.shuffle(candidateIds);
+
+        int claimed = 0;
+        for (int from = 0; from < candidateIds.size() && claimed < limit; ) {
+            // each candidate is tried once, rows taken by other nodes meanwhile are skipped.
+            List<Long> batch = candidateIds.subList(from, Math.min(candidateIds.size(), from + limit - claimed));
+            from += batch.size();
+            claimed += claimRetryJobs(batch, leaseOwner, nowMillis, leaseExpireTimeMillis);
+        }
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT_CLAIMED_RETRY_JOBS)) {
+            // jobs held from an earlier claim with the same lease expiration may match too.
+            statement.setMaxRows(limit);
+            statement.setString(1, leaseOwner);
+            statement.setLong(2, leaseExpireTimeMillis);
+            statement.setLong(3, dueTimeMillis);
+            List<RequestRetryJob> requestRetryJobs = new ArrayList<>(claimed);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    requestRetryJobs.add(mapRetryJob(resultSet));
+                }
+            }
+            return requestRetryJobs;
+        } catch (SQLException e) {
+            throw new IllegalStateException("claim due retry jobs error", e);
+        }
+    }
+
+    private int claimRetryJobs(List<Long> ids, String leaseOwner, long nowMillis, long leaseExpireTimeMillis) {
+        int[] claimed = new int[1];
+        inTransaction("claim due retry jobs error", connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(CLAIM_RETRY_JOB)) {
+                for (Long id : ids) {
+                    statement.setString(1, leaseOwner);
+                    statement.setLong(2, leaseExpireTimeMillis);
+                    statement.setLong(3, id);
+                    statement.setLong(4, nowMillis);
+                    statement.setString(5, leaseOwner);
+                    statement.addBatch();
+                }
+                for (int count : statement.executeBatch()) {
+                    // drivers may not report counts, assume claimed, the read back is authoritative.
+                    if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                        claimed[0]++;
+                    }
+                }
+            }
+        });
+        return claimed[0];
+    }
+
+    @Override
+    public int renewRetryJobLeases(String leaseOwner, long nowMillis, long leaseExpireTimeMillis) {
+        int[] renewed = new int[1];
+        inTransaction("renew retry job leases error", connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(RENEW_RETRY_JOB_LEASES)) {
+                statement.setLong(1, leaseExpireTimeMillis);
+                statement.setString(2, leaseOwner);
+                statement.setLong(3, nowMillis);
+                renewed[0] = statement.executeUpdate();
+            }
+        });
+        return renewed[0];
+    }
+
+
+    private void insertRequestLogs(Connection connection, List<RequestLog> requestLogs) throws SQLException {
+        if (requestLogs.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_REQUEST_LOG, Statement.RETURN_GENERATED_KEYS)) {
+            for (RequestLog requestLog : requestLogs) {
+                int i = 0;
+                setString(statement, ++i, requestLog.getContextType());
+                setString(statement, ++i, requestLog.getLogErrorType());
+                statement.setString(++i, formatLines(requestLog.getAttributeMap() == null ? null : toMultiValue(requestLog.getAttributeMap())));
+                i = setException(statement, i, requestLog.getException());
+                setString(statement, ++i, requestLog.getHttpMethod());
+                statement.setString(++i, requestLog.getRequestUrl());
+                statement.setString(++i, requestLog.getRequestPath());
+                statement.setString(++i, formatLines(requestLog.getRequestHeaders()));
+                statement.setString(++i, requestLog.getRequestBody());
+                setInt(statement, ++i, requestLog.getResponseCode());
+                statement.setString(++i, formatLines(requestLog.getResponseHeaders()));
+                statement.setString(++i, requestLog.getResponseBody());
+                setLong(statement, ++i, requestLog.getResponseBodyLength());
+                setBoolean(statement, ++i, requestLog.getResponseBodyTruncated());
+                setLong(statement, ++i, requestLog.getDurationNanos());
+                setInt(statement, ++i, requestLog.getOccurrenceCount());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                for (RequestLog requestLog : requestLogs) {
+                    if (!keys.next()) {
+                        throw new SQLException("generated keys missing for request_log batch");
+                    }
+                    requestLog.setId(keys.getLong(1));
+                }
+            }
+        }
+    }
+
+    private void insertRetryJobs(Connection connection, List<RequestRetryJob> requestRetryJobs) throws SQLException {
+        if (requestRetryJobs.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_RETRY_JOB, Statement.RETURN_GENERATED_KEYS)) {
+            for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+                int i = 0;
+                statement.setLong(++i, requestRetryJob.getRequestLog().getId());
+                setString(statement, ++i, requestRetryJob.getRetryWaitStrategy());
+                setInt(statement, ++i, requestRetryJob.getRetryInterval());
+                setLong(statement, ++i, requestRetryJob.getLastExecuteTimeMillis());
+                setLong(statement, ++i, requestRetryJob.getNextExecuteTimeMillis());
+                setInt(statement, ++i, requestRetryJob.getExecuteCount());
+                setInt(statement, ++i, requestRetryJob.getMaxExecuteCount());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+                    if (!keys.next()) {
+                        throw new SQLException("generated keys missing for request_retry_job batch");
+                    }
+                    requestRetryJob.setId(keys.getLong(1));
+                }
+            }
+        }
+    }
+
+    private void insertRetryLogs(Connection connection, List<RequestRryLog> requestRryLogs) throws SQLException {
+        if (requestRryLogs.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_RETRY_LOG)) {
+            for (RequestRryLog requestRryLog : requestRryLogs) {
+                int i = 0;
+                setLong(statement, ++i, requestRryLog.getRequestLog() == null ? null : requestRryLog.getRequestLog().getId());
+                setLong(statement, ++i, requestRryLog.getRequestRetryJob() == null ? null : requestRryLog.getRequestRetryJob().getId());
+                setString(statement, ++i, requestRryLog.getRetryClientType());
+                if (requestRryLog.getSucceed() == null) {
+                    statement.setNull(++i, Types.BOOLEAN);
+                } else {
+                    statement.setBoolean(++i, requestRryLog.getSucceed());
+                }
+                setInt(statement, ++i, requestRryLog.getExecuteCount());
+                setLong(statement, ++i, requestRryLog.getExecuteTimeMillis());
+                i = setException(statement, i, requestRryLog.getException());
+                statement.setString(++i, requestRryLog.getRequestUrl());
+                statement.setString(++i, formatLines(requestRryLog.getRequestHeaders()));
+                statement.setString(++i, requestRryLog.getRequestBody());
+                setInt(statement, ++i, requestRryLog.getResponseCode());
+                statement.setString(++i, formatLines(requestRryLog.getResponseHeaders()));
+                statement.setString(++i, requestRryLog.getResponseBody());
+                setLong(statement, ++i, requestRryLog.getDurationNanos());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+
+    private static RequestRetryJob mapRetryJob(ResultSet resultSet) throws SQLException {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setId(resultSet.getLong("log_id"));
+        requestLog.setContextType(getEnum(resultSet, "context_type", RequestContextType.class));
+        requestLog.setLogErrorType(getEnum(resultSet, "log_error_type", RequestLogErrorType.class));
+        Map<String, List<String>> attributes = parseLines(resultSet.getString("attributes"));
+        if (attributes != null) {
+            Map<String, Object> attributeMap = new LinkedHashMap<>();
+            attributes.forEach((key, values) -> attributeMap.put(key, values.get(0)));
+            requestLog.setAttributeMap(attributeMap);
+        }
+        String exceptionClass = resultSet.getString("exception_class");
+        if (exceptionClass != null) {
+            requestLog.setException(new DecodedException(exceptionClass, resultSet.getString("exception_message")));
+        }
+        requestLog.setHttpMethod(getEnum(resultSet, "http_method", HttpMethod.class));
+        requestLog.setRequestUrl(resultSet.getString("request_url"));
+        requestLog.setRequestPath(resultSet.getString("request_path"));
+        requestLog.setRequestHeaders(parseLines(resultSet.getString("request_headers")));
+        requestLog.setRequestBody(resultSet.getString("request_body"));
+        requestLog.setResponseCode(getInt(resultSet, "response_code"));
+        requestLog.setResponseHeaders(parseLines(resultSet.getString("response_headers")));
+        requestLog.setResponseBody(resultSet.getString("response_body"));
+        requestLog.setResponseBodyLength(getLong(resultSet, "response_body_length"));
+        requestLog.setResponseBodyTruncated(getBoolean(resultSet, "response_body_truncated"));
+        requestLog.setDurationNanos(getLong(resultSet, "duration_nanos"));
+        requestLog.setOccurrenceCount(getInt(resultSet, "occurrence_count"));
+
+        RequestRetryJob requestRetryJob = new RequestRetryJob();
+        requestRetryJob.setId(resultSet.getLong("job_id"));
+        requestRetryJob.setRequestLog(requestLog);
+        requestRetryJob.setRetryWaitStrategy(getEnum(resultSet, "retry_wait_strategy", RetryWaitStrategy.class));
+        requestRetryJob.setRetryInterval(getInt(resultSet, "retry_interval"));
+        requestRetryJob.setLastExecuteTimeMillis(getLong(resultSet, "last_execute_time_millis"));
+        requestRetryJob.setNextExecuteTimeMillis(getLong(resultSet, "next_execute_time_millis"));
+        requestRetryJob.setExecuteCount(getInt(resultSet, "execute_count"));
+        requestRetryJob.setMaxExecuteCount(getInt(resultSet, "max_execute_count"));
+        requestRetryJob.setLeaseOwner(resultSet.getString("lease_owner"));
+        requestRetryJob.setLeaseExpireTimeMillis(getLong(resultSet, "lease_expire_time_millis"));
+        return requestRetryJob;
+    }
+
+    @Override
+    public void updateRequestRetryJob(RequestRetryJob requestRetryJob) {
+        updateRequestRetryJobs(Collections.singletonList(requestRetryJob));
+    }
+
+    @Override
+    public void updateRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        if (requestRetryJobs.isEmpty()) {
+            return;
+        }
+        inTransaction("update request retry jobs error", connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_RETRY_JOB)) {
+                for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+                    setLong(statement, 1, requestRetryJob.getLastExecuteTimeMillis());
+                    setLong(statement, 2, requestRetryJob.getNextExecuteTimeMillis());
+                    setInt(statement, 3, requestRetryJob.getExecuteCount());
+                    statement.setLong(4, requestRetryJob.getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Retry logs keep their request_retry_job_id, the column has no foreign key.
+     */
+    @Override
+    public void deleteRequestRetryJob(RequestRetryJob requestRetryJob) {
+        deleteRequestRetryJobs(Collections.singletonList(requestRetryJob));
+    }
+
+    @Override
+    public void deleteRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        if (requestRetryJobs.isEmpty()) {
+            return;
+        }
+        inTransaction("delete request retry jobs error", connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(DELETE_RETRY_JOB)) {
+                for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+                    statement.setLong(1, requestRetryJob.getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+
+    // ----- jdbc helpers
+
+    @FunctionalInterface
+    private interface SqlConsumer {
+        void accept(Connection connection) throws SQLException;
+    }
+
+    /**
+     * @param errorMessage message of the {@link IllegalStateException} wrapping a {@link SQLException}.
+     */
+    private void inTransaction(String errorMessage, SqlConsumer consumer) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                consumer.accept(connection);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(errorMessage, e);
+        }
+    }
+
+    private static int setException(PreparedStatement statement, int index, Exception exception) throws SQLException {
+        if (exception == null) {
+            statement.setNull(++index, Types.VARCHAR);
+            statement.setNull(++index, Types.VARCHAR);
+        } else {
+            statement.setString(++index, exception instanceof DecodedException ? ((DecodedException) exception).getClassName() : exception.getClass().getName());
+            statement.setString(++index, exception.getMessage());
+        }
+        return index;
+    }
+
+    private static void setString(PreparedStatement statement, int index, Enum<?> value) throws SQLException {
+        statement.setString(index, value == null ? null : value.name());
+    }
+
+    private static void setInt(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setInt(index, value);
+        }
+    }
+
+    private static void setLong(PreparedStatement statement, int index, Long value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.BIGINT);
+        } else {
+            statement.setLong(index, value);
+        }
+    }
+
+    private static void setBoolean(PreparedStatement statement, int index, Boolean value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.BOOLEAN);
+        } else {
+            statement.setBoolean(index, value);
+        }
+    }
+
+    private static <E extends Enum<E>> E getEnum(ResultSet resultSet, String column, Class<E> enumClass) throws SQLException {
+        String name = resultSet.getString(column);
+        return name == null ? null : Enum.valueOf(enumClass, name);
+    }
+
+    private static Integer getInt(ResultSet resultSet, String column) throws SQLException {
+        int value = resultSet.getInt(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Long getLong(ResultSet resultSet, String column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private static Boolean getBoolean(ResultSet resultSet, String column) throws SQLException {
+        boolean value = resultSet.getBoolean(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+
+    // ----- text columns
+
+    private static Map<String, List<String>> toMultiValue(Map<String, Object> attributeMap) {
+        Map<String, List<String>> multiValue = new LinkedHashMap<>();
+        attributeMap.forEach((key, value) -> multiValue.put(key, Collections.singletonList(String.valueOf(value))));
+        return multiValue;
+    }
+
+    /**
+     * One 'name: value' line per value, backslashes and line breaks in values are escaped.
+     */
+    private static String formatLines(Map<String, List<String>> map) {
+        if (map == null) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder();
+        map.forEach((name, values) -> {
+            if (values == null) {
+                return;
+            }
+            for (String value : values) {
+                builder.append(name).append(": ");
+                escape(builder, value == null ? "" : value);
+                builder.append('\n');
+            }
+        });
+        return builder.toString();
+    }
+
+    private static Map<String, List<String>> parseLines(String text) {
+        if (text == null) {
+            return null;
+        }
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (String line : text.split("\n")) {
+            int separator = line.indexOf(": ");
+            if (separator < 0) {
+                continue;
+            }
+            map.computeIfAbsent(line.substring(0, separator), key -> new ArrayList<>()).add(unescape(line.substring(separator + 2)));
+        }
+        return map;
+    }
+
+    private static void escape(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                builder.append("\\\\");
+            } else if (c == '\n') {
+                builder.append("\\n");
+            } else if (c == '\r') {
+                builder.append("\\r");
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                builder.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+}
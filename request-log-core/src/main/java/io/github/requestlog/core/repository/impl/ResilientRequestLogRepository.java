@@ -0,0 +1,602 @@
+package io.github.requestlog.core.repository.impl;
+
+import io.github.requestlog.core.enums.FsyncPolicy;
+import io.github.requestlog.core.enums.RetryWaitStrategy;
+import io.github.requestlog.core.enums.ThreadMode;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.repository.impl.FileRequestLogRepository.FileRecord;
+import io.github.requestlog.core.support.concurrent.RequestLogExecutors;
+import io.github.requestlog.core.support.tuples.Tuple2;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Decorates a repository with a circuit breaker, spilling writes to a local journal while the delegate is unhealthy.
+ *
+ * Writes run on dedicated writer threads, the caller waits at most the slow call threshold: failed and timed out writes count as failures
+ * and are spilled, the circuit opens after consecutive failures. A hung delegate therefore costs each caller at most the threshold.
+ * While open, save methods append to a bounded {@link FileRequestLogRepository} journal under the given directory instead of calling the delegate,
+ * records beyond the journal bound are dropped and counted.
+ * After the open duration a single trial write goes to the delegate, on success the circuit closes and the journal is replayed on a background thread,
+ * oldest first, through the delegate batch methods. A journal left by a previous run is replayed at startup.
+ *
+ * Save methods never throw, a failed write is spilled. Spilling and replay are at-least-once:
+ * a timed out write which completes later, or a journal interrupted mid-replay, may be saved twice.
+ * Query and update methods are not decorated.
+ */
+@Slf4j
+public class ResilientRequestLogRepository implements IRequestLogRepository, Closeable {
+
+    private static final int REPLAY_BATCH_SIZE = 256;
+    private static final int WRITE_QUEUE_FACTOR = 64;
+
+    private final IRequestLogRepository delegate;
+    private final Path journalDirectory;
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private volatile State state = State.CLOSED;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile long openedAtNanos;
+
+    private final Object journalLock = new Object();
+    private FileRequestLogRepository journal;
+    private Path journalEpoch;
+    private long nextEpoch;
+    private int closedSegments;
+    private volatile boolean journalPending;
+
+    private final ThreadPoolExecutor writeExecutor;
+    private final ExecutorService replayExecutor;
+    private final AtomicBoolean replayScheduled = new AtomicBoolean();
+
+    private final LongAdder spilledCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder replayedCount = new LongAdder();
+
+
+    /**
+     * Opens after 5 consecutive failures or calls slower than 1s, for 30s. Journal of up to 16 segments of 16MB.
+     * As many writer threads as processors, at least 4.
+     */
+    public ResilientRequestLogRepository(IRequestLogRepository delegate, Path journalDirectory) {
+        this(delegate, journalDirectory, 5, 1000, 30_000, 16 * 1024 * 1024, 16);
+    }
+
+    /**
+     * @param failureThreshold  consecutive failed or slow calls opening the circuit.
+     * @param slowCallMillis    max time a caller waits for a write, calls timing out count as failures.
+     * @param openDurationMillis time the circuit stays open before a trial call.
+     * @param segmentSize       journal segment file size.
+     * @param maxSegments       journal segment files over all epochs, beyond which records are dropped.
+     */
+    public ResilientRequestLogRepository(IRequestLogRepository delegate, Path journalDirectory, int failureThreshold,
+                                         long slowCallMillis, long openDurationMillis, int segmentSize, int maxSegments) {
+        this(delegate, journalDirectory, failureThreshold, slowCallMillis, openDurationMillis, segmentSize, maxSegments,
+                Math.max(4, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param writerThreads threads calling the delegate, writes beyond them queue and count their wait against {@code slowCallMillis}.
+     */
+    public ResilientRequestLogRepository(IRequestLogRepository delegate, Path journalDirectory, int failureThreshold,
+                                         long slowCallMillis, long openDurationMillis, int segmentSize, int maxSegments, int writerThreads) {
+        if (delegate == null || journalDirectory == null) {
+            throw new IllegalArgumentException("delegate and journalDirectory required");
+        }
+        if (failureThreshold <= 0 || slowCallMillis <= 0 || openDurationMillis < 0 || maxSegments <= 0 || writerThreads <= 0) {
+            throw new IllegalArgumentException("failureThreshold > 0, slowCallMillis > 0, openDurationMillis >= 0, maxSegments > 0 and writerThreads > 0 required");
+        }
+        this.delegate = delegate;
+        this.journalDirectory = journalDirectory;
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+
+        List<Path> epochs;
+        try {
+            Files.createDirectories(journalDirectory);
+            epochs = listEpochs();
+        } catch (IOException e) {
+            throw new UncheckedIOException("open request-log journal directory error: " + journalDirectory, e);
+        }
+        for (Path epoch : epochs) {
+            closedSegments += countSegments(epoch);
+        }
+        nextEpoch = epochs.isEmpty() ? 0 : epochId(epochs.get(epochs.size() - 1)) + 1;
+
+        // bounded queue, writers stuck on a hung delegate must not pile up tasks.
+        this.writeExecutor = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(writerThreads * WRITE_QUEUE_FACTOR), RequestLogExecutors.threadFactory("request-log-repository-write", ThreadMode.PLATFORM));
+        this.writeExecutor.allowCoreThreadTimeOut(true);
+        this.replayExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-log-journal-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!epochs.isEmpty()) {
+            journalPending = true;
+            scheduleReplay();
+        }
+    }
+
+
+    @Override
+    public void saveRequestLog(RequestLog requestLog) {
+        if (!write(() -> delegate.saveRequestLog(requestLog))) {
+            spill(Collections.singletonList(FileRecord.of(requestLog)));
+        }
+    }
+
+    @Override
+    public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+        if (!write(() -> delegate.saveRequestLogAndRetryJob(requestLog, requestRetryJob))) {
+            spill(Collections.singletonList(FileRecord.of(requestLog, requestRetryJob)));
+        }
+    }
+
+    @Override
+    public void saveRequestRetryJob(RequestRetryJob requestRetryJob) {
+        if (!write(() -> delegate.saveRequestRetryJob(requestRetryJob))) {
+            spill(Collections.singletonList(FileRecord.of(requestRetryJob)));
+        }
+    }
+
+    @Override
+    public void saveRequestRetryLog(RequestRryLog requestRryLog) {
+        if (!write(() -> delegate.saveRequestRetryLog(requestRryLog))) {
+            spill(Collections.singletonList(FileRecord.of(requestRryLog)));
+        }
+    }
+
+    @Override
+    public void saveRequestLogs(List<RequestLog> requestLogs) {
+        if (!write(() -> delegate.saveRequestLogs(requestLogs))) {
+            List<FileRecord> records = new ArrayList<>(requestLogs.size());
+            for (RequestLog requestLog : requestLogs) {
+                records.add(FileRecord.of(requestLog));
+            }
+            spill(records);
+        }
+    }
+
+    @Override
+    public void saveRequestLogsAndRetryJobs(List<Tuple2<RequestLog, RequestRetryJob>> requestLogAndRetryJobs) {
+        if (!write(() -> delegate.saveRequestLogsAndRetryJobs(requestLogAndRetryJobs))) {
+            List<FileRecord> records = new ArrayList<>(requestLogAndRetryJobs.size());
+            for (Tuple2<RequestLog, RequestRetryJob> tuple : requestLogAndRetryJobs) {
+                records.add(FileRecord.of(tuple.getT1(), tuple.getT2()));
+            }
+            spill(records);
+        }
+    }
+
+    @Override
+    public void saveRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        if (!write(() -> delegate.saveRequestRetryJobs(requestRetryJobs))) {
+            List<FileRecord> records = new ArrayList<>(requestRetryJobs.size());
+            for (RequestRetryJob requestRetryJob : requestRetryJobs) {
+                records.add(FileRecord.of(requestRetryJob));
+            }
+            spill(records);
+        }
+    }
+
+    @Override
+    public void saveRequestRetryLogs(List<RequestRryLog> requestRryLogs) {
+        if (!write(() -> delegate.saveRequestRetryLogs(requestRryLogs))) {
+            List<FileRecord> records = new ArrayList<>(requestRryLogs.size());
+            for (RequestRryLog requestRryLog : requestRryLogs) {
+                records.add(FileRecord.of(requestRryLog));
+            }
+            spill(records);
+        }
+    }
+
+
+    @Override
+    public List<RequestRetryJob> findDueRetryJobs(long nowMillis, int limit) {
+        return delegate.findDueRetryJobs(nowMillis, limit);
+    }
+
+    @Override
+    public List<RequestRetryJob> claimDueRetryJobs(String leaseOwner, long dueTimeMillis, long nowMillis, long leaseExpireTimeMillis, int limit) {
+        return delegate.claimDueRetryJobs(leaseOwner, dueTimeMillis, nowMillis, leaseExpireTimeMillis, limit);
+    }
+
+    @Override
+    public int renewRetryJobLeases(String leaseOwner, long nowMillis, long leaseExpireTimeMillis) {
+        return delegate.renewRetryJobLeases(leaseOwner, nowMillis, leaseExpireTimeMillis);
+    }
+
+    @Override
+    public void updateRequestRetryJob(RequestRetryJob requestRetryJob) {
+        delegate.updateRequestRetryJob(requestRetryJob);
+    }
+
+    @Override
+    public void deleteRequestRetryJob(RequestRetryJob requestRetryJob) {
+        delegate.deleteRequestRetryJob(requestRetryJob);
+    }
+
+    @Override
+    public void updateRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        delegate.updateRequestRetryJobs(requestRetryJobs);
+    }
+
+    @Override
+    public void deleteRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+        delegate.deleteRequestRetryJobs(requestRetryJobs);
+    }
+
+    @Override
+    public RequestRetryJob generateNewRetryJob(RequestLog requestLog) {
+        return delegate.generateNewRetryJob(requestLog);
+    }
+
+    @Override
+    public RequestRetryJob generateNewRetryJob(RequestLog requestLog, RetryWaitStrategy retryWaitStrategy, int retryInterval, int maxExecuteCount) {
+        return delegate.generateNewRetryJob(requestLog, retryWaitStrategy, retryInterval, maxExecuteCount);
+    }
+
+
+    /**
+     * Calls the delegate on a writer thread if the circuit permits, waits at most the slow call threshold.
+     *
+     * @return false if the records were not saved in time and should be spilled.
+     */
+    private boolean write(Runnable call) {
+        if (!permitCall()) {
+            return false;
+        }
+        Future<?> future;
+        try {
+            future = writeExecutor.submit(call);
+        } catch (RejectedExecutionException e) {
+            // writers busy and queue full, or closed.
+            onFailure();
+            return false;
+        }
+        try {
+            future.get(slowCallNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            onFailure();
+            log.warn("request-log repository write error, records spilled to journal, state: {}", state, e.getCause());
+            return false;
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // not started yet: never runs. Already running: may still save, the spilled records are then saved twice.
+            future.cancel(false);
+            onFailure();
+            log.warn("request-log repository write timed out after {}ms, records spilled to journal, state: {}",
+                    TimeUnit.NANOSECONDS.toMillis(slowCallNanos), state);
+            return false;
+        }
+        onSuccess();
+        return true;
+    }
+
+    private boolean permitCall() {
+        State current = state;
+        if (current == State.CLOSED) {
+            return true;
+        }
+        if (current == State.OPEN && System.nanoTime() - openedAtNanos >= openNanos) {
+            // one trial call, concurrent callers keep spilling.
+            synchronized (this) {
+                if (state == State.OPEN) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state == State.HALF_OPEN) {
+            synchronized (this) {
+                state = State.CLOSED;
+            }
+            log.info("request-log repository recovered, circuit closed");
+        }
+        if (journalPending) {
+            scheduleReplay();
+        }
+    }
+
+    private void onFailure() {
+        if (state == State.HALF_OPEN || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open();
+        }
+    }
+
+    private synchronized void open() {
+        if (state != State.OPEN) {
+            log.warn("request-log repository unhealthy, circuit opened for {}ms", TimeUnit.NANOSECONDS.toMillis(openNanos));
+        }
+        openedAtNanos = System.nanoTime();
+        state = State.OPEN;
+    }
+
+
+    private void spill(List<FileRecord> records) {
+        synchronized (journalLock) {
+            try {
+                if (journal == null) {
+                    journalEpoch = journalDirectory.resolve(String.format("%020d", nextEpoch++));
+                    journal = new FileRequestLogRepository(journalEpoch, segmentSize, FsyncPolicy.INTERVAL, 1000);
+                }
+                if (closedSegments + journal.getSegmentCount() > maxSegments) {
+                    droppedCount.add(records.size());
+                    return;
+                }
+                journal.append(records);
+                journalPending = true;
+                spilledCount.add(records.size());
+            } catch (RuntimeException e) {
+                droppedCount.add(records.size());
+                log.error("request-log journal write error, {} records dropped", records.size(), e);
+            }
+        }
+    }
+
+    private void scheduleReplay() {
+        if (replayScheduled.compareAndSet(false, true)) {
+            try {
+                replayExecutor.execute(this::replay);
+            } catch (RuntimeException e) {
+                // shut down.
+                replayScheduled.set(false);
+            }
+        }
+    }
+
+    private void replay() {
+        boolean replayed = false;
+        try {
+            synchronized (journalLock) {
+                journalPending = false;
+                if (journal != null) {
+                    closedSegments += journal.getSegmentCount();
+                    journal.close();
+                    journal = null;
+                    journalEpoch = null;
+                }
+            }
+            for (Path epoch : listEpochs()) {
+                synchronized (journalLock) {
+                    if (epoch.equals(journalEpoch)) {
+                        // circuit opened again meanwhile.
+                        return;
+                    }
+                }
+                if (state != State.CLOSED || !replay(epoch)) {
+                    return;
+                }
+            }
+            replayed = true;
+        } catch (IOException | RuntimeException e) {
+            log.error("request-log journal replay error, directory: {}", journalDirectory, e);
+        } finally {
+            if (!replayed) {
+                // epochs left on disk, replayed on the next successful write.
+                journalPending = true;
+            }
+            replayScheduled.set(false);
+        }
+    }
+
+    /**
+     * Replays one epoch and deletes it.
+     *
+     * @return false if the delegate failed.
+     */
+    private boolean replay(Path epoch) throws IOException {
+        int segments;
+        try (FileRequestLogRepository epochJournal = new FileRequestLogRepository(epoch, segmentSize, FsyncPolicy.NEVER, 0)) {
+            segments = epochJournal.getSegmentCount();
+            List<FileRecord> batch = new ArrayList<>(REPLAY_BATCH_SIZE);
+            Iterator<FileRecord> records = epochJournal.readRecords();
+            while (records.hasNext()) {
+                FileRecord record = records.next();
+                if (!batch.isEmpty() && (batch.size() >= REPLAY_BATCH_SIZE || batch.get(0).getType() != record.getType())) {
+                    if (!replayBatch(batch)) {
+                        return false;
+                    }
+                    batch.clear();
+                }
+                batch.add(record);
+            }
+            if (!batch.isEmpty() && !replayBatch(batch)) {
+                return false;
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(epoch)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(epoch);
+        synchronized (journalLock) {
+            closedSegments -= segments;
+        }
+        return true;
+    }
+
+    private boolean replayBatch(List<FileRecord> batch) {
+        try {
+            switch (batch.get(0).getType()) {
+                case REQUEST_LOG:
+                    List<RequestLog> requestLogs = new ArrayList<>(batch.size());
+                    for (FileRecord record : batch) {
+                        requestLogs.add(record.getRequestLog());
+                    }
+                    delegate.saveRequestLogs(requestLogs);
+                    break;
+                case REQUEST_LOG_AND_RETRY_JOB:
+                    List<Tuple2<RequestLog, RequestRetryJob>> requestLogAndRetryJobs = new ArrayList<>(batch.size());
+                    for (FileRecord record : batch) {
+                        requestLogAndRetryJobs.add(Tuple2.of(record.getRequestLog(), record.getRequestRetryJob()));
+                    }
+                    delegate.saveRequestLogsAndRetryJobs(requestLogAndRetryJobs);
+                    break;
+                case RETRY_JOB:
+                    List<RequestRetryJob> requestRetryJobs = new ArrayList<>(batch.size());
+                    for (FileRecord record : batch) {
+                        requestRetryJobs.add(record.getRequestRetryJob());
+                    }
+                    delegate.saveRequestRetryJobs(requestRetryJobs);
+                    break;
+                case RETRY_LOG:
+                default:
+                    List<RequestRryLog> requestRryLogs = new ArrayList<>(batch.size());
+                    for (FileRecord record : batch) {
+                        requestRryLogs.add(record.getRequestRryLog());
+                    }
+                    delegate.saveRequestRetryLogs(requestRryLogs);
+                    break;
+            }
+        } catch (RuntimeException e) {
+            open();
+            log.warn("request-log journal replay failed, retried once the circuit closes again", e);
+            return false;
+        }
+        replayedCount.add(batch.size());
+        return true;
+    }
+
+
+    private List<Path> listEpochs() throws IOException {
+        List<Path> epochs = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalDirectory, Files::isDirectory)) {
+            for (Path path : stream) {
+                if (path.getFileName().toString().matches("\\d{20}")) {
+                    epochs.add(path);
+                }
+            }
+        }
+        epochs.sort(null);
+        return epochs;
+    }
+
+    private static long epochId(Path epoch) {
+        return Long.parseLong(epoch.getFileName().toString());
+    }
+
+    private static int countSegments(Path epoch) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(epoch, "*.seg")) {
+            int count = 0;
+            for (Path ignored : stream) {
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("read request-log journal error: " + epoch, e);
+        }
+    }
+
+
+    /**
+     * Stops the writers, waits for a running replay, then closes the journal. Records spilled and not yet replayed stay on disk for the next start.
+     */
+    @Override
+    public void close() {
+        // writers stuck on a hung delegate are daemon threads, not waited for.
+        writeExecutor.shutdown();
+        replayExecutor.shutdown();
+        try {
+            replayExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (journalLock) {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+                journalEpoch = null;
+            }
+        }
+    }
+
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Records written to the journal so far.
+     */
+    public long getSpilledCount() {
+        return spilledCount.sum();
+    }
+
+    /**
+     * Records dropped so far, journal full or not writable.
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Records replayed to the delegate so far.
+     */
+    public long getReplayedCount() {
+        return replayedCount.sum();
+    }
+
+
+    public enum State {
+
+        /**
+         * Calls go to the delegate.
+         */
+        CLOSED,
+
+        /**
+         * Writes are spilled to the journal.
+         */
+        OPEN,
+
+        /**
+         * A trial call is in flight, other writes are spilled.
+         */
+        HALF_OPEN,
+
+    }
+
+}
@@ -29,6 +29,16 @@ public class HttpUtils {
             "warning", "x-content-type-options", "x-frame-options", "x-xss-protection"
     ));
 
+    private static final Set<String> BINARY_CONTENT_TYPES = new HashSet<>(Arrays.asList(
+            "application/octet-stream", "application/pdf", "application/zip", "application/gzip", "application/x-gzip",
+            "application/x-tar", "application/x-7z-compressed", "application/x-protobuf", "application/protobuf", "application/grpc",
+            "application/msword", "application/vnd.ms-excel", "application/vnd.ms-powerpoint"
+    ));
+
+    private static final String[] BINARY_CONTENT_TYPE_PREFIXES = {
+            "image/", "audio/", "video/", "font/", "application/vnd.openxmlformats-officedocument."
+    };
+
 
     /**
      * Check if the given HTTP header is automatically generated.
@@ -70,6 +80,27 @@ public class HttpUtils {
     }
 
 
+    /**
+     * Checks if the 'Content-Type' value denotes a binary body, e.g. images, archives or octet streams.
+     */
+    public static boolean isBinaryContentType(String contentType) {
+        if (!StringUtils.hasText(contentType)) {
+            return false;
+        }
+        int end = contentType.indexOf(';');
+        String mimeType = (end < 0 ? contentType : contentType.substring(0, end)).trim().toLowerCase();
+        if (BINARY_CONTENT_TYPES.contains(mimeType)) {
+            return true;
+        }
+        for (String prefix : BINARY_CONTENT_TYPE_PREFIXES) {
+            if (mimeType.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
     /**
      * Checks if the HTTP status code indicates success (2xx range).
      */
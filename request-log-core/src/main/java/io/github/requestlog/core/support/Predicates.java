@@ -1,9 +1,11 @@
 package io.github.requestlog.core.support;
 
+import io.github.requestlog.core.context.LogContext;
 import io.github.requestlog.core.enums.RequestContextType;
 import io.github.requestlog.core.model.HttpRequestContext;
 import org.springframework.util.Assert;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -46,6 +48,27 @@ public class Predicates {
     private static final Map<RequestContextType, Predicate<Exception>> CUSTOM_IGNORE_EXCEPTION_PREDICATE_MAP = Collections.synchronizedMap(new HashMap<>(16));
     private static final Map<RequestContextType, Predicate<HttpRequestContext>> CUSTOM_SUCCESS_HTTP_RESPONSE_PREDICATE_MAP = Collections.synchronizedMap(new HashMap<>(16));
 
+    /**
+     * Whether any custom success http response predicate was registered, global or for a type.
+     */
+    private static volatile boolean customSuccessHttpResponsePredicateRegistered = false;
+
+
+    /**
+     * Custom global slow threshold, successful requests taking longer are logged as slow.
+     */
+    private static volatile Duration CUSTOM_SLOW_THRESHOLD = null;
+
+    /**
+     * Custom slow thresholds by type, override {@link #CUSTOM_SLOW_THRESHOLD}.
+     */
+    private static final Map<RequestContextType, Duration> CUSTOM_SLOW_THRESHOLD_MAP = Collections.synchronizedMap(new HashMap<>(16));
+
+    /**
+     * Whether any slow threshold was registered, global or for a type.
+     */
+    private static volatile boolean slowThresholdRegistered = false;
+
 
     /**
      * Register custom ignore exception predicate.
@@ -82,6 +105,26 @@ public class Predicates {
                 CUSTOM_SUCCESS_HTTP_RESPONSE_PREDICATE_MAP.put(requestContextType, successHttpResponsePredicate);
             }
         }
+        customSuccessHttpResponsePredicateRegistered = true;
+    }
+
+
+    /**
+     * Register slow threshold, requests succeeding but taking longer are logged with {@link io.github.requestlog.core.enums.RequestLogErrorType#SLOW}.
+     *
+     * @param slowThreshold       Positive duration.
+     * @param requestContextTypes The specific type for override, or null if no type restriction.
+     */
+    public static void registerSlowThreshold(Duration slowThreshold, RequestContextType... requestContextTypes) {
+        Assert.isTrue(slowThreshold != null && !slowThreshold.isNegative() && !slowThreshold.isZero(), "slowThreshold must be positive");
+        if (requestContextTypes.length == 0) {
+            CUSTOM_SLOW_THRESHOLD = slowThreshold;
+        } else {
+            for (RequestContextType requestContextType : requestContextTypes) {
+                CUSTOM_SLOW_THRESHOLD_MAP.put(requestContextType, slowThreshold);
+            }
+        }
+        slowThresholdRegistered = true;
     }
 
 
@@ -105,5 +148,34 @@ public class Predicates {
                 .get();
     }
 
+    /**
+     * Get slow threshold by {@link RequestContextType}, multiple candidate order by scope, null if none registered.
+     */
+    public static Duration getSlowThreshold(RequestContextType requestContextType) {
+        if (!slowThresholdRegistered) {
+            return null;
+        }
+        return SupplierChain.of(CUSTOM_SLOW_THRESHOLD_MAP.get(requestContextType))
+                .or(CUSTOM_SLOW_THRESHOLD)
+                .get();
+    }
+
+    /**
+     * Fast path for interceptors, decided from the status code and elapsed time without building a request context.
+     * Returns true if no custom success predicate applies, the status code is 2xx and no slow threshold is exceeded,
+     * i.e. the request is not logged.
+     *
+     * @param elapsedNanos time since the request was sent, until the response arrived.
+     */
+    public static boolean isDefaultSuccess(LogContext logContext, RequestContextType requestContextType, int responseCode, long elapsedNanos) {
+        if (logContext.getSuccessHttpResponsePredicate() != null
+                || customSuccessHttpResponsePredicateRegistered
+                || responseCode < 200 || responseCode >= 300) {
+            return false;
+        }
+        Duration slowThreshold = logContext.getSlowThreshold() != null ? logContext.getSlowThreshold() : getSlowThreshold(requestContextType);
+        return slowThreshold == null || elapsedNanos < slowThreshold.toNanos();
+    }
+
 
 }
@@ -0,0 +1,103 @@
+package io.github.requestlog.core.support.codec;
+
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Reader for bytes written by {@link BinaryWriter}.
+ */
+public class BinaryReader {
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+
+    public BinaryReader(byte[] buffer) {
+        this(buffer, 0, buffer.length);
+    }
+
+    public BinaryReader(byte[] buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+
+    public byte readByte() {
+        checkRemaining(1);
+        return buffer[position++];
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("malformed varint");
+    }
+
+    public long readZigZagLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public Integer readNullableInt() {
+        return readByte() == 0 ? null : (int) readZigZagLong();
+    }
+
+    public Long readNullableLong() {
+        return readByte() == 0 ? null : readZigZagLong();
+    }
+
+    public Boolean readNullableBoolean() {
+        byte b = readByte();
+        return b == 0 ? null : b == 2;
+    }
+
+    public String readString() {
+        long length = readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        int size = (int) (length - 1);
+        checkRemaining(size);
+        String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+        position += size;
+        return value;
+    }
+
+
+    /**
+     * Reader over the next {@code length} bytes, this reader skips past them.
+     */
+    public BinaryReader slice(int length) {
+        checkRemaining(length);
+        BinaryReader slice = new BinaryReader(buffer, position, length);
+        position += length;
+        return slice;
+    }
+
+
+    /**
+     * Fields appended to a format later are only present when bytes remain.
+     */
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+
+    private void checkRemaining(int required) {
+        if (required < 0 || position + required > limit) {
+            throw new IllegalStateException("unexpected end of data");
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package io.github.requestlog.core.support.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * Growable byte array writer for compact binary encoding.
+ *
+ * Integers are written as varints, nullable values are prefixed with a presence marker.
+ */
+public class BinaryWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter() {
+        this(256);
+    }
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+
+    public BinaryWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Unsigned varint, 7 bits per byte.
+     */
+    public BinaryWriter writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Signed varint with zigzag encoding, small negative values stay small.
+     */
+    public BinaryWriter writeZigZagLong(long value) {
+        return writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public BinaryWriter writeNullableInt(Integer value) {
+        if (value == null) {
+            return writeByte(0);
+        }
+        return writeByte(1).writeZigZagLong(value);
+    }
+
+    public BinaryWriter writeNullableLong(Long value) {
+        if (value == null) {
+            return writeByte(0);
+        }
+        return writeByte(1).writeZigZagLong(value);
+    }
+
+    public BinaryWriter writeNullableBoolean(Boolean value) {
+        return writeByte(value == null ? 0 : value ? 2 : 1);
+    }
+
+    /**
+     * UTF-8 bytes prefixed by length + 1, 0 stands for null.
+     */
+    public BinaryWriter writeString(String value) {
+        if (value == null) {
+            return writeVarLong(0);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        return writeBytes(bytes);
+    }
+
+    public BinaryWriter writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        return this;
+    }
+
+    public BinaryWriter writeBytes(BinaryWriter other) {
+        ensureCapacity(other.position);
+        System.arraycopy(other.buffer, 0, buffer, position, other.position);
+        position += other.position;
+        return this;
+    }
+
+
+    public int size() {
+        return position;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+
+    private void ensureCapacity(int required) {
+        if (position + required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + required));
+        }
+    }
+
+}
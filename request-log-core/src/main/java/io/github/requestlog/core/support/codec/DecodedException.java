@@ -0,0 +1,29 @@
+package io.github.requestlog.core.support.codec;
+
+import lombok.Getter;
+
+
+/**
+ * Stand-in for an exception read back from binary storage.
+ * Only the class name and message are kept, stack traces are not persisted.
+ */
+public class DecodedException extends Exception {
+
+    /**
+     * Class name of the original exception.
+     */
+    @Getter
+    private final String className;
+
+    public DecodedException(String className, String message) {
+        super(message, null, false, false);
+        this.className = className;
+    }
+
+    @Override
+    public String toString() {
+        String message = getLocalizedMessage();
+        return message != null ? className + ": " + message : className;
+    }
+
+}
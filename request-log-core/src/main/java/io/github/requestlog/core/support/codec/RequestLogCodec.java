@@ -0,0 +1,363 @@
+package io.github.requestlog.core.support.codec;
+
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RequestLogErrorType;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.enums.RetryWaitStrategy;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Compact binary encoding of {@link RequestLog}, {@link RequestRetryJob} and {@link RequestRryLog}.
+ *
+ * Enums are stored by name, exceptions by class name and message (decoded as {@link DecodedException}).
+ * Fields added later must be appended at the end of each layout, decoders read them only when bytes remain,
+ * so records written by older versions stay readable.
+ */
+public class RequestLogCodec {
+
+    private static final byte ATTR_NULL = 0;
+    private static final byte ATTR_STRING = 1;
+    private static final byte ATTR_INTEGER = 2;
+    private static final byte ATTR_LONG = 3;
+    private static final byte ATTR_BOOLEAN = 4;
+    private static final byte ATTR_DOUBLE = 5;
+
+
+    public static byte[] encode(RequestLog requestLog) {
+        BinaryWriter writer = new BinaryWriter();
+        writeRequestLog(writer, requestLog);
+        return writer.toByteArray();
+    }
+
+    public static RequestLog decodeRequestLog(byte[] bytes) {
+        return readRequestLog(new BinaryReader(bytes));
+    }
+
+    /**
+     * Encodes the retry job together with its {@link RequestRetryJob#getRequestLog()}.
+     */
+    public static byte[] encode(RequestRetryJob requestRetryJob) {
+        BinaryWriter writer = new BinaryWriter();
+        writeRequestRetryJob(writer, requestRetryJob);
+        return writer.toByteArray();
+    }
+
+    public static RequestRetryJob decodeRequestRetryJob(byte[] bytes) {
+        return readRequestRetryJob(new BinaryReader(bytes));
+    }
+
+    public static byte[] encode(RequestRryLog requestRryLog) {
+        BinaryWriter writer = new BinaryWriter();
+        writeRequestRryLog(writer, requestRryLog);
+        return writer.toByteArray();
+    }
+
+    public static RequestRryLog decodeRequestRryLog(byte[] bytes) {
+        return readRequestRryLog(new BinaryReader(bytes));
+    }
+
+
+    // ----- layouts, each nested object is length-prefixed so it can grow independently.
+
+    private static void writeRequestLog(BinaryWriter out, RequestLog requestLog) {
+        if (requestLog == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        BinaryWriter writer = new BinaryWriter();
+        writeEnum(writer, requestLog.getContextType());
+        writeEnum(writer, requestLog.getLogErrorType());
+        writeAttributes(writer, requestLog.getAttributeMap());
+        writeException(writer, requestLog.getException());
+        writeEnum(writer, requestLog.getHttpMethod());
+        writer.writeString(requestLog.getRequestUrl());
+        writer.writeString(requestLog.getRequestPath());
+        writeHeaders(writer, requestLog.getRequestHeaders());
+        writer.writeString(requestLog.getRequestBody());
+        writer.writeNullableInt(requestLog.getResponseCode());
+        writeHeaders(writer, requestLog.getResponseHeaders());
+        writer.writeString(requestLog.getResponseBody());
+        writer.writeNullableLong(requestLog.getId());
+        writer.writeNullableLong(requestLog.getResponseBodyLength());
+        writer.writeNullableBoolean(requestLog.getResponseBodyTruncated());
+        writer.writeNullableLong(requestLog.getDurationNanos());
+        writer.writeNullableInt(requestLog.getOccurrenceCount());
+        writeNested(out, writer);
+    }
+
+    private static RequestLog readRequestLog(BinaryReader in) {
+        BinaryReader reader = readNested(in);
+        if (reader == null) {
+            return null;
+        }
+        RequestLog requestLog = new RequestLog();
+        requestLog.setContextType(readEnum(reader, RequestContextType.class));
+        requestLog.setLogErrorType(readEnum(reader, RequestLogErrorType.class));
+        requestLog.setAttributeMap(readAttributes(reader));
+        requestLog.setException(readException(reader));
+        requestLog.setHttpMethod(readEnum(reader, HttpMethod.class));
+        requestLog.setRequestUrl(reader.readString());
+        requestLog.setRequestPath(reader.readString());
+        requestLog.setRequestHeaders(readHeaders(reader));
+        requestLog.setRequestBody(reader.readString());
+        requestLog.setResponseCode(reader.readNullableInt());
+        requestLog.setResponseHeaders(readHeaders(reader));
+        requestLog.setResponseBody(reader.readString());
+        if (reader.hasRemaining()) {
+            requestLog.setId(reader.readNullableLong());
+        }
+        if (reader.hasRemaining()) {
+            requestLog.setResponseBodyLength(reader.readNullableLong());
+            requestLog.setResponseBodyTruncated(reader.readNullableBoolean());
+        }
+        if (reader.hasRemaining()) {
+            requestLog.setDurationNanos(reader.readNullableLong());
+        }
+        if (reader.hasRemaining()) {
+            requestLog.setOccurrenceCount(reader.readNullableInt());
+        }
+        return requestLog;
+    }
+
+    private static void writeRequestRetryJob(BinaryWriter out, RequestRetryJob requestRetryJob) {
+        if (requestRetryJob == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        BinaryWriter writer = new BinaryWriter();
+        writeRequestLog(writer, requestRetryJob.getRequestLog());
+        writeEnum(writer, requestRetryJob.getRetryWaitStrategy());
+        writer.writeNullableInt(requestRetryJob.getRetryInterval());
+        writer.writeNullableLong(requestRetryJob.getLastExecuteTimeMillis());
+        writer.writeNullableLong(requestRetryJob.getNextExecuteTimeMillis());
+        writer.writeNullableInt(requestRetryJob.getExecuteCount());
+        writer.writeNullableInt(requestRetryJob.getMaxExecuteCount());
+        writer.writeNullableLong(requestRetryJob.getId());
+        writer.writeString(requestRetryJob.getLeaseOwner());
+        writer.writeNullableLong(requestRetryJob.getLeaseExpireTimeMillis());
+        writeNested(out, writer);
+    }
+
+    private static RequestRetryJob readRequestRetryJob(BinaryReader in) {
+        BinaryReader reader = readNested(in);
+        if (reader == null) {
+            return null;
+        }
+        RequestRetryJob requestRetryJob = new RequestRetryJob();
+        requestRetryJob.setRequestLog(readRequestLog(reader));
+        requestRetryJob.setRetryWaitStrategy(readEnum(reader, RetryWaitStrategy.class));
+        requestRetryJob.setRetryInterval(reader.readNullableInt());
+        requestRetryJob.setLastExecuteTimeMillis(reader.readNullableLong());
+        requestRetryJob.setNextExecuteTimeMillis(reader.readNullableLong());
+        requestRetryJob.setExecuteCount(reader.readNullableInt());
+        requestRetryJob.setMaxExecuteCount(reader.readNullableInt());
+        if (reader.hasRemaining()) {
+            requestRetryJob.setId(reader.readNullableLong());
+        }
+        if (reader.hasRemaining()) {
+            requestRetryJob.setLeaseOwner(reader.readString());
+            requestRetryJob.setLeaseExpireTimeMillis(reader.readNullableLong());
+        }
+        return requestRetryJob;
+    }
+
+    private static void writeRequestRryLog(BinaryWriter out, RequestRryLog requestRryLog) {
+        if (requestRryLog == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        BinaryWriter writer = new BinaryWriter();
+        writeRequestLog(writer, requestRryLog.getRequestLog());
+        writeRequestRetryJob(writer, requestRryLog.getRequestRetryJob());
+        writeEnum(writer, requestRryLog.getRetryClientType());
+        writer.writeNullableBoolean(requestRryLog.getSucceed());
+        writer.writeNullableInt(requestRryLog.getExecuteCount());
+        writer.writeNullableLong(requestRryLog.getExecuteTimeMillis());
+        writeException(writer, requestRryLog.getException());
+        writer.writeString(requestRryLog.getRequestUrl());
+        writeHeaders(writer, requestRryLog.getRequestHeaders());
+        writer.writeString(requestRryLog.getRequestBody());
+        writer.writeNullableInt(requestRryLog.getResponseCode());
+        writeHeaders(writer, requestRryLog.getResponseHeaders());
+        writer.writeString(requestRryLog.getResponseBody());
+        writer.writeNullableLong(requestRryLog.getDurationNanos());
+        writeNested(out, writer);
+    }
+
+    private static RequestRryLog readRequestRryLog(BinaryReader in) {
+        BinaryReader reader = readNested(in);
+        if (reader == null) {
+            return null;
+        }
+        RequestRryLog requestRryLog = new RequestRryLog();
+        requestRryLog.setRequestLog(readRequestLog(reader));
+        requestRryLog.setRequestRetryJob(readRequestRetryJob(reader));
+        requestRryLog.setRetryClientType(readEnum(reader, RetryClientType.class));
+        requestRryLog.setSucceed(reader.readNullableBoolean());
+        requestRryLog.setExecuteCount(reader.readNullableInt());
+        requestRryLog.setExecuteTimeMillis(reader.readNullableLong());
+        requestRryLog.setException(readException(reader));
+        requestRryLog.setRequestUrl(reader.readString());
+        requestRryLog.setRequestHeaders(readHeaders(reader));
+        requestRryLog.setRequestBody(reader.readString());
+        requestRryLog.setResponseCode(reader.readNullableInt());
+        requestRryLog.setResponseHeaders(readHeaders(reader));
+        requestRryLog.setResponseBody(reader.readString());
+        if (reader.hasRemaining()) {
+            requestRryLog.setDurationNanos(reader.readNullableLong());
+        }
+        return requestRryLog;
+    }
+
+
+    // ----- field helpers
+
+    private static void writeNested(BinaryWriter out, BinaryWriter nested) {
+        out.writeVarLong(nested.size() + 1L);
+        out.writeBytes(nested);
+    }
+
+    private static BinaryReader readNested(BinaryReader in) {
+        long length = in.readVarLong();
+        if (length == 0) {
+            return null;
+        }
+        return in.slice((int) (length - 1));
+    }
+
+    private static void writeEnum(BinaryWriter writer, Enum<?> value) {
+        writer.writeString(value == null ? null : value.name());
+    }
+
+    private static <E extends Enum<E>> E readEnum(BinaryReader reader, Class<E> enumClass) {
+        String name = reader.readString();
+        return name == null ? null : Enum.valueOf(enumClass, name);
+    }
+
+    private static void writeException(BinaryWriter writer, Exception exception) {
+        if (exception == null) {
+            writer.writeBoolean(false);
+            return;
+        }
+        writer.writeBoolean(true);
+        writer.writeString(exception instanceof DecodedException ? ((DecodedException) exception).getClassName() : exception.getClass().getName());
+        writer.writeString(exception.getMessage());
+    }
+
+    private static Exception readException(BinaryReader reader) {
+        if (!reader.readBoolean()) {
+            return null;
+        }
+        return new DecodedException(reader.readString(), reader.readString());
+    }
+
+    private static void writeHeaders(BinaryWriter writer, Map<String, List<String>> headers) {
+        if (headers == null) {
+            writer.writeVarLong(0);
+            return;
+        }
+        writer.writeVarLong(headers.size() + 1L);
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            writer.writeString(entry.getKey());
+            List<String> values = entry.getValue();
+            writer.writeVarLong(values == null ? 0 : values.size() + 1L);
+            if (values != null) {
+                for (String value : values) {
+                    writer.writeString(value);
+                }
+            }
+        }
+    }
+
+    private static Map<String, List<String>> readHeaders(BinaryReader reader) {
+        long size = reader.readVarLong();
+        if (size == 0) {
+            return null;
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (long i = 1; i < size; i++) {
+            String key = reader.readString();
+            long valueSize = reader.readVarLong();
+            List<String> values = null;
+            if (valueSize > 0) {
+                values = new ArrayList<>((int) (valueSize - 1));
+                for (long j = 1; j < valueSize; j++) {
+                    values.add(reader.readString());
+                }
+            }
+            headers.put(key, values);
+        }
+        return headers;
+    }
+
+    /**
+     * Common scalar types keep their type, other values are stored as {@link String#valueOf(Object)}.
+     */
+    private static void writeAttributes(BinaryWriter writer, Map<String, Object> attributes) {
+        if (attributes == null) {
+            writer.writeVarLong(0);
+            return;
+        }
+        writer.writeVarLong(attributes.size() + 1L);
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            writer.writeString(entry.getKey());
+            Object value = entry.getValue();
+            if (value == null) {
+                writer.writeByte(ATTR_NULL);
+            } else if (value instanceof Integer) {
+                writer.writeByte(ATTR_INTEGER).writeZigZagLong((Integer) value);
+            } else if (value instanceof Long) {
+                writer.writeByte(ATTR_LONG).writeZigZagLong((Long) value);
+            } else if (value instanceof Boolean) {
+                writer.writeByte(ATTR_BOOLEAN).writeBoolean((Boolean) value);
+            } else if (value instanceof Double) {
+                writer.writeByte(ATTR_DOUBLE).writeVarLong(Double.doubleToRawLongBits((Double) value));
+            } else {
+                writer.writeByte(ATTR_STRING).writeString(String.valueOf(value));
+            }
+        }
+    }
+
+    private static Map<String, Object> readAttributes(BinaryReader reader) {
+        long size = reader.readVarLong();
+        if (size == 0) {
+            return null;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (long i = 1; i < size; i++) {
+            String key = reader.readString();
+            byte type = reader.readByte();
+            switch (type) {
+                case ATTR_NULL:
+                    attributes.put(key, null);
+                    break;
+                case ATTR_INTEGER:
+                    attributes.put(key, (int) reader.readZigZagLong());
+                    break;
+                case ATTR_LONG:
+                    attributes.put(key, reader.readZigZagLong());
+                    break;
+                case ATTR_BOOLEAN:
+                    attributes.put(key, reader.readBoolean());
+                    break;
+                case ATTR_DOUBLE:
+                    attributes.put(key, Double.longBitsToDouble(reader.readVarLong()));
+                    break;
+                case ATTR_STRING:
+                default:
+                    attributes.put(key, reader.readString());
+            }
+        }
+        return attributes;
+    }
+
+}
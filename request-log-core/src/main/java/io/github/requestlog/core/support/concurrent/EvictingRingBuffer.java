@@ -0,0 +1,190 @@
+package io.github.requestlog.core.support.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToIntFunction;
+
+
+/**
+ * Bounded, lock-free ring that keeps the most recent elements, evicting the oldest first.
+ *
+ * Capacity is bounded both by element count (rounded up to a power of two) and by the estimated bytes of live elements.
+ * Writers claim a sequence and install their element with a CAS, an element is evicted exactly once,
+ * either by being overwritten one lap later or by the byte limit.
+ * The byte limit is soft: it may be exceeded briefly while a writer has claimed the oldest slot but not yet filled it.
+ * {@link #snapshot()} copies live elements without blocking writers, it is weakly consistent.
+ *
+ * @param <E> element type, null elements are not permitted.
+ */
+public class EvictingRingBuffer<E> {
+
+    private final int mask;
+    private final long maxBytes;
+    private final ToIntFunction<E> sizeEstimator;
+    private final AtomicReferenceArray<Slot<E>> slots;
+
+    /**
+     * Next sequence to be claimed by writers.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Sequences before head were evicted by the byte limit.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+
+    /**
+     * @param maxCount      max number of elements, rounded up to a power of two.
+     * @param maxBytes      max estimated bytes of live elements, {@link Long#MAX_VALUE} for no limit.
+     * @param sizeEstimator estimated bytes of an element.
+     */
+    public EvictingRingBuffer(int maxCount, long maxBytes, ToIntFunction<E> sizeEstimator) {
+        if (maxCount < 2 || maxCount > (1 << 30)) {
+            throw new IllegalArgumentException("maxCount must be between 2 and 2^30");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive");
+        }
+        int size = Integer.highestOneBit(maxCount - 1) << 1;
+        this.mask = size - 1;
+        this.maxBytes = maxBytes;
+        this.sizeEstimator = sizeEstimator;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+
+    /**
+     * Appends the element, evicting the oldest ones when over capacity.
+     */
+    public void add(E element) {
+        if (element == null) {
+            throw new NullPointerException("element can not be null");
+        }
+        long sequence = tail.getAndIncrement();
+        int index = (int) (sequence & mask);
+        Slot<E> slot = new Slot<>(sequence, element, sizeEstimator.applyAsInt(element));
+        for (; ; ) {
+            Slot<E> current = slots.get(index);
+            if (current != null && current.sequence > sequence) {
+                // a writer one lap ahead got here first, this element is already the oldest.
+                evictedCount.incrementAndGet();
+                return;
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                if (current != null) {
+                    bytes.addAndGet(-current.bytes);
+                    evictedCount.incrementAndGet();
+                }
+                break;
+            }
+        }
+        if (bytes.addAndGet(slot.bytes) > maxBytes) {
+            evictOverBytes(sequence);
+        }
+    }
+
+    private void evictOverBytes(long sequence) {
+        while (bytes.get() > maxBytes) {
+            long oldest = Math.max(head.get(), tail.get() - slots.length());
+            if (oldest >= sequence) {
+                // keep the element just added, even if it is larger than maxBytes alone.
+                return;
+            }
+            int index = (int) (oldest & mask);
+            Slot<E> slot = slots.get(index);
+            if (slot == null || slot.sequence < oldest) {
+                // its writer has not installed it yet, the byte limit is soft until then.
+                return;
+            }
+            if (slot.sequence == oldest && slots.compareAndSet(index, slot, null)) {
+                bytes.addAndGet(-slot.bytes);
+                evictedCount.incrementAndGet();
+            }
+            advanceHead(oldest + 1);
+        }
+    }
+
+    private void advanceHead(long newHead) {
+        long current;
+        while ((current = head.get()) < newHead) {
+            if (head.compareAndSet(current, newHead)) {
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Live elements, oldest first.
+     */
+    public List<E> snapshot() {
+        long end = tail.get();
+        long start = Math.max(head.get(), end - slots.length());
+        List<E> elements = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Slot<E> slot = slots.get((int) (sequence & mask));
+            if (slot != null && slot.sequence == sequence) {
+                elements.add(slot.element);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Most recently added live element, null if empty.
+     */
+    public E last() {
+        long end = tail.get();
+        long start = Math.max(head.get(), end - slots.length());
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            Slot<E> slot = slots.get((int) (sequence & mask));
+            if (slot != null && slot.sequence == sequence) {
+                return slot.element;
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Approximate number of live elements.
+     */
+    public int size() {
+        long end = tail.get();
+        long live = end - Math.max(head.get(), end - slots.length());
+        return (int) Math.max(0, live);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+
+    private static final class Slot<E> {
+
+        private final long sequence;
+        private final E element;
+        private final int bytes;
+
+        Slot(long sequence, E element, int bytes) {
+            this.sequence = sequence;
+            this.element = element;
+            this.bytes = bytes;
+        }
+    }
+
+}
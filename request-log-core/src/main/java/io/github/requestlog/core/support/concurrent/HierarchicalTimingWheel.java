@@ -0,0 +1,235 @@
+package io.github.requestlog.core.support.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+
+/**
+ * Hierarchical timing wheel, O(1) to schedule, cancel and expire a task.
+ *
+ * Time is divided into ticks, level 0 has one bucket per tick, each higher level has buckets {@code wheelSize} times wider.
+ * A task is placed on the lowest level whose span covers its delay, and moved down a level (cascaded)
+ * when the clock reaches the start of its bucket. Tasks never expire before their deadline, and at most one tick after it.
+ *
+ * {@link #schedule} is thread-safe and lock-free, tasks are handed over through a queue.
+ * {@link #advanceTo} must be called by a single thread, which also runs the expiry handler.
+ *
+ * @param <T> task type.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Bucket<T>[][] wheels;
+
+    /**
+     * Ticks covered by all levels, tasks further away are parked on the top level and re-placed when reached.
+     */
+    private final long maxSpanTicks;
+
+    private final Consumer<T> expiryHandler;
+
+    private final Queue<Timeout<T>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Last tick processed, only accessed by the advancing thread.
+     */
+    private long currentTick;
+
+
+    /**
+     * @param tickMillis    resolution.
+     * @param wheelSize     buckets per level, rounded up to a power of two.
+     * @param levels        number of levels, the wheel spans {@code tickMillis * wheelSize ^ levels}.
+     * @param startMillis   initial clock.
+     * @param expiryHandler called with expired tasks, on the thread calling {@link #advanceTo}.
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis, Consumer<T> expiryHandler) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("tickMillis, wheelSize and levels must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.bits = Integer.numberOfTrailingZeros(size);
+        if ((long) bits * levels >= 62) {
+            throw new IllegalArgumentException("wheelSize ^ levels too large");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.levels = levels;
+        this.maxSpanTicks = 1L << (bits * levels);
+        this.expiryHandler = expiryHandler;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new Bucket[levels][size];
+        for (int level = 0; level < levels; level++) {
+            for (int i = 0; i < size; i++) {
+                wheels[level][i] = new Bucket<>();
+            }
+        }
+    }
+
+
+    /**
+     * Schedules a task to expire at {@code deadlineMillis}, a deadline already passed expires on the next advance.
+     */
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        // round up, tasks never expire early.
+        Timeout<T> timeout = new Timeout<>(this, task, (deadlineMillis + tickMillis - 1) / tickMillis);
+        size.incrementAndGet();
+        pending.offer(timeout);
+        return timeout;
+    }
+
+
+    /**
+     * Advances the clock, expiring due tasks in deadline order (per tick).
+     */
+    public void advanceTo(long nowMillis) {
+        Timeout<T> timeout;
+        while ((timeout = pending.poll()) != null) {
+            place(timeout);
+        }
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            long tick = ++currentTick;
+            // cascade from the top so tasks land in buckets not yet processed for this tick.
+            for (int level = levels - 1; level > 0; level--) {
+                if ((tick & ((1L << (bits * level)) - 1)) == 0) {
+                    Bucket<T> bucket = wheels[level][(int) ((tick >>> (bits * level)) & mask)];
+                    Timeout<T> node = bucket.clear();
+                    while (node != null) {
+                        Timeout<T> next = node.next;
+                        node.next = null;
+                        place(node);
+                        node = next;
+                    }
+                }
+            }
+            expire(wheels[0][(int) (tick & mask)].clear());
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        if (timeout.state != Timeout.PENDING) {
+            return;
+        }
+        long delta = timeout.deadlineTick - currentTick;
+        if (delta <= 0) {
+            expire(timeout);
+            return;
+        }
+        long placementTick = delta < maxSpanTicks ? timeout.deadlineTick : currentTick + maxSpanTicks - 1;
+        int level = 0;
+        while (level < levels - 1 && (placementTick - currentTick) >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        // a bucket at the current tick of a higher level was already cascaded, use the next lower level.
+        while (level > 0 && (placementTick >>> (bits * level)) == (currentTick >>> (bits * level))) {
+            level--;
+        }
+        wheels[level][(int) ((placementTick >>> (bits * level)) & mask)].add(timeout);
+    }
+
+    private void expire(Timeout<T> node) {
+        while (node != null) {
+            Timeout<T> next = node.next;
+            node.next = null;
+            if (Timeout.STATE.compareAndSet(node, Timeout.PENDING, Timeout.EXPIRED)) {
+                size.decrementAndGet();
+                expiryHandler.accept(node.task);
+            }
+            node = next;
+        }
+    }
+
+
+    /**
+     * Tasks scheduled and not yet expired or cancelled.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout<T> {
+
+        private static final int PENDING = 0;
+        private static final int EXPIRED = 1;
+        private static final int CANCELLED = 2;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HierarchicalTimingWheel<T> timingWheel;
+        private final T task;
+        private final long deadlineTick;
+        private volatile int state = PENDING;
+
+        private Timeout<T> next;
+
+        private Timeout(HierarchicalTimingWheel<T> timingWheel, T task, long deadlineTick) {
+            this.timingWheel = timingWheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        /**
+         * Cancelled tasks stay in their bucket until it is reached, then they are dropped.
+         *
+         * @return false if already expired or cancelled.
+         */
+        public boolean cancel() {
+            if (STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                timingWheel.size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+
+    /**
+     * Intrusive linked list, only touched by the advancing thread.
+     */
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.next = head;
+            head = timeout;
+        }
+
+        Timeout<T> clear() {
+            Timeout<T> first = head;
+            head = null;
+            return first;
+        }
+    }
+
+}
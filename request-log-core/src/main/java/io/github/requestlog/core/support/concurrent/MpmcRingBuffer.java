@@ -0,0 +1,121 @@
+package io.github.requestlog.core.support.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Bounded, lock-free, multi-producer multi-consumer ring buffer.
+ *
+ * Each slot carries a sequence number that tells producers and consumers whether the slot is free or published,
+ * so neither side ever takes a lock. Capacity is rounded up to a power of two.
+ *
+ * @param <E> element type, null elements are not permitted.
+ */
+public class MpmcRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+    private final AtomicLongArray sequences;
+
+    /**
+     * Next position to be claimed by producers.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next position to be claimed by consumers.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+
+    public MpmcRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+
+    /**
+     * Inserts the element if there is free space.
+     *
+     * @return false if the buffer is full.
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("element can not be null");
+        }
+        long position = tail.get();
+        for (; ; ) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer.lazySet(index, element);
+                    // publish: the element store above is visible before the sequence store.
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+
+    /**
+     * Removes and returns the oldest element.
+     *
+     * @return null if the buffer is empty.
+     */
+    public E poll() {
+        long position = head.get();
+        for (; ; ) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    // free the slot for the producer one lap ahead.
+                    sequences.lazySet(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+
+    /**
+     * Approximate number of elements, exact only when there are no concurrent producers or consumers.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+}
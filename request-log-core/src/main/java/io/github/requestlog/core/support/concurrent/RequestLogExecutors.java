@@ -0,0 +1,98 @@
+package io.github.requestlog.core.support.concurrent;
+
+import io.github.requestlog.core.enums.ThreadMode;
+import io.github.requestlog.core.support.Preconditions;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Thread factories and executors for background work, e.g. retry workers and async repository writers.
+ *
+ * Virtual threads are looked up reflectively, the library is compiled for Java 8.
+ * Where they are not available (before JDK 21, or JDK 19/20 without preview), {@link ThreadMode#VIRTUAL} falls back to platform threads.
+ */
+public class RequestLogExecutors {
+
+    /**
+     * {@code Thread.ofVirtual()}, null when virtual threads are not available.
+     */
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Method ofVirtual = null, builderName = null, builderFactory = null, newThreadPerTaskExecutor = null;
+        try {
+            Method method = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            builderName = builder.getMethod("name", String.class, long.class);
+            builderFactory = builder.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            // throws on JDK 19/20 without --enable-preview.
+            builderFactory.invoke(method.invoke(null));
+            ofVirtual = method;
+        } catch (ReflectiveOperationException | RuntimeException ignored) {
+            // platform threads only.
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+    }
+
+
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * {@code threadMode}, or {@link ThreadMode#PLATFORM} if virtual threads are not available.
+     */
+    public static ThreadMode resolve(ThreadMode threadMode) {
+        return threadMode == ThreadMode.VIRTUAL && isVirtualThreadSupported() ? ThreadMode.VIRTUAL : ThreadMode.PLATFORM;
+    }
+
+
+    /**
+     * Threads named {@code name-0}, {@code name-1}, ... Platform threads are daemon, as virtual threads always are.
+     */
+    public static ThreadFactory threadFactory(String name, ThreadMode threadMode) {
+        Preconditions.check(name != null, "name can not be null");
+        if (resolve(threadMode) == ThreadMode.VIRTUAL) {
+            try {
+                return (ThreadFactory) BUILDER_FACTORY.invoke(BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 0L));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("create virtual thread factory error", e);
+            }
+        }
+        AtomicLong index = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * With virtual threads, a new virtual thread per task, unbounded: limit concurrency upstream, e.g. with a {@link io.github.requestlog.core.context.retry.RetryBulkhead}.
+     * Otherwise a fixed pool of {@code platformThreads} daemon threads.
+     */
+    public static ExecutorService newExecutor(String name, ThreadMode threadMode, int platformThreads) {
+        Preconditions.check(platformThreads > 0, "platformThreads must be positive");
+        if (resolve(threadMode) == ThreadMode.VIRTUAL) {
+            try {
+                return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory(name, ThreadMode.VIRTUAL));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("create virtual thread executor error", e);
+            }
+        }
+        return Executors.newFixedThreadPool(platformThreads, threadFactory(name, ThreadMode.PLATFORM));
+    }
+
+}
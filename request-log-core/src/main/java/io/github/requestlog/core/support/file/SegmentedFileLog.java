@@ -0,0 +1,467 @@
+package io.github.requestlog.core.support.file;
+
+import io.github.requestlog.core.enums.FsyncPolicy;
+import io.github.requestlog.core.support.Preconditions;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+
+/**
+ * Append-only log of typed binary entries, stored in rolling memory-mapped segment files.
+ *
+ * <pre>
+ * segment: [magic int][version byte][3 reserved bytes] entry* [0 int]
+ * entry:   [length int][type byte][payload][crc32 int]    length = 1 + payload length, crc32 of type and payload
+ * </pre>
+ *
+ * A zero length marks the end of written data in a segment, segments are preallocated and zero-filled.
+ * On open, the last segment is scanned and writing resumes after its last intact entry, so a torn write is discarded.
+ * Segment files are named by a zero-padded sequence number and read in that order.
+ *
+ * With {@code maxSegments}, the oldest segments are deleted on roll to keep at most that many, dropping their entries.
+ * Without it, segments are never deleted and the caller owns cleanup of the directory.
+ */
+@Slf4j
+public class SegmentedFileLog implements Closeable {
+
+    private static final int MAGIC = 0x524C4F47; // "RLOG"
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int ENTRY_OVERHEAD = 4 + 1 + 4;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+
+    @Getter
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final FsyncPolicy fsyncPolicy;
+
+    private final Object writeLock = new Object();
+    private final Object syncLock = new Object();
+
+    /**
+     * Sequence numbers of all segments, the last one is {@link #active}.
+     */
+    private final List<Long> segmentIds = new ArrayList<>();
+    private volatile Segment active;
+
+    /**
+     * Bytes appended / forced since this log was opened, used for group commit.
+     */
+    private long writtenBytes;
+    private volatile long syncedBytes;
+
+    private final ScheduledExecutorService syncScheduler;
+    private volatile boolean closed;
+
+
+    /**
+     * Segments are never deleted.
+     */
+    public SegmentedFileLog(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) throws IOException {
+        this(directory, segmentSize, 0, fsyncPolicy, fsyncIntervalMillis);
+    }
+
+    /**
+     * @param segmentSize         size of each preallocated segment file in bytes, an entry larger than this gets a segment of its own.
+     * @param maxSegments         segments kept including the active one, the oldest are deleted on roll; 0 keeps every segment.
+     * @param fsyncIntervalMillis interval for {@link FsyncPolicy#INTERVAL}, ignored by other policies.
+     */
+    public SegmentedFileLog(Path directory, int segmentSize, int maxSegments, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis) throws IOException {
+        Preconditions.check(segmentSize > HEADER_SIZE + ENTRY_OVERHEAD + 4, "segmentSize too small");
+        Preconditions.check(maxSegments >= 0, "maxSegments can not be negative");
+        Preconditions.check(fsyncPolicy != null, "fsyncPolicy can not be null");
+        Preconditions.check(fsyncPolicy != FsyncPolicy.INTERVAL || fsyncIntervalMillis > 0, "fsyncIntervalMillis must be positive");
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.fsyncPolicy = fsyncPolicy;
+
+        Files.createDirectories(directory);
+        segmentIds.addAll(listSegmentIds(directory));
+        if (segmentIds.isEmpty()) {
+            active = Segment.create(segmentPath(0), 0, segmentSize);
+            segmentIds.add(0L);
+        } else {
+            long lastId = segmentIds.get(segmentIds.size() - 1);
+            active = Segment.recover(segmentPath(lastId), lastId, segmentSize);
+        }
+
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            syncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "request-log-file-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncScheduler.scheduleWithFixedDelay(this::syncQuietly, fsyncIntervalMillis, fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            syncScheduler = null;
+        }
+    }
+
+
+    /**
+     * Appends one entry.
+     */
+    public void append(byte type, byte[] payload) throws IOException {
+        append(Collections.singletonList(new Entry(type, payload)));
+    }
+
+    /**
+     * Appends entries contiguously, with a single force under {@link FsyncPolicy#EVERY_WRITE}.
+     */
+    public void append(List<Entry> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        long position;
+        synchronized (writeLock) {
+            Preconditions.check(!closed, "file log is closed", IllegalStateException::new);
+            for (Entry entry : entries) {
+                int entrySize = ENTRY_OVERHEAD + entry.payload.length;
+                // keep room for the trailing zero length marker.
+                if (active.buffer.remaining() < entrySize + 4) {
+                    roll(entrySize + 4);
+                }
+                active.write(entry);
+                writtenBytes += entrySize;
+            }
+            position = writtenBytes;
+        }
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+            sync(position);
+        }
+    }
+
+
+    /**
+     * Forces everything appended so far.
+     */
+    public void sync() {
+        long position;
+        synchronized (writeLock) {
+            position = writtenBytes;
+        }
+        sync(position);
+    }
+
+    /**
+     * Group commit: the first writer to get here forces for everyone appended before it.
+     */
+    private void sync(long position) {
+        if (syncedBytes >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedBytes >= position) {
+                return;
+            }
+            Segment segment;
+            long upTo;
+            synchronized (writeLock) {
+                segment = active;
+                upTo = writtenBytes;
+            }
+            // earlier segments were forced when rolled.
+            segment.buffer.force();
+            syncedBytes = upTo;
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (Exception e) {
+            log.error("request-log file fsync error, directory: {}", directory, e);
+        }
+    }
+
+
+    private void roll(int minSize) throws IOException {
+        active.buffer.force();
+        // the mapping stays valid after its channel is closed.
+        active.close();
+        long nextId = active.id + 1;
+        active = Segment.create(segmentPath(nextId), nextId, Math.max(segmentSize, HEADER_SIZE + minSize));
+        segmentIds.add(nextId);
+        while (maxSegments > 0 && segmentIds.size() > maxSegments) {
+            Path oldest = segmentPath(segmentIds.get(0));
+            try {
+                // readers skip a segment deleted under them.
+                Files.deleteIfExists(oldest);
+            } catch (IOException e) {
+                log.warn("delete request-log segment error, retried on next roll: {}", oldest, e);
+                return;
+            }
+            segmentIds.remove(0);
+            log.warn("request-log segment deleted by retention, its entries are dropped: {}", oldest);
+        }
+    }
+
+
+    /**
+     * Iterates entries appended before this call, in append order.
+     * Entries appended afterwards are not visible to the returned iterator.
+     */
+    public Iterator<Entry> read() {
+        List<Long> ids;
+        long activeId;
+        int activeLimit;
+        synchronized (writeLock) {
+            ids = new ArrayList<>(segmentIds);
+            activeId = active.id;
+            activeLimit = active.buffer.position();
+        }
+        return new EntryIterator(ids, activeId, activeLimit);
+    }
+
+
+    /**
+     * Number of segment files, including the active one, at most {@code maxSegments} if set.
+     */
+    public int getSegmentCount() {
+        synchronized (writeLock) {
+            return segmentIds.size();
+        }
+    }
+
+
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (syncScheduler != null) {
+            syncScheduler.shutdown();
+        }
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            active.buffer.force();
+        }
+        active.close();
+    }
+
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private static List<Long> listSegmentIds(Path directory) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    log.warn("ignore unknown file in request-log directory: {}", path);
+                }
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+
+    /**
+     * Reads the entry at the buffer position and advances past it.
+     *
+     * @return null at the end of written data or at the first corrupted entry.
+     */
+    private static Entry readEntry(ByteBuffer buffer) {
+        if (buffer.remaining() < 4) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt();
+        if (length <= 0 || length > buffer.remaining() - 4) {
+            buffer.position(start);
+            return null;
+        }
+        byte type = buffer.get();
+        byte[] payload = new byte[length - 1];
+        buffer.get(payload);
+        int crc = buffer.getInt();
+        if (crc != crc32(type, payload)) {
+            buffer.position(start);
+            return null;
+        }
+        return new Entry(type, payload);
+    }
+
+    private static int crc32(byte type, byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(type);
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+
+
+    /**
+     * A typed binary entry.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final byte type;
+        private final byte[] payload;
+    }
+
+
+    private static class Segment {
+
+        private final long id;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long id, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path path, long id, int size) throws IOException {
+            FileChannel channel = new RandomAccessFile(path.toFile(), "rw").getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) 0);
+            return new Segment(id, channel, buffer);
+        }
+
+        /**
+         * Maps an existing segment and positions it after the last intact entry.
+         */
+        static Segment recover(Path path, long id, int segmentSize) throws IOException {
+            FileChannel channel = new RandomAccessFile(path.toFile(), "rw").getChannel();
+            long size = channel.size();
+            if (size < HEADER_SIZE + 4) {
+                channel.close();
+                log.warn("request-log segment too short, recreating: {}", path);
+                return create(path, id, segmentSize);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                log.warn("request-log segment header corrupted, recreating: {}", path);
+                buffer.position(0);
+                buffer.putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) 0);
+                buffer.putInt(HEADER_SIZE, 0);
+            }
+            buffer.position(HEADER_SIZE);
+            while (readEntry(buffer) != null) {
+                // skip intact entries
+            }
+            if (buffer.remaining() >= 4) {
+                // cut off a torn entry, readers stop here.
+                buffer.putInt(buffer.position(), 0);
+            }
+            return new Segment(id, channel, buffer);
+        }
+
+        void write(Entry entry) {
+            buffer.putInt(entry.payload.length + 1);
+            buffer.put(entry.type);
+            buffer.put(entry.payload);
+            buffer.putInt(crc32(entry.type, entry.payload));
+            // end marker, overwritten by the next entry.
+            buffer.putInt(buffer.position(), 0);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("close request-log segment error", e);
+            }
+        }
+    }
+
+
+    private class EntryIterator implements Iterator<Entry> {
+
+        private final Iterator<Long> ids;
+        private final long activeId;
+        private final int activeLimit;
+
+        private ByteBuffer current;
+        private Entry next;
+
+        EntryIterator(List<Long> ids, long activeId, int activeLimit) {
+            this.ids = ids.iterator();
+            this.activeId = activeId;
+            this.activeLimit = activeLimit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current != null) {
+                    next = readEntry(current);
+                    if (next != null) {
+                        break;
+                    }
+                    current = null;
+                }
+                if (!ids.hasNext()) {
+                    return false;
+                }
+                current = map(ids.next());
+            }
+            return true;
+        }
+
+        @Override
+        public Entry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry entry = next;
+            next = null;
+            return entry;
+        }
+
+        private ByteBuffer map(long id) {
+            try (FileChannel channel = FileChannel.open(segmentPath(id))) {
+                long limit = id == activeId ? activeLimit : channel.size();
+                if (limit < HEADER_SIZE) {
+                    return null;
+                }
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, limit);
+                if (buffer.getInt(0) != MAGIC) {
+                    log.warn("skip request-log segment with corrupted header: {}", id);
+                    return null;
+                }
+                buffer.position(HEADER_SIZE);
+                return buffer;
+            } catch (NoSuchFileException e) {
+                // deleted by retention since read() was called.
+                return null;
+            } catch (IOException e) {
+                throw new IllegalStateException("read request-log segment error: " + id, e);
+            }
+        }
+    }
+
+}
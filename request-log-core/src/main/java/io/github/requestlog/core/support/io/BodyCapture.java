@@ -0,0 +1,102 @@
+package io.github.requestlog.core.support.io;
+
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+
+/**
+ * Records the first {@code maxBytes} of a body passing through, and counts the rest without retaining it.
+ *
+ * Written to by the thread reading the body, read once the body is complete.
+ */
+public class BodyCapture extends OutputStream {
+
+    private final int maxBytes;
+
+    private byte[] bytes;
+    private int size;
+    private long length;
+
+
+    /**
+     * @param maxBytes max bytes retained, not negative.
+     */
+    public BodyCapture(int maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+
+    @Override
+    public void write(int b) {
+        if (size < maxBytes) {
+            ensureCapacity(size + 1);
+            bytes[size++] = (byte) b;
+        }
+        length++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        int retained = Math.min(len, remaining());
+        if (retained > 0) {
+            ensureCapacity(size + retained);
+            System.arraycopy(b, off, bytes, size, retained);
+            size += retained;
+        }
+        length += len;
+    }
+
+    /**
+     * Counts bytes passed through without being written, e.g. after the capture is full.
+     */
+    public void skip(long count) {
+        length += count;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (bytes == null) {
+            bytes = new byte[Math.min(maxBytes, Math.max(capacity, 256))];
+        } else if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.min(maxBytes, Math.max(capacity, bytes.length << 1)));
+        }
+    }
+
+
+    /**
+     * Bytes that will still be retained.
+     */
+    public int remaining() {
+        return maxBytes - size;
+    }
+
+    /**
+     * Bytes retained.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bytes passed through so far, retained or not.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    public boolean isTruncated() {
+        return length > size;
+    }
+
+    public byte[] toByteArray() {
+        return bytes == null ? new byte[0] : Arrays.copyOf(bytes, size);
+    }
+
+    public String toString(Charset charset) {
+        return bytes == null ? "" : new String(bytes, 0, size, charset);
+    }
+
+}
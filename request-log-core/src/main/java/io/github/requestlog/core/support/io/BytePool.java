@@ -0,0 +1,98 @@
+package io.github.requestlog.core.support.io;
+
+import java.util.ArrayDeque;
+
+
+/**
+ * Pool of byte arrays in power-of-two size classes, to capture bodies without allocating a new array per request.
+ *
+ * Arrays larger than the largest class are allocated and dropped as usual.
+ * A released array must no longer be used by the caller, it will be handed out again.
+ */
+public class BytePool {
+
+    /**
+     * Shared pool, classes from 256 bytes to 1 MiB, 32 arrays per class.
+     */
+    public static final BytePool DEFAULT = new BytePool(256, 1 << 20, 32);
+
+
+    private final int minShift;
+    private final int maxShift;
+    private final int maxPerClass;
+    private final ArrayDeque<byte[]>[] classes;
+
+
+    /**
+     * @param minSize     smallest class, rounded up to a power of two.
+     * @param maxSize     largest class, rounded up to a power of two.
+     * @param maxPerClass max arrays kept per class.
+     */
+    @SuppressWarnings("unchecked")
+    public BytePool(int minSize, int maxSize, int maxPerClass) {
+        if (minSize <= 0 || maxSize < minSize || maxSize > 1 << 30 || maxPerClass < 0) {
+            throw new IllegalArgumentException("0 < minSize <= maxSize <= 2^30 and maxPerClass >= 0 required");
+        }
+        this.minShift = shiftFor(minSize);
+        this.maxShift = shiftFor(maxSize);
+        this.maxPerClass = maxPerClass;
+        this.classes = new ArrayDeque[maxShift - minShift + 1];
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = new ArrayDeque<>();
+        }
+    }
+
+    private static int shiftFor(int size) {
+        return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+
+    /**
+     * An array of at least {@code minCapacity} bytes, contents undefined.
+     */
+    public byte[] acquire(int minCapacity) {
+        int shift = Math.max(minShift, shiftFor(minCapacity));
+        if (shift > maxShift) {
+            return new byte[minCapacity];
+        }
+        ArrayDeque<byte[]> pooled = classes[shift - minShift];
+        byte[] array;
+        synchronized (pooled) {
+            array = pooled.pollLast();
+        }
+        return array != null ? array : new byte[1 << shift];
+    }
+
+    /**
+     * Returns an array to the pool, arrays not of a class size or exceeding the class limit are dropped.
+     */
+    public void release(byte[] array) {
+        if (array == null || Integer.bitCount(array.length) != 1) {
+            return;
+        }
+        int shift = Integer.numberOfTrailingZeros(array.length);
+        if (shift < minShift || shift > maxShift) {
+            return;
+        }
+        ArrayDeque<byte[]> pooled = classes[shift - minShift];
+        synchronized (pooled) {
+            if (pooled.size() < maxPerClass) {
+                pooled.addLast(array);
+            }
+        }
+    }
+
+    /**
+     * Arrays currently pooled, over all classes.
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (ArrayDeque<byte[]> pooled : classes) {
+            synchronized (pooled) {
+                count += pooled.size();
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.github.requestlog.core.support.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+
+/**
+ * Passes a body through to the reader, recording its first bytes into a {@link BodyCapture}.
+ *
+ * The completion callback runs once, when the stream is read to the end, fails, or is closed.
+ * A stream closed before the end is read on until the capture is full, so bodies closed unread are still recorded.
+ */
+public class CapturingInputStream extends FilterInputStream {
+
+    private final BodyCapture capture;
+    private final Consumer<CapturingInputStream> onComplete;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private volatile boolean exhausted;
+
+
+    public CapturingInputStream(InputStream in, int maxBytes, Consumer<CapturingInputStream> onComplete) {
+        super(in);
+        this.capture = new BodyCapture(maxBytes);
+        this.onComplete = onComplete;
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        int b;
+        try {
+            b = in.read();
+        } catch (IOException e) {
+            complete();
+            throw e;
+        }
+        if (b == -1) {
+            exhausted = true;
+            complete();
+        } else {
+            capture.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read;
+        try {
+            read = in.read(b, off, len);
+        } catch (IOException e) {
+            complete();
+            throw e;
+        }
+        if (read == -1) {
+            exhausted = true;
+            complete();
+        } else {
+            capture.write(b, off, read);
+        }
+        return read;
+    }
+
+    /**
+     * Skipped bytes are read, so they are counted and captured like any other.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        int read = read(new byte[(int) Math.min(n, 8192)]);
+        return read == -1 ? 0 : read;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!completed.get() && capture.remaining() > 0) {
+                byte[] discard = new byte[Math.min(capture.remaining(), 8192)];
+                while (capture.remaining() > 0 && read(discard, 0, Math.min(capture.remaining(), discard.length)) != -1) {
+                    // read on until the capture is full.
+                }
+            }
+        } catch (IOException ignored) {
+        } finally {
+            try {
+                in.close();
+            } finally {
+                complete();
+            }
+        }
+    }
+
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            onComplete.accept(this);
+        }
+    }
+
+
+    public BodyCapture getCapture() {
+        return capture;
+    }
+
+    /**
+     * Whether the stream was read to the end, only then {@link BodyCapture#getLength()} is the length of the whole body.
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+}
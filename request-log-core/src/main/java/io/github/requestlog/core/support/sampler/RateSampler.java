@@ -0,0 +1,31 @@
+package io.github.requestlog.core.support.sampler;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.support.Preconditions;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * Keeps each request log with a fixed probability.
+ */
+public class RateSampler implements RequestLogSampler {
+
+    @Getter
+    private final double rate;
+
+    /**
+     * @param rate probability to keep a request log, from 0 to 1.
+     */
+    public RateSampler(double rate) {
+        Preconditions.check(rate >= 0 && rate <= 1, "rate must be between 0 and 1");
+        this.rate = rate;
+    }
+
+    @Override
+    public boolean sample(BaseRequestContext requestContext) {
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+}
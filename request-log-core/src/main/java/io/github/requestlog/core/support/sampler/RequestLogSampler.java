@@ -0,0 +1,20 @@
+package io.github.requestlog.core.support.sampler;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+
+
+/**
+ * Decides whether a request decided to be logged is kept, see {@link Samplers}.
+ *
+ * Requests creating a retry job are always kept, samplers are not asked for them.
+ * Called from any thread, implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface RequestLogSampler {
+
+    /**
+     * Returns true to keep the request log, false to drop it.
+     */
+    boolean sample(BaseRequestContext requestContext);
+
+}
@@ -0,0 +1,90 @@
+package io.github.requestlog.core.support.sampler;
+
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.support.SupplierChain;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Global {@link RequestLogSampler}s, and factories for the built-in ones.
+ *
+ * A sampler set on the {@link io.github.requestlog.core.context.LogContext} overrides the global ones.
+ * Samplers keep state, e.g. token buckets, register or share one instance rather than creating one per request.
+ */
+public class Samplers {
+
+
+    /**
+     * Custom global sampler, null keeps every request log.
+     */
+    private static volatile RequestLogSampler CUSTOM_SAMPLER = null;
+
+    /**
+     * Custom samplers by type, override {@link #CUSTOM_SAMPLER}.
+     */
+    private static final Map<RequestContextType, RequestLogSampler> CUSTOM_SAMPLER_MAP = Collections.synchronizedMap(new HashMap<>(16));
+
+    /**
+     * Whether any sampler was registered, global or for a type.
+     */
+    private static volatile boolean samplerRegistered = false;
+
+
+    /**
+     * Register sampler.
+     *
+     * @param sampler             Sampler deciding which request logs are kept.
+     * @param requestContextTypes The specific type for override, or null if no type restriction.
+     */
+    public static void registerSampler(RequestLogSampler sampler, RequestContextType... requestContextTypes) {
+        Assert.notNull(sampler, "sampler can not be null");
+        if (requestContextTypes.length == 0) {
+            CUSTOM_SAMPLER = sampler;
+        } else {
+            for (RequestContextType requestContextType : requestContextTypes) {
+                CUSTOM_SAMPLER_MAP.put(requestContextType, sampler);
+            }
+        }
+        samplerRegistered = true;
+    }
+
+    /**
+     * Get sampler by {@link RequestContextType}, multiple candidate order by scope, null if none registered.
+     */
+    public static RequestLogSampler getSampler(RequestContextType requestContextType) {
+        if (!samplerRegistered) {
+            return null;
+        }
+        return SupplierChain.of(CUSTOM_SAMPLER_MAP.get(requestContextType))
+                .or(CUSTOM_SAMPLER)
+                .get();
+    }
+
+
+    /**
+     * Keeps each request log with probability {@code rate}, see {@link RateSampler}.
+     */
+    public static RequestLogSampler rate(double rate) {
+        return new RateSampler(rate);
+    }
+
+    /**
+     * Keeps up to {@code permitsPerSecond} request logs per endpoint, see {@link TokenBucketSampler}.
+     */
+    public static RequestLogSampler tokenBucketPerEndpoint(double permitsPerSecond, int burst) {
+        return new TokenBucketSampler(permitsPerSecond, burst);
+    }
+
+    /**
+     * Keeps the first {@code firstN} request logs per window, then samples with {@code rateAfter}, see {@link WindowSampler}.
+     */
+    public static RequestLogSampler firstPerWindow(int firstN, Duration window, double rateAfter) {
+        return new WindowSampler(firstN, window, rateAfter);
+    }
+
+}
@@ -0,0 +1,100 @@
+package io.github.requestlog.core.support.sampler;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.support.Preconditions;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Keeps at most a rate of request logs per endpoint, with bursts up to the bucket size.
+ *
+ * An endpoint is the http method and the url without query.
+ * Endpoints beyond {@code maxEndpoints} share one bucket, so urls with ids in the path do not grow the map unbounded.
+ */
+public class TokenBucketSampler implements RequestLogSampler {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private final int maxEndpoints;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket overflowBucket;
+
+
+    /**
+     * @param permitsPerSecond request logs kept per second and endpoint.
+     * @param burst            request logs kept at once after a quiet period.
+     */
+    public TokenBucketSampler(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, 1024);
+    }
+
+    /**
+     * @param maxEndpoints endpoints with their own bucket.
+     */
+    public TokenBucketSampler(double permitsPerSecond, int burst, int maxEndpoints) {
+        this(permitsPerSecond, burst, maxEndpoints, System::nanoTime);
+    }
+
+    TokenBucketSampler(double permitsPerSecond, int burst, int maxEndpoints, LongSupplier nanoClock) {
+        Preconditions.check(permitsPerSecond > 0, "permitsPerSecond must be positive");
+        Preconditions.check(burst > 0, "burst must be positive");
+        Preconditions.check(maxEndpoints > 0, "maxEndpoints must be positive");
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.burst = burst;
+        this.maxEndpoints = maxEndpoints;
+        this.nanoClock = nanoClock;
+        this.overflowBucket = new Bucket(nanoClock.getAsLong());
+    }
+
+
+    @Override
+    public boolean sample(BaseRequestContext requestContext) {
+        String endpoint = endpointOf(requestContext);
+        Bucket bucket = buckets.get(endpoint);
+        if (bucket == null) {
+            bucket = buckets.size() < maxEndpoints ? buckets.computeIfAbsent(endpoint, key -> new Bucket(nanoClock.getAsLong())) : overflowBucket;
+        }
+        return bucket.tryAcquire(nanoClock.getAsLong());
+    }
+
+    private static String endpointOf(BaseRequestContext requestContext) {
+        String url = requestContext.getRequestUrl();
+        int query = url == null ? -1 : url.indexOf('?');
+        return requestContext.getRequestMethod() + " " + (query < 0 ? url : url.substring(0, query));
+    }
+
+    /**
+     * Endpoints with their own bucket.
+     */
+    public int getEndpointCount() {
+        return buckets.size();
+    }
+
+
+    private final class Bucket {
+
+        private double tokens = burst;
+        private long lastRefillNanos;
+
+        private Bucket(long nowNanos) {
+            this.lastRefillNanos = nowNanos;
+        }
+
+        private synchronized boolean tryAcquire(long nowNanos) {
+            tokens = Math.min(burst, tokens + Math.max(0, nowNanos - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = nowNanos;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package io.github.requestlog.core.support.sampler;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.support.Preconditions;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Keeps the first request logs of each time window, then samples the rest at a fixed rate.
+ *
+ * Windows are fixed, not sliding, counted over all requests asking this sampler.
+ */
+public class WindowSampler implements RequestLogSampler {
+
+    private final int firstN;
+    private final long windowNanos;
+    private final RateSampler rateSampler;
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong windowStartNanos;
+    private final AtomicInteger keptInWindow = new AtomicInteger();
+
+
+    /**
+     * @param firstN    request logs kept per window.
+     * @param window    window length.
+     * @param rateAfter probability to keep a request log once {@code firstN} were kept in the window.
+     */
+    public WindowSampler(int firstN, Duration window, double rateAfter) {
+        this(firstN, window, rateAfter, System::nanoTime);
+    }
+
+    WindowSampler(int firstN, Duration window, double rateAfter, LongSupplier nanoClock) {
+        Preconditions.check(firstN >= 0, "firstN must not be negative");
+        Preconditions.check(window != null && !window.isNegative() && !window.isZero(), "window must be positive");
+        this.firstN = firstN;
+        this.windowNanos = window.toNanos();
+        this.rateSampler = new RateSampler(rateAfter);
+        this.nanoClock = nanoClock;
+        this.windowStartNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+
+    @Override
+    public boolean sample(BaseRequestContext requestContext) {
+        long nowNanos = nanoClock.getAsLong();
+        long startNanos = windowStartNanos.get();
+        if (nowNanos - startNanos >= windowNanos && windowStartNanos.compareAndSet(startNanos, nowNanos)) {
+            keptInWindow.set(0);
+        }
+        // stop counting once full, the counter stays bounded however long the window.
+        if (keptInWindow.get() < firstN && keptInWindow.incrementAndGet() <= firstN) {
+            return true;
+        }
+        return rateSampler.sample(requestContext);
+    }
+
+}
@@ -0,0 +1,58 @@
+CREATE TABLE IF NOT EXISTS request_log
+(
+    id                      BIGINT AUTO_INCREMENT PRIMARY KEY,
+    context_type            VARCHAR(32),
+    log_error_type          VARCHAR(32),
+    attributes              MEDIUMTEXT,
+    exception_class         VARCHAR(255),
+    exception_message       MEDIUMTEXT,
+    http_method             VARCHAR(16),
+    request_url             VARCHAR(2048),
+    request_path            VARCHAR(1024),
+    request_headers         MEDIUMTEXT,
+    request_body            MEDIUMTEXT,
+    response_code           INT,
+    response_headers        MEDIUMTEXT,
+    response_body           MEDIUMTEXT,
+    response_body_length    BIGINT,
+    response_body_truncated BOOLEAN,
+    duration_nanos          BIGINT,
+    occurrence_count        INT
+);
+
+CREATE TABLE IF NOT EXISTS request_retry_job
+(
+    id                       BIGINT AUTO_INCREMENT PRIMARY KEY,
+    request_log_id           BIGINT NOT NULL,
+    retry_wait_strategy      VARCHAR(32),
+    retry_interval           INT,
+    last_execute_time_millis BIGINT,
+    next_execute_time_millis BIGINT,
+    execute_count            INT,
+    max_execute_count        INT,
+    lease_owner              VARCHAR(64),
+    lease_expire_time_millis BIGINT
+);
+
+CREATE INDEX idx_request_retry_job_due ON request_retry_job (next_execute_time_millis, execute_count);
+CREATE INDEX idx_request_retry_job_lease ON request_retry_job (lease_owner);
+
+CREATE TABLE IF NOT EXISTS request_retry_log
+(
+    id                   BIGINT AUTO_INCREMENT PRIMARY KEY,
+    request_log_id       BIGINT,
+    request_retry_job_id BIGINT,
+    retry_client_type    VARCHAR(32),
+    succeed              BOOLEAN,
+    execute_count        INT,
+    execute_time_millis  BIGINT,
+    exception_class      VARCHAR(255),
+    exception_message    MEDIUMTEXT,
+    request_url          VARCHAR(2048),
+    request_headers      MEDIUMTEXT,
+    request_body         MEDIUMTEXT,
+    response_code        INT,
+    response_headers     MEDIUMTEXT,
+    response_body        MEDIUMTEXT,
+    duration_nanos       BIGINT
+);
@@ -0,0 +1,69 @@
+package io.github.requestlog.core.context.request;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.model.LazyRequestLog;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.support.TestRequestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class LazyRequestLogTests {
+
+
+    @DisplayName("Test the success predicate reads only the fields it uses")
+    @Test
+    public void testPredicateReadsOnDemand() {
+
+        CountingRequestContext context = new CountingRequestContext(LogContext.log(), 500);
+        assert context.logRequest();
+        assert context.responseBodyReads.get() == 0;
+
+        CountingRequestContext bodyContext = new CountingRequestContext(LogContext.log()
+                .successWhenResponse(ctx -> ctx.getResponseBody().contains("ok") && ctx.getResponseBody().contains("code")), 200);
+        assert bodyContext.logRequest();
+        assert bodyContext.responseBodyReads.get() == 1;
+    }
+
+
+    @DisplayName("Test the body bytes are decoded on first read of the request log")
+    @Test
+    public void testDeferredBody() {
+
+        CountingRequestContext context = new CountingRequestContext(LogContext.log(), 500);
+        RequestLog requestLog = context.buildRequestLog();
+
+        assert requestLog instanceof LazyRequestLog;
+        assert ((LazyRequestLog) requestLog).isBodyDeferred();
+        assert context.responseBodyReads.get() == 0;
+
+        assert "{\"code\":500}".equals(requestLog.getResponseBody());
+        assert !((LazyRequestLog) requestLog).isBodyDeferred();
+        assert context.responseBodyReads.get() == 0;
+    }
+
+
+    private static class CountingRequestContext extends TestRequestContext {
+
+        private final AtomicInteger responseBodyReads = new AtomicInteger();
+
+        CountingRequestContext(LogContext logContext, Integer responseCode) {
+            super(logContext, "http://localhost/lazy", responseCode, "{\"code\":" + responseCode + "}");
+        }
+
+        @Override
+        public String getResponseBody() {
+            responseBodyReads.incrementAndGet();
+            return super.getResponseBody();
+        }
+
+        @Override
+        public byte[] getResponseBodyBytes() {
+            return super.getResponseBody().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package io.github.requestlog.core.context.request;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RequestLogErrorType;
+import io.github.requestlog.core.support.Predicates;
+import io.github.requestlog.core.support.TestRequestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+
+public class SlowRequestTests {
+
+
+    private static final String URL = "http://localhost/slow";
+
+
+    @DisplayName("Test successful requests over the threshold are logged as slow, without retry job")
+    @Test
+    public void testSlowSuccess() {
+
+        TestRequestContext slow = new TestRequestContext(LogContext.retry().slowThreshold(Duration.ofMillis(100)), URL, 200, "{}");
+        slow.elapsedSince(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(150));
+        assert slow.logRequest();
+        assert !slow.retryRequest();
+        assert slow.buildRequestLog().getLogErrorType() == RequestLogErrorType.SLOW;
+        assert slow.buildRequestLog().getDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(150);
+
+        TestRequestContext fast = new TestRequestContext(LogContext.retry().slowThreshold(Duration.ofMillis(100)), URL, 200, "{}");
+        fast.elapsedSince(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+        assert !fast.logRequest();
+
+        TestRequestContext unmeasured = new TestRequestContext(LogContext.log().slowThreshold(Duration.ofMillis(100)), URL, 200, "{}");
+        assert !unmeasured.logRequest();
+    }
+
+
+    @DisplayName("Test failed responses keep their error type and retry job when slow")
+    @Test
+    public void testSlowFailure() {
+
+        TestRequestContext failed = new TestRequestContext(LogContext.retry().slowThreshold(Duration.ofMillis(100)), URL, 500, "{}");
+        failed.elapsedSince(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(150));
+        assert failed.logRequest();
+        assert failed.retryRequest();
+        assert failed.buildRequestLog().getLogErrorType() == RequestLogErrorType.RESPONSE;
+    }
+
+
+    @DisplayName("Test the fast path steps aside once the slow threshold is exceeded")
+    @Test
+    public void testFastPath() {
+
+        long slowNanos = TimeUnit.MILLISECONDS.toNanos(150);
+        long fastNanos = TimeUnit.MILLISECONDS.toNanos(10);
+
+        LogContext logContext = LogContext.log().slowThreshold(Duration.ofMillis(100));
+        assert Predicates.isDefaultSuccess(logContext, RequestContextType.REST_TEMPLATE, 200, fastNanos);
+        assert !Predicates.isDefaultSuccess(logContext, RequestContextType.REST_TEMPLATE, 200, slowNanos);
+        assert !Predicates.isDefaultSuccess(logContext, RequestContextType.REST_TEMPLATE, 500, fastNanos);
+
+        // registered for one type only, other core tests are not affected.
+        Predicates.registerSlowThreshold(Duration.ofMillis(100), RequestContextType.FEIGN);
+        assert Predicates.getSlowThreshold(RequestContextType.FEIGN).equals(Duration.ofMillis(100));
+        assert Predicates.getSlowThreshold(RequestContextType.REST_TEMPLATE) == null;
+        assert !Predicates.isDefaultSuccess(LogContext.log(), RequestContextType.FEIGN, 200, slowNanos);
+        assert Predicates.isDefaultSuccess(LogContext.log(), RequestContextType.REST_TEMPLATE, 200, slowNanos);
+    }
+
+}
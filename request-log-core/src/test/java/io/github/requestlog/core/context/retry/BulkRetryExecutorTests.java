@@ -0,0 +1,177 @@
+package io.github.requestlog.core.context.retry;
+
+import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.model.HttpRequestContext;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+
+public class BulkRetryExecutorTests {
+
+
+    @DisplayName("Test jobs are retried with bounded parallelism and persisted in batches")
+    @Test
+    public void testRetryJobs() throws Exception {
+
+        RecordingRepository repository = new RecordingRepository();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<BulkRetryReport> progress = new ArrayList<>();
+
+        BulkRetryReport report = new BulkRetryExecutor(repository, retryContext -> CompletableFuture.supplyAsync(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            // odd ids fail, id 999 throws.
+            Long id = retryContext.getRequestRetryJob().getId();
+            if (id == 999) {
+                throw new IllegalStateException("broken");
+            }
+            return new StubRetryClient(retryContext, id % 2 == 0 ? 200 : 500).execute();
+        }, executor))
+                .parallelism(8)
+                .batchSize(100)
+                .onProgress(progress::add, 1)
+                .collectResults(true)
+                .retryJobs(IntStream.range(0, 1000).mapToObj(BulkRetryExecutorTests::retryJob));
+        executor.shutdown();
+
+        assert maxRunning.get() <= 8;
+        assert report.getSubmittedCount() == 1000;
+        assert report.getCompletedCount() == 1000;
+        assert report.getSucceededCount() == 500;
+        assert report.getFailedCount() == 499;
+        assert report.getErrorCount() == 1;
+        assert report.getResults().size() == 999;
+        assert report.getThroughput() > 0;
+
+        assert repository.retryLogs.size() == 999;
+        assert repository.deletedJobs.size() == 500;
+        assert repository.updatedJobs.size() == 499;
+        assert repository.updatedJobs.stream().allMatch(job -> job.getExecuteCount() == 2);
+        assert repository.maxBatch <= 100;
+        // batched, not one call per record.
+        assert repository.calls < 100;
+        assert progress.get(progress.size() - 1) == report;
+    }
+
+
+    @DisplayName("Test request logs without job only save retry logs, persist errors are counted")
+    @Test
+    public void testRetryLogs() {
+
+        RecordingRepository repository = new RecordingRepository();
+        repository.failing = true;
+
+        BulkRetryReport report = new BulkRetryExecutor(repository, retryContext -> CompletableFuture.completedFuture(new StubRetryClient(retryContext, 200).execute()))
+                .retryLogs(Stream.of(requestLog(), requestLog(), requestLog()));
+
+        assert report.getSucceededCount() == 3;
+        assert report.getPersistErrorCount() == 3;
+        assert report.getResults() == null;
+        assert repository.deletedJobs.isEmpty() && repository.updatedJobs.isEmpty();
+    }
+
+
+    private static RequestLog requestLog() {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setHttpMethod(HttpMethod.GET);
+        requestLog.setRequestUrl("http://api.example.com/orders");
+        return requestLog;
+    }
+
+    private static RequestRetryJob retryJob(int id) {
+        RequestRetryJob retryJob = new RecordingRepository().generateNewRetryJob(requestLog());
+        retryJob.setId((long) id);
+        return retryJob;
+    }
+
+
+    /**
+     * Responds with the given code instead of a http request.
+     */
+    private static class StubRetryClient extends RetryClient<Void> {
+
+        private final int responseCode;
+
+        StubRetryClient(RetryContext retryContext, int responseCode) {
+            super(retryContext);
+            this.responseCode = responseCode;
+        }
+
+        @Override
+        protected RetryResult doExecute() {
+            HttpRequestContext requestContext = new HttpRequestContext();
+            requestContext.setRequestUrl(retryContext.buildRequestUrl());
+            requestContext.setResponseCode(responseCode);
+            return new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, requestContext);
+        }
+    }
+
+
+    private static class RecordingRepository implements IRequestLogRepository {
+
+        private final List<RequestRryLog> retryLogs = new ArrayList<>();
+        private final List<RequestRetryJob> deletedJobs = new ArrayList<>();
+        private final List<RequestRetryJob> updatedJobs = new ArrayList<>();
+        private int calls;
+        private int maxBatch;
+        private boolean failing;
+
+        private void record(List<?> batch) {
+            if (failing) {
+                throw new IllegalStateException("repository down");
+            }
+            calls++;
+            maxBatch = Math.max(maxBatch, batch.size());
+        }
+
+        @Override
+        public void saveRequestLog(RequestLog requestLog) {
+        }
+
+        @Override
+        public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+        }
+
+        @Override
+        public void saveRequestRetryLogs(List<RequestRryLog> requestRryLogs) {
+            record(requestRryLogs);
+            retryLogs.addAll(requestRryLogs);
+        }
+
+        @Override
+        public void updateRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+            record(requestRetryJobs);
+            updatedJobs.addAll(requestRetryJobs);
+        }
+
+        @Override
+        public void deleteRequestRetryJobs(List<RequestRetryJob> requestRetryJobs) {
+            record(requestRetryJobs);
+            deletedJobs.addAll(requestRetryJobs);
+        }
+    }
+
+}
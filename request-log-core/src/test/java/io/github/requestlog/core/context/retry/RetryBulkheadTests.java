@@ -0,0 +1,228 @@
+package io.github.requestlog.core.context.retry;
+
+import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.model.HttpRequestContext;
+import io.github.requestlog.core.model.RequestLog;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class RetryBulkheadTests {
+
+
+    @DisplayName("Test concurrent retries are limited per host")
+    @Test
+    public void testPermitsPerHost() throws Exception {
+        RetryBulkhead bulkhead = new RetryBulkhead(2, Collections.singletonMap("slow.example.com", 1), -1);
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> maxRunning = new ConcurrentHashMap<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<RetryResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            for (String host : new String[]{"api.example.com", "slow.example.com"}) {
+                RetryContext retryContext = RetryContext.create(requestLog("http://" + host + "/" + i)).bulkhead(bulkhead);
+                futures.add(executor.submit(() -> new StubRetryClient(retryContext, () -> {
+                    int current = running.computeIfAbsent(host, k -> new AtomicInteger()).incrementAndGet();
+                    maxRunning.computeIfAbsent(host, k -> new AtomicInteger()).accumulateAndGet(current, Math::max);
+                    await(release);
+                    running.get(host).decrementAndGet();
+                }).execute()));
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((bulkhead.getQueueLength("api.example.com") < 6 || bulkhead.getQueueLength("slow.example.com") < 7) && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assert bulkhead.getQueueLength("api.example.com") == 6 : bulkhead.getQueueLengths();
+        assert bulkhead.getQueueLength("slow.example.com") == 7 : bulkhead.getQueueLengths();
+        assert bulkhead.getAvailablePermits("api.example.com") == 0;
+        assert bulkhead.getAvailablePermits("other.example.com") == 2;
+
+        release.countDown();
+        for (Future<RetryResult> future : futures) {
+            assert future.get(5, TimeUnit.SECONDS).succeed();
+        }
+        executor.shutdown();
+
+        assert maxRunning.get("api.example.com").get() == 2;
+        assert maxRunning.get("slow.example.com").get() == 1;
+        assert bulkhead.getAvailablePermits("api.example.com") == 2;
+        assert bulkhead.getQueueLengths().values().stream().allMatch(length -> length == 0);
+    }
+
+
+    @DisplayName("Test retries are rejected after max wait, and global bulkhead applies when none given")
+    @Test
+    public void testRejectAfterMaxWait() throws Exception {
+        RetryBulkhead bulkhead = new RetryBulkhead(1, Collections.emptyMap(), 50);
+        RetryBulkhead.registerGlobal(bulkhead);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            Future<RetryResult> holder = executor.submit(() -> new StubRetryClient(RetryContext.create(requestLog("http://api.example.com/a")), () -> await(release)).execute());
+            long deadline = System.currentTimeMillis() + 5000;
+            while (bulkhead.getAvailablePermits("api.example.com") > 0 && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+
+            try {
+                new StubRetryClient(RetryContext.create(requestLog("http://api.example.com/b")), () -> {
+                }).execute();
+                assert false : "should be rejected";
+            } catch (RejectedExecutionException e) {
+                assert bulkhead.getRejectedCount() == 1;
+            }
+            // other hosts are not affected.
+            assert new StubRetryClient(RetryContext.create(requestLog("http://other.example.com/c")), () -> {
+            }).execute().succeed();
+
+            release.countDown();
+            assert holder.get(5, TimeUnit.SECONDS).succeed();
+            executor.shutdown();
+            assert bulkhead.getAvailablePermits("api.example.com") == 1;
+        } finally {
+            RetryBulkhead.registerGlobal(null);
+        }
+    }
+
+
+    @DisplayName("Test async retries hold a bulkhead permit until complete, with the retry context set on the executor")
+    @Test
+    public void testExecuteAsync() throws Exception {
+        RetryBulkhead bulkhead = new RetryBulkhead(1, Collections.emptyMap(), 0);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // by default, execute() runs on the executor.
+        List<RetryContext> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        RetryContext retryContext = RetryContext.create(requestLog("http://api.example.com/a")).bulkhead(bulkhead);
+        CompletableFuture<RetryResult> blocking = new StubRetryClient(retryContext, () -> {
+            seen.add(RetryContext.THREAD_LOCAL.get());
+            await(release);
+        }).executeAsync(executor);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bulkhead.getAvailablePermits("api.example.com") > 0 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        CompletableFuture<RetryResult> rejected = new StubRetryClient(RetryContext.create(requestLog("http://api.example.com/b")).bulkhead(bulkhead), () -> {
+        }).executeAsync(executor);
+        try {
+            rejected.get(5, TimeUnit.SECONDS);
+            assert false : "should be rejected";
+        } catch (ExecutionException e) {
+            assert e.getCause() instanceof RejectedExecutionException;
+        }
+        release.countDown();
+        assert blocking.get(5, TimeUnit.SECONDS).succeed();
+        assert seen.size() == 1 && seen.get(0) == retryContext;
+        assert RetryContext.THREAD_LOCAL.get() == null;
+
+        // native, the permit is released once the future completes.
+        NativeStubRetryClient nativeClient = new NativeStubRetryClient(RetryContext.create(requestLog("http://api.example.com/c")).bulkhead(bulkhead));
+        CompletableFuture<RetryResult> pending = nativeClient.executeAsync(executor);
+        RetryResult retryResult = nativeClient.response.get(5, TimeUnit.SECONDS);
+        assert bulkhead.getAvailablePermits("api.example.com") == 0;
+        nativeClient.complete(retryResult);
+        assert pending.get(5, TimeUnit.SECONDS).getDurationNanos() != null;
+        assert bulkhead.getAvailablePermits("api.example.com") == 1;
+        executor.shutdown();
+    }
+
+
+    private static RequestLog requestLog(String url) {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setHttpMethod(HttpMethod.GET);
+        requestLog.setRequestUrl(url);
+        return requestLog;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Completes when told to, like a non-blocking http client.
+     */
+    private static class NativeStubRetryClient extends RetryClient<Void> {
+
+        private final CompletableFuture<RetryResult> response = new CompletableFuture<>();
+        private final CompletableFuture<RetryResult> future = new CompletableFuture<>();
+
+        NativeStubRetryClient(RetryContext retryContext) {
+            super(retryContext);
+        }
+
+        void complete(RetryResult retryResult) {
+            future.complete(retryResult);
+        }
+
+        @Override
+        protected RetryResult doExecute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected CompletableFuture<RetryResult> doExecuteAsync(Executor executor) {
+            return executeNative(executor, this::send);
+        }
+
+        private CompletableFuture<RetryResult> send() {
+            HttpRequestContext requestContext = new HttpRequestContext();
+            requestContext.setRequestUrl(retryContext.buildRequestUrl());
+            requestContext.setResponseCode(200);
+            response.complete(new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, requestContext));
+            return future;
+        }
+    }
+
+
+    /**
+     * Runs the given action instead of a http request, always responds 200.
+     */
+    private static class StubRetryClient extends RetryClient<Void> {
+
+        private final Runnable action;
+
+        StubRetryClient(RetryContext retryContext, Runnable action) {
+            super(retryContext);
+            this.action = action;
+        }
+
+        @Override
+        protected RetryResult doExecute() {
+            action.run();
+            HttpRequestContext requestContext = new HttpRequestContext();
+            requestContext.setRequestUrl(retryContext.buildRequestUrl());
+            requestContext.setResponseCode(200);
+            return new RetryResult(RetryClientType.REST_TEMPLATE, beforeDoExecuteTimeMillis, retryContext, requestContext);
+        }
+    }
+
+}
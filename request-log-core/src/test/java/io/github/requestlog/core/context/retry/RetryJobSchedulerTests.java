@@ -0,0 +1,194 @@
+package io.github.requestlog.core.context.retry;
+
+import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.enums.RetryWaitStrategy;
+import io.github.requestlog.core.model.HttpRequestContext;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.repository.impl.JdbcRequestLogRepository;
+import io.github.requestlog.core.support.JdbcTestSupport;
+import io.github.requestlog.core.support.concurrent.HierarchicalTimingWheel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class RetryJobSchedulerTests {
+
+
+    @DisplayName("Test timing wheel expires tasks within one tick after their deadline")
+    @Test
+    public void testTimingWheel() {
+        long start = 1_000_000;
+        long[] expiredAt = new long[200_000];
+        long[] now = {start};
+        HierarchicalTimingWheel<Integer> timingWheel = new HierarchicalTimingWheel<>(10, 64, 4, start, task -> expiredAt[task] = now[0]);
+
+        Random random = new Random(42);
+        long[] deadlines = new long[expiredAt.length];
+        List<HierarchicalTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+        for (int i = 0; i < deadlines.length; i++) {
+            // up to ~3 days, spanning all levels, plus some already due.
+            deadlines[i] = start - 100 + (long) (random.nextDouble() * random.nextDouble() * 300_000_000L);
+            timeouts.add(timingWheel.schedule(i, deadlines[i]));
+        }
+        int cancelled = 0;
+        for (int i = 0; i < deadlines.length; i += 1000) {
+            assert timeouts.get(i).cancel();
+            cancelled++;
+        }
+        assert timingWheel.size() == deadlines.length - cancelled;
+
+        for (now[0] = start; now[0] <= start + 300_000_000L + 20; now[0] += 1000) {
+            timingWheel.advanceTo(now[0]);
+        }
+
+        for (int i = 0; i < deadlines.length; i++) {
+            if (i % 1000 == 0) {
+                assert expiredAt[i] == 0;
+                continue;
+            }
+            assert expiredAt[i] >= deadlines[i] : i;
+            // advanced by 1000ms steps, 10ms tick.
+            assert expiredAt[i] < Math.max(deadlines[i], start) + 1000 + 10 : i;
+        }
+        assert timingWheel.size() == 0 : timingWheel.size();
+    }
+
+
+    @DisplayName("Test due jobs are retried, updated and deleted on success")
+    @Test
+    public void testScheduleDueJobs() throws InterruptedException {
+        JdbcTestSupport jdbc = JdbcTestSupport.createDatabase();
+        JdbcRequestLogRepository repository = new JdbcRequestLogRepository(jdbc.getDataSource());
+
+        long now = System.currentTimeMillis();
+        repository.saveRequestRetryJob(retryJob("http://localhost/ok", now - 1000, 3));
+        repository.saveRequestRetryJob(retryJob("http://localhost/fail", now, 3));
+        repository.saveRequestRetryJob(retryJob("http://localhost/later", now + 60_000, 3));
+
+        // "ok" succeeds, "fail" always responds 500.
+        Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+        ExecutorService workerExecutor = Executors.newFixedThreadPool(4);
+        RetryJobScheduler scheduler = new RetryJobScheduler(repository, retryContext -> {
+            String url = retryContext.getRequestLog().getRequestUrl();
+            executions.computeIfAbsent(url, k -> new AtomicInteger()).incrementAndGet();
+            HttpRequestContext requestContext = new HttpRequestContext();
+            requestContext.setRequestUrl(url);
+            requestContext.setResponseCode(url.endsWith("ok") ? 200 : 500);
+            return new RetryResult(RetryClientType.REST_TEMPLATE, System.currentTimeMillis(), retryContext, requestContext);
+        }, workerExecutor, 10, 50, 100);
+
+        scheduler.start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (jdbc.count("request_retry_log") < 3 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        // give the loader a chance to pick up anything it should not.
+        TimeUnit.MILLISECONDS.sleep(200);
+        scheduler.close();
+        workerExecutor.shutdown();
+        assert workerExecutor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assert executions.get("http://localhost/ok").get() == 1;
+        // executeCount 1 -> 2 -> 3, stops at max.
+        assert executions.get("http://localhost/fail").get() == 2 : executions;
+        assert !executions.containsKey("http://localhost/later");
+        assert jdbc.count("request_retry_log") == 3;
+
+        assert jdbc.count("request_retry_job") == 2;
+        assert repository.findDueRetryJobs(Long.MAX_VALUE, 10).size() == 1;
+    }
+
+
+    @DisplayName("Test nodes sharing a repository execute each job once")
+    @Test
+    public void testMultiNodeClaim() throws InterruptedException {
+        JdbcTestSupport jdbc = JdbcTestSupport.createDatabase();
+        JdbcRequestLogRepository repository = new JdbcRequestLogRepository(jdbc.getDataSource());
+        long now = System.currentTimeMillis();
+        int jobs = 400;
+        for (int i = 0; i < jobs; i++) {
+            repository.saveRequestRetryJob(retryJob("http://localhost/" + i, now - i, 3));
+        }
+
+        Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> executionsByNode = new ConcurrentHashMap<>();
+        ExecutorService workerExecutor = Executors.newFixedThreadPool(8);
+        List<RetryJobScheduler> schedulers = new ArrayList<>();
+        for (int n = 0; n < 4; n++) {
+            String node = "node-" + n;
+            schedulers.add(new RetryJobScheduler(repository, retryContext -> {
+                executions.computeIfAbsent(retryContext.getRequestLog().getRequestUrl(), k -> new AtomicInteger()).incrementAndGet();
+                executionsByNode.computeIfAbsent(node, k -> new AtomicInteger()).incrementAndGet();
+                HttpRequestContext requestContext = new HttpRequestContext();
+                requestContext.setResponseCode(200);
+                return new RetryResult(RetryClientType.REST_TEMPLATE, System.currentTimeMillis(), retryContext, requestContext);
+            }, workerExecutor, 10, 20, 25, node, 1000));
+        }
+
+        schedulers.forEach(RetryJobScheduler::start);
+        long deadline = System.currentTimeMillis() + 20_000;
+        while (jdbc.count("request_retry_job") > 0 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        schedulers.forEach(RetryJobScheduler::close);
+        workerExecutor.shutdown();
+        assert workerExecutor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assert jdbc.count("request_retry_job") == 0;
+        assert executions.size() == jobs;
+        assert executions.values().stream().allMatch(count -> count.get() == 1) : executions;
+        assert executionsByNode.size() > 1 : executionsByNode;
+        assert jdbc.count("request_retry_log") == jobs;
+    }
+
+
+    @DisplayName("Test a job already scheduled is not loaded twice")
+    @Test
+    public void testLoadSkipsScheduledJobs() {
+        JdbcTestSupport jdbc = JdbcTestSupport.createDatabase();
+        JdbcRequestLogRepository repository = new JdbcRequestLogRepository(jdbc.getDataSource());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            repository.saveRequestRetryJob(retryJob("http://localhost/" + i, now + 60_000, 3));
+        }
+
+        RetryJobScheduler scheduler = new RetryJobScheduler(repository, retryContext -> {
+            throw new IllegalStateException("not due");
+        }, Runnable::run, 10, 120_000, 100);
+        scheduler.loadDueJobs(now);
+        scheduler.loadDueJobs(now);
+        assert scheduler.getPendingCount() == 10;
+    }
+
+
+    private static RequestRetryJob retryJob(String url, long nextExecuteTimeMillis, int maxExecuteCount) {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setContextType(RequestContextType.REST_TEMPLATE);
+        requestLog.setHttpMethod(HttpMethod.GET);
+        requestLog.setRequestUrl(url);
+        RequestRetryJob retryJob = new RequestRetryJob();
+        retryJob.setRequestLog(requestLog);
+        retryJob.setRetryWaitStrategy(RetryWaitStrategy.FIXED);
+        retryJob.setRetryInterval(10);
+        retryJob.setLastExecuteTimeMillis(0L);
+        retryJob.setNextExecuteTimeMillis(nextExecuteTimeMillis);
+        retryJob.setExecuteCount(1);
+        retryJob.setMaxExecuteCount(maxExecuteCount);
+        return retryJob;
+    }
+
+}
@@ -0,0 +1,309 @@
+package io.github.requestlog.core.handler;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.enums.OverflowPolicy;
+import io.github.requestlog.core.handler.impl.AsyncRequestLogHandler;
+import io.github.requestlog.core.listener.RequestLogListener;
+import io.github.requestlog.core.listener.RequestLogListeners;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.repository.IRequestLogRepository;
+import io.github.requestlog.core.support.TestRequestContext;
+import io.github.requestlog.core.support.tuples.Tuple2;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+
+@Slf4j
+public class AsyncRequestLogHandlerTests {
+
+
+    @DisplayName("Test every context handled by concurrent producers is persisted once")
+    @Test
+    public void testConcurrentProducers() throws Exception {
+
+        RecordingRepository repository = new RecordingRepository(null);
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository, 64, 2, OverflowPolicy.BLOCK);
+
+        int producers = 8, perProducer = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    handler.handle(TestRequestContext.failed("http://localhost/" + producer + "/" + i));
+                }
+            });
+        }
+        executor.shutdown();
+        assert executor.awaitTermination(30, TimeUnit.SECONDS);
+        handler.shutdown();
+
+        assert repository.urls.size() == producers * perProducer;
+        assert handler.getDroppedCount() == 0;
+    }
+
+
+    @DisplayName("Test contexts handled concurrently with shutdown are all persisted")
+    @Test
+    public void testHandleDuringShutdown() throws Exception {
+
+        for (int round = 0; round < 20; round++) {
+            RecordingRepository repository = new RecordingRepository(null);
+            AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository, 64, 1, OverflowPolicy.BLOCK);
+
+            int producers = 4;
+            AtomicBoolean stop = new AtomicBoolean();
+            AtomicInteger handled = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(producers);
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            for (int p = 0; p < producers; p++) {
+                final String prefix = "http://localhost/" + round + "/" + p + "/";
+                executor.execute(() -> {
+                    started.countDown();
+                    for (int i = 0; !stop.get(); i++) {
+                        handler.handle(TestRequestContext.failed(prefix + i));
+                        handled.incrementAndGet();
+                    }
+                });
+            }
+            assert started.await(5, TimeUnit.SECONDS);
+            // producers keep handling while consumers exit and after the final drain.
+            handler.shutdown();
+            stop.set(true);
+            executor.shutdown();
+            assert executor.awaitTermination(30, TimeUnit.SECONDS);
+
+            assert repository.urls.size() == handled.get() : repository.urls.size() + " of " + handled.get();
+            assert handler.getPendingCount() == 0;
+        }
+    }
+
+
+    @DisplayName("Test successful requests never reach the buffer")
+    @Test
+    public void testSkipSucceed() {
+        RecordingRepository repository = new RecordingRepository(null);
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository);
+
+        handler.handle(new TestRequestContext(LogContext.log(), "http://localhost/ok", 200, "{}"));
+        handler.shutdown();
+
+        assert repository.urls.isEmpty();
+    }
+
+
+    @DisplayName("Test DROP_NEWEST keeps the buffered contexts")
+    @Test
+    public void testDropNewest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingRepository repository = new RecordingRepository(release);
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository, 4, 1, OverflowPolicy.DROP_NEWEST);
+
+        // first one is taken by the consumer and blocks it, next four fill the buffer.
+        handler.handle(TestRequestContext.failed("http://localhost/0"));
+        repository.awaitFirstSave();
+        for (int i = 1; i <= 6; i++) {
+            handler.handle(TestRequestContext.failed("http://localhost/" + i));
+        }
+        release.countDown();
+        handler.shutdown();
+
+        assert handler.getDroppedCount() == 2;
+        assert repository.urls.contains("http://localhost/4");
+        assert !repository.urls.contains("http://localhost/6");
+    }
+
+
+    @DisplayName("Test DROP_OLDEST keeps the latest contexts")
+    @Test
+    public void testDropOldest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingRepository repository = new RecordingRepository(release);
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository, 4, 1, OverflowPolicy.DROP_OLDEST);
+
+        AtomicInteger logged = new AtomicInteger();
+        RequestLogListener listener = new RequestLogListener() {
+            @Override
+            public void onLogged(BaseRequestContext requestContext) {
+                logged.incrementAndGet();
+            }
+        };
+        RequestLogListeners.register(listener);
+        try {
+            handler.handle(TestRequestContext.failed("http://localhost/0"));
+            repository.awaitFirstSave();
+            for (int i = 1; i <= 6; i++) {
+                handler.handle(TestRequestContext.failed("http://localhost/" + i));
+            }
+            release.countDown();
+            handler.shutdown();
+        } finally {
+            RequestLogListeners.unregister(listener);
+        }
+
+        assert handler.getDroppedCount() == 2;
+        assert !repository.urls.contains("http://localhost/1");
+        assert repository.urls.contains("http://localhost/6");
+        // dropped contexts are not reported as logged.
+        assert logged.get() == repository.urls.size() : logged.get();
+    }
+
+
+    @DisplayName("Test idle consumers park until a context is handled")
+    @Test
+    public void testIdleConsumers() throws Exception {
+        Set<Thread> before = Thread.getAllStackTraces().keySet();
+        RecordingRepository repository = new RecordingRepository(null);
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository, 64, 2, OverflowPolicy.BLOCK);
+        List<Thread> consumers = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> !before.contains(thread) && thread.getName().startsWith("request-log-async"))
+                .collect(Collectors.toList());
+        assert consumers.size() == 2 : consumers;
+
+        for (int round = 0; round < 3; round++) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!consumers.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+                assert System.currentTimeMillis() < deadline : "consumers not parked";
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+            handler.handle(TestRequestContext.failed("http://localhost/" + round));
+            deadline = System.currentTimeMillis() + 5000;
+            while (repository.urls.size() <= round) {
+                assert System.currentTimeMillis() < deadline : "context not saved";
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+        }
+        handler.shutdown();
+        for (Thread consumer : consumers) {
+            consumer.join(5000);
+            assert !consumer.isAlive();
+        }
+    }
+
+
+    @DisplayName("Test CALLER_RUNS persists on the calling thread when full")
+    @Test
+    public void testCallerRuns() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingRepository repository = new RecordingRepository(release);
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository, 4, 1, OverflowPolicy.CALLER_RUNS);
+
+        handler.handle(TestRequestContext.failed("http://localhost/0"));
+        repository.awaitFirstSave();
+        for (int i = 1; i <= 4; i++) {
+            handler.handle(TestRequestContext.failed("http://localhost/" + i));
+        }
+        // buffer full, the calling thread saves it (the repository only blocks its first caller).
+        handler.handle(TestRequestContext.failed("http://localhost/5"));
+        assert repository.urls.contains("http://localhost/5");
+
+        release.countDown();
+        handler.shutdown();
+        assert repository.urls.size() == 6;
+    }
+
+
+    @DisplayName("Test contexts are flushed in batches, grouped by retry job")
+    @Test
+    public void testBatchFlush() {
+        BatchRecordingRepository repository = new BatchRecordingRepository();
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository, 1024, 1, OverflowPolicy.BLOCK, 50, 200);
+
+        for (int i = 0; i < 120; i++) {
+            handler.handle(TestRequestContext.failed("http://localhost/log/" + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            handler.handle(new TestRequestContext(LogContext.retry(), "http://localhost/retry/" + i, 500, null));
+        }
+        handler.shutdown();
+
+        assert repository.logBatchSizes.stream().mapToInt(Integer::intValue).sum() == 120;
+        assert repository.logBatchSizes.stream().allMatch(size -> size <= 50);
+        // lingering lets the batches fill up instead of flushing each context.
+        assert repository.logBatchSizes.size() < 10;
+        assert repository.retryJobBatchSizes.stream().mapToInt(Integer::intValue).sum() == 10;
+    }
+
+
+    /**
+     * Thread-safe repository recording saved urls, optionally blocking the first save until released.
+     */
+    private static class RecordingRepository implements IRequestLogRepository {
+
+        private final Set<String> urls = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch release;
+        private final CountDownLatch firstSave = new CountDownLatch(1);
+
+        RecordingRepository(CountDownLatch release) {
+            this.release = release;
+        }
+
+        void awaitFirstSave() throws InterruptedException {
+            assert firstSave.await(5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void saveRequestLog(RequestLog requestLog) {
+            if (release != null && firstSave.getCount() > 0) {
+                firstSave.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            urls.add(requestLog.getRequestUrl());
+        }
+
+        @Override
+        public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+            saveRequestLog(requestLog);
+        }
+    }
+
+
+    /**
+     * Repository recording the size of each batch call.
+     */
+    private static class BatchRecordingRepository implements IRequestLogRepository {
+
+        private final List<Integer> logBatchSizes = new CopyOnWriteArrayList<>();
+        private final List<Integer> retryJobBatchSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void saveRequestLog(RequestLog requestLog) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveRequestLogs(List<RequestLog> requestLogs) {
+            logBatchSizes.add(requestLogs.size());
+        }
+
+        @Override
+        public void saveRequestLogsAndRetryJobs(List<Tuple2<RequestLog, RequestRetryJob>> requestLogAndRetryJobs) {
+            retryJobBatchSizes.add(requestLogAndRetryJobs.size());
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package io.github.requestlog.core.handler;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.handler.impl.DefaultRequestLogHandler;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.repository.impl.BoundedInMemoryRequestLogRepository;
+import io.github.requestlog.core.support.TestRequestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+public class RequestLogCoalescerTests {
+
+
+    @DisplayName("Test identical failures are saved as one exemplar and one summary with their count")
+    @Test
+    public void testHandlerCoalescing() {
+
+        BoundedInMemoryRequestLogRepository repository = new BoundedInMemoryRequestLogRepository();
+        DefaultRequestLogHandler handler = new DefaultRequestLogHandler(repository);
+        handler.setCoalescer(new RequestLogCoalescer(Duration.ofMinutes(1)));
+
+        for (int i = 0; i < 100; i++) {
+            handler.handle(new TestRequestContext(LogContext.log(), "http://localhost/users/" + i + "?page=" + i, 500, "{}"));
+        }
+        handler.handle(new TestRequestContext(LogContext.log(), "http://localhost/users/1", 503, "{}"));
+        handler.handle(new TestRequestContext(LogContext.log(), "http://localhost/users/1", new IOException("reset")));
+        for (int i = 0; i < 3; i++) {
+            handler.handle(new TestRequestContext(LogContext.retry(), "http://localhost/users/" + i, 500, "{}"));
+        }
+
+        // exemplar, other status, exception, 3 retries.
+        assert repository.getRequestLogs().size() == 6;
+        assert handler.getCoalescer().getCoalescedCount() == 99;
+
+        handler.flushCoalesced();
+        List<RequestLog> requestLogs = repository.getRequestLogs();
+        assert requestLogs.size() == 7;
+        RequestLog summary = requestLogs.get(6);
+        assert summary.getOccurrenceCount() == 99;
+        assert summary.getRequestUrl().equals(requestLogs.get(0).getRequestUrl());
+        assert requestLogs.get(0).getOccurrenceCount() == null;
+        assert handler.getCoalescer().getWindowCount() == 0;
+    }
+
+
+    @DisplayName("Test elapsed windows are summarized by the timer without further requests")
+    @Test
+    public void testTimerSweep() throws InterruptedException {
+
+        BoundedInMemoryRequestLogRepository repository = new BoundedInMemoryRequestLogRepository();
+        DefaultRequestLogHandler handler = new DefaultRequestLogHandler(repository);
+        handler.setCoalescer(new RequestLogCoalescer(Duration.ofMillis(100)));
+
+        for (int i = 0; i < 3; i++) {
+            handler.handle(failed());
+        }
+        assert repository.getRequestLogs().size() == 1;
+
+        // no request follows the incident, the summary is still saved.
+        long deadline = System.currentTimeMillis() + 5000;
+        while (repository.getRequestLogs().size() < 2) {
+            assert System.currentTimeMillis() < deadline;
+            Thread.sleep(10);
+        }
+        assert repository.getRequestLogs().get(1).getOccurrenceCount() == 2;
+        assert handler.getCoalescer().getWindowCount() == 0;
+
+        // closed: windows are flushed once, the timer no longer sweeps.
+        for (int i = 0; i < 3; i++) {
+            handler.handle(failed());
+        }
+        handler.close();
+        assert repository.getRequestLogs().size() == 4;
+        for (int i = 0; i < 3; i++) {
+            handler.handle(failed());
+        }
+        Thread.sleep(300);
+        assert repository.getRequestLogs().size() == 5;
+        assert handler.getCoalescer().getWindowCount() == 1;
+    }
+
+
+    @DisplayName("Test an elapsed window is summarized and the next request starts a new one")
+    @Test
+    public void testWindowElapsed() {
+
+        RequestLogCoalescer coalescer = new RequestLogCoalescer(Duration.ofSeconds(10));
+        long now = System.nanoTime();
+
+        assert !coalescer.coalesce(failed(), now);
+        assert coalescer.coalesce(failed(), now + TimeUnit.SECONDS.toNanos(1));
+        assert coalescer.coalesce(failed(), now + TimeUnit.SECONDS.toNanos(2));
+        assert coalescer.pollSummary() == null;
+
+        // past the window, a new exemplar is kept and the previous window summarized.
+        assert !coalescer.coalesce(failed(), now + TimeUnit.SECONDS.toNanos(11));
+        BaseRequestContext summary = coalescer.pollSummary();
+        assert summary != null && summary.buildRequestLog().getOccurrenceCount() == 2;
+        assert coalescer.pollSummary() == null;
+
+        // sweeping closes windows without duplicates quietly.
+        coalescer.sweep(now + TimeUnit.SECONDS.toNanos(30));
+        assert coalescer.getWindowCount() == 0;
+        assert coalescer.pollSummary() == null;
+    }
+
+
+    @DisplayName("Test id-like path segments are folded in the fingerprint")
+    @Test
+    public void testUrlTemplate() {
+        assert template("http://localhost:8080/users/123/orders?x=1").equals("http://localhost:8080/users/{}/orders");
+        assert template("http://localhost/items/3f2504e0-4f89-11d3-9a0c-0305e82c3301").equals("http://localhost/items/{}");
+        assert template("http://localhost/v2/cafe").equals("http://localhost/v2/cafe");
+        assert template("http://localhost").equals("http://localhost");
+        assert template("http://localhost/").equals("http://localhost/");
+    }
+
+
+    private static TestRequestContext failed() {
+        TestRequestContext context = TestRequestContext.failed("http://localhost/users/1");
+        assert context.logRequest();
+        return context;
+    }
+
+    private static String template(String url) {
+        StringBuilder builder = new StringBuilder();
+        RequestLogCoalescer.appendUrlTemplate(builder, url);
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,109 @@
+package io.github.requestlog.core.repository;
+
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.repository.impl.BoundedInMemoryRequestLogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+public class BoundedInMemoryRequestLogRepositoryTests {
+
+
+    @DisplayName("Test oldest records are evicted by count")
+    @Test
+    public void testEvictByCount() {
+        BoundedInMemoryRequestLogRepository repository = new BoundedInMemoryRequestLogRepository(8, Long.MAX_VALUE);
+        for (int i = 0; i < 20; i++) {
+            repository.saveRequestLog(requestLog("http://localhost/" + i, 0));
+        }
+
+        List<String> urls = repository.getRequestLogs().stream().map(RequestLog::getRequestUrl).collect(Collectors.toList());
+        assert urls.equals(IntStream.range(12, 20).mapToObj(i -> "http://localhost/" + i).collect(Collectors.toList()));
+        assert repository.getLastRequestLog().getRequestUrl().equals("http://localhost/19");
+        assert repository.getEvictedCount() == 12;
+    }
+
+
+    @DisplayName("Test oldest records are evicted by bytes")
+    @Test
+    public void testEvictByBytes() {
+        // each record is roughly 128 + 2 * 1000 bytes.
+        BoundedInMemoryRequestLogRepository repository = new BoundedInMemoryRequestLogRepository(1024, 10_000);
+        for (int i = 0; i < 20; i++) {
+            repository.saveRequestLog(requestLog("http://localhost/" + i, 1000));
+        }
+
+        List<RequestLog> requestLogs = repository.getRequestLogs();
+        assert requestLogs.size() >= 3 && requestLogs.size() <= 4 : requestLogs.size();
+        assert repository.getLastRequestLog().getRequestUrl().equals("http://localhost/19");
+        assert requestLogs.get(0).getRequestUrl().equals("http://localhost/" + (20 - requestLogs.size()));
+
+        // a record larger than the limit is still kept as the latest.
+        repository.saveRequestLog(requestLog("http://localhost/large", 20_000));
+        assert repository.getRequestLogs().size() == 1;
+    }
+
+
+    @DisplayName("Test concurrent writers and snapshot readers")
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        BoundedInMemoryRequestLogRepository repository = new BoundedInMemoryRequestLogRepository(256, 200_000);
+        int writers = 8, perWriter = 5000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+        CountDownLatch writersDone = new CountDownLatch(writers);
+        AtomicBoolean snapshotsValid = new AtomicBoolean(true);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        for (int r = 0; r < 2; r++) {
+            executor.execute(() -> {
+                while (writersDone.getCount() > 0) {
+                    try {
+                        List<RequestLog> snapshot = repository.getRequestLogs();
+                        if (snapshot.size() > 256 || snapshot.contains(null)) {
+                            snapshotsValid.set(false);
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    }
+                }
+            });
+        }
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            executor.execute(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    repository.saveRequestLog(requestLog("http://localhost/" + writer + "/" + i, i % 100));
+                }
+                writersDone.countDown();
+            });
+        }
+        executor.shutdown();
+        assert executor.awaitTermination(30, TimeUnit.SECONDS);
+
+        assert error.get() == null : error.get();
+        assert snapshotsValid.get();
+        List<RequestLog> requestLogs = repository.getRequestLogs();
+        assert !requestLogs.isEmpty() && requestLogs.size() <= 256;
+        assert requestLogs.size() + repository.getEvictedCount() == (long) writers * perWriter;
+    }
+
+
+    private static RequestLog requestLog(String url, int bodyLength) {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setRequestUrl(url);
+        requestLog.setResponseBody(String.join("", Collections.nCopies(bodyLength, "x")));
+        return requestLog;
+    }
+
+}
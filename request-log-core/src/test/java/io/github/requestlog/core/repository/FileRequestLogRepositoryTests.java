@@ -0,0 +1,254 @@
+package io.github.requestlog.core.repository;
+
+import io.github.requestlog.core.enums.FsyncPolicy;
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RequestLogErrorType;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.impl.FileRequestLogRepository;
+import io.github.requestlog.core.repository.impl.FileRequestLogRepository.FileRecord;
+import io.github.requestlog.core.support.codec.DecodedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+public class FileRequestLogRepositoryTests {
+
+
+    @TempDir
+    Path directory;
+
+
+    @DisplayName("Test every record type is read back with its fields")
+    @Test
+    public void testRoundTrip() {
+        try (FileRequestLogRepository repository = new FileRequestLogRepository(directory, 4096, FsyncPolicy.EVERY_WRITE, 0)) {
+            RequestLog requestLog = requestLog("http://localhost/round-trip");
+            RequestRetryJob retryJob = repository.generateNewRetryJob(requestLog);
+            RequestRryLog retryLog = new RequestRryLog();
+            retryLog.setRequestLog(requestLog);
+            retryLog.setRequestRetryJob(retryJob);
+            retryLog.setRetryClientType(RetryClientType.OK_HTTP);
+            retryLog.setSucceed(false);
+            retryLog.setExecuteCount(2);
+            retryLog.setExecuteTimeMillis(System.currentTimeMillis());
+            retryLog.setResponseCode(503);
+            retryLog.setDurationNanos(42_000_000L);
+            requestLog.setDurationNanos(7_000_000L);
+
+            repository.saveRequestLog(requestLog);
+            repository.saveRequestLogAndRetryJob(requestLog, retryJob);
+            repository.saveRequestRetryLog(retryLog);
+
+            List<FileRecord> records = readAll(repository);
+            assert records.size() == 3;
+
+            RequestLog read = records.get(0).getRequestLog();
+            assert records.get(0).getType() == FileRecord.Type.REQUEST_LOG;
+            assert read.getContextType() == RequestContextType.OK_HTTP;
+            assert read.getLogErrorType() == RequestLogErrorType.EXCEPTION;
+            assert read.getHttpMethod() == HttpMethod.POST;
+            assert read.getRequestUrl().equals(requestLog.getRequestUrl());
+            assert read.getRequestHeaders().equals(requestLog.getRequestHeaders());
+            assert read.getRequestBody().equals(requestLog.getRequestBody());
+            assert read.getResponseCode() == null;
+            assert read.getAttributeMap().equals(requestLog.getAttributeMap());
+            assert read.getException() instanceof DecodedException;
+            assert ((DecodedException) read.getException()).getClassName().equals(IOException.class.getName());
+            assert read.getException().getMessage().equals("connection reset");
+            assert read.getDurationNanos() == 7_000_000L;
+
+            FileRecord jobRecord = records.get(1);
+            assert jobRecord.getType() == FileRecord.Type.REQUEST_LOG_AND_RETRY_JOB;
+            assert jobRecord.getRequestRetryJob().getNextExecuteTimeMillis().equals(retryJob.getNextExecuteTimeMillis());
+            assert jobRecord.getRequestRetryJob().getMaxExecuteCount().equals(retryJob.getMaxExecuteCount());
+            assert jobRecord.getRequestLog().getRequestUrl().equals(requestLog.getRequestUrl());
+
+            RequestRryLog readRetryLog = records.get(2).getRequestRryLog();
+            assert readRetryLog.getRetryClientType() == RetryClientType.OK_HTTP;
+            assert !readRetryLog.getSucceed();
+            assert readRetryLog.getResponseCode() == 503;
+            assert readRetryLog.getDurationNanos() == 42_000_000L;
+            assert readRetryLog.getRequestRetryJob().getRequestLog().getRequestUrl().equals(requestLog.getRequestUrl());
+        }
+    }
+
+
+    @DisplayName("Test records roll over segments and are read back in order")
+    @Test
+    public void testRollSegments() throws IOException {
+        try (FileRequestLogRepository repository = new FileRequestLogRepository(directory, 4096, FsyncPolicy.NEVER, 0)) {
+            List<RequestLog> batch = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                batch.add(requestLog("http://localhost/" + i));
+                if (batch.size() == 50) {
+                    repository.saveRequestLogs(batch);
+                    batch = new ArrayList<>();
+                }
+            }
+            // larger than a segment.
+            RequestLog large = requestLog("http://localhost/large");
+            large.setResponseBody(String.join("", Collections.nCopies(10000, "x")));
+            repository.saveRequestLog(large);
+
+            List<FileRecord> records = readAll(repository);
+            assert records.size() == 301;
+            for (int i = 0; i < 300; i++) {
+                assert records.get(i).getRequestLog().getRequestUrl().equals("http://localhost/" + i);
+            }
+            assert records.get(300).getRequestLog().getResponseBody().length() == 10000;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assert files.count() > 1;
+        }
+    }
+
+
+    @DisplayName("Test the oldest segments are deleted beyond maxSegments, also while reading")
+    @Test
+    public void testMaxSegments() throws IOException {
+        try (FileRequestLogRepository repository = new FileRequestLogRepository(directory, 4096, 3, FsyncPolicy.NEVER, 0)) {
+            repository.saveRequestLog(requestLog("http://localhost/first"));
+            Iterator<FileRecord> reading = repository.readRecords();
+            for (int i = 0; i < 300; i++) {
+                repository.saveRequestLog(requestLog("http://localhost/" + i));
+            }
+            assert repository.getSegmentCount() == 3;
+            try (Stream<Path> files = Files.list(directory)) {
+                assert files.count() == 3;
+            }
+            // the segment it was to read is gone.
+            assert !reading.hasNext();
+
+            List<FileRecord> records = readAll(repository);
+            assert !records.isEmpty() && records.size() < 300;
+            assert records.get(records.size() - 1).getRequestLog().getRequestUrl().equals("http://localhost/299");
+        }
+    }
+
+
+    @DisplayName("Test records survive a restart and writing resumes after them")
+    @Test
+    public void testReopen() {
+        try (FileRequestLogRepository repository = new FileRequestLogRepository(directory, 4096, FsyncPolicy.INTERVAL, 10)) {
+            repository.saveRequestLog(requestLog("http://localhost/1"));
+            repository.saveRequestLog(requestLog("http://localhost/2"));
+        }
+        try (FileRequestLogRepository repository = new FileRequestLogRepository(directory, 4096, FsyncPolicy.INTERVAL, 10)) {
+            repository.saveRequestLog(requestLog("http://localhost/3"));
+            assert urls(repository).equals(Arrays.asList("http://localhost/1", "http://localhost/2", "http://localhost/3"));
+        }
+    }
+
+
+    @DisplayName("Test a torn write is discarded on restart")
+    @Test
+    public void testRecoverTornWrite() throws IOException {
+        Path segment;
+        int tornOffset;
+        try (FileRequestLogRepository repository = new FileRequestLogRepository(directory, 4096, FsyncPolicy.EVERY_WRITE, 0)) {
+            repository.saveRequestLog(requestLog("http://localhost/1"));
+            repository.saveRequestLog(requestLog("http://localhost/2"));
+            try (Stream<Path> files = Files.list(directory)) {
+                segment = files.collect(Collectors.toList()).get(0);
+            }
+            byte[] before = Files.readAllBytes(segment);
+            repository.saveRequestLog(requestLog("http://localhost/3"));
+            byte[] after = Files.readAllBytes(segment);
+            tornOffset = 0;
+            while (before[tornOffset] == after[tornOffset]) {
+                tornOffset++;
+            }
+        }
+        // corrupt the payload of the third record.
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(tornOffset + 12);
+            int b = file.read();
+            file.seek(tornOffset + 12);
+            file.write(b ^ 0xFF);
+        }
+
+        try (FileRequestLogRepository repository = new FileRequestLogRepository(directory, 4096, FsyncPolicy.EVERY_WRITE, 0)) {
+            assert urls(repository).equals(Arrays.asList("http://localhost/1", "http://localhost/2"));
+            repository.saveRequestLog(requestLog("http://localhost/4"));
+            assert urls(repository).equals(Arrays.asList("http://localhost/1", "http://localhost/2", "http://localhost/4"));
+        }
+    }
+
+
+    @DisplayName("Test concurrent writers with group commit")
+    @Test
+    public void testConcurrentWriters() throws InterruptedException {
+        try (FileRequestLogRepository repository = new FileRequestLogRepository(directory, 64 * 1024, FsyncPolicy.EVERY_WRITE, 0)) {
+            int writers = 8, perWriter = 200;
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            for (int w = 0; w < writers; w++) {
+                final int writer = w;
+                executor.execute(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        repository.saveRequestLog(requestLog("http://localhost/" + writer + "/" + i));
+                    }
+                });
+            }
+            executor.shutdown();
+            assert executor.awaitTermination(30, TimeUnit.SECONDS);
+
+            List<String> urls = urls(repository);
+            assert urls.size() == writers * perWriter;
+            assert urls.stream().distinct().count() == writers * perWriter;
+        }
+    }
+
+
+    private static RequestLog requestLog(String url) {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setContextType(RequestContextType.OK_HTTP);
+        requestLog.setLogErrorType(RequestLogErrorType.EXCEPTION);
+        requestLog.setHttpMethod(HttpMethod.POST);
+        requestLog.setRequestUrl(url);
+        requestLog.setRequestPath("/");
+        requestLog.setRequestHeaders(Collections.singletonMap("Content-Type", Collections.singletonList("application/json")));
+        requestLog.setRequestBody("{\"name\":\"请求\"}");
+        requestLog.setException(new IOException("connection reset"));
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("traceId", "abc");
+        attributes.put("tenant", 7);
+        attributes.put("elapsed", 12L);
+        attributes.put("sampled", true);
+        requestLog.setAttributeMap(attributes);
+        return requestLog;
+    }
+
+    private static List<FileRecord> readAll(FileRequestLogRepository repository) {
+        List<FileRecord> records = new ArrayList<>();
+        Iterator<FileRecord> iterator = repository.readRecords();
+        iterator.forEachRemaining(records::add);
+        return records;
+    }
+
+    private static List<String> urls(FileRequestLogRepository repository) {
+        return readAll(repository).stream().map(record -> record.getRequestLog().getRequestUrl()).collect(Collectors.toList());
+    }
+
+}
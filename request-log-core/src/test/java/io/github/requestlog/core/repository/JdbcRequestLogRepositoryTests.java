@@ -0,0 +1,239 @@
+package io.github.requestlog.core.repository;
+
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RequestLogErrorType;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.enums.RetryWaitStrategy;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.model.RequestRryLog;
+import io.github.requestlog.core.repository.impl.JdbcRequestLogRepository;
+import io.github.requestlog.core.support.JdbcTestSupport;
+import io.github.requestlog.core.support.tuples.Tuple2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+
+public class JdbcRequestLogRepositoryTests {
+
+
+    private JdbcTestSupport jdbc;
+    private JdbcRequestLogRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        jdbc = JdbcTestSupport.createDatabase();
+        repository = new JdbcRequestLogRepository(jdbc.getDataSource());
+    }
+
+
+    @DisplayName("Test batch insert assigns generated ids in order")
+    @Test
+    public void testSaveRequestLogs() {
+        List<RequestLog> requestLogs = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requestLogs.add(requestLog("http://localhost/" + i));
+        }
+        repository.saveRequestLogs(requestLogs);
+
+        assert jdbc.count("request_log") == 100;
+        assert requestLogs.stream().map(RequestLog::getId).distinct().count() == 100;
+        for (int i = 1; i < requestLogs.size(); i++) {
+            assert requestLogs.get(i).getId() > requestLogs.get(i - 1).getId();
+        }
+    }
+
+
+    @DisplayName("Test due retry jobs are found in execute time order, with their request log")
+    @Test
+    public void testFindDueRetryJobs() {
+        long now = System.currentTimeMillis();
+        List<Tuple2<RequestLog, RequestRetryJob>> batch = new ArrayList<>();
+        batch.add(Tuple2.of(requestLog("http://localhost/due-2"), retryJob(now - 1000, 1, 3)));
+        batch.add(Tuple2.of(requestLog("http://localhost/future"), retryJob(now + 60_000, 1, 3)));
+        batch.add(Tuple2.of(requestLog("http://localhost/due-1"), retryJob(now - 2000, 2, 3)));
+        batch.add(Tuple2.of(requestLog("http://localhost/exhausted"), retryJob(now - 3000, 3, 3)));
+        batch.add(Tuple2.of(requestLog("http://localhost/due-3"), retryJob(now, 1, 3)));
+        repository.saveRequestLogsAndRetryJobs(batch);
+
+        assert jdbc.count("request_log") == 5;
+        assert jdbc.count("request_retry_job") == 5;
+
+        List<RequestRetryJob> dueJobs = repository.findDueRetryJobs(now, 10);
+        List<String> urls = dueJobs.stream().map(job -> job.getRequestLog().getRequestUrl()).collect(Collectors.toList());
+        assert urls.equals(Arrays.asList("http://localhost/due-1", "http://localhost/due-2", "http://localhost/due-3"));
+
+        RequestRetryJob first = dueJobs.get(0);
+        RequestRetryJob saved = batch.get(2).getT2();
+        assert first.getId().equals(saved.getId());
+        assert first.getRequestLog().getId().equals(batch.get(2).getT1().getId());
+        assert first.getExecuteCount() == 2;
+        assert first.getRetryWaitStrategy() == saved.getRetryWaitStrategy();
+        assert first.getRequestLog().getRequestHeaders().equals(batch.get(2).getT1().getRequestHeaders());
+        assert first.getRequestLog().getAttributeMap().get("traceId").equals("line1\nline2");
+        assert first.getRequestLog().getDurationNanos() == 1_234_567L;
+
+        assert repository.findDueRetryJobs(now, 2).size() == 2;
+    }
+
+
+    @DisplayName("Test due retry jobs are leased by one owner until the lease expires")
+    @Test
+    public void testClaimDueRetryJobs() {
+        long now = System.currentTimeMillis();
+        List<Tuple2<RequestLog, RequestRetryJob>> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(Tuple2.of(requestLog("http://localhost/" + i), retryJob(now - i, 1, 3)));
+        }
+        batch.add(Tuple2.of(requestLog("http://localhost/future"), retryJob(now + 60_000, 1, 3)));
+        repository.saveRequestLogsAndRetryJobs(batch);
+
+        List<RequestRetryJob> claimedByA = repository.claimDueRetryJobs("node-a", now, now, now + 1000, 6);
+        assert claimedByA.size() == 6;
+        assert claimedByA.stream().allMatch(job -> "node-a".equals(job.getLeaseOwner()) && job.getLeaseExpireTimeMillis() == now + 1000);
+        List<RequestRetryJob> claimedByB = repository.claimDueRetryJobs("node-b", now, now, now + 1000, 10);
+        assert claimedByB.size() == 4;
+        assert claimedByB.stream().noneMatch(job -> claimedByA.stream().anyMatch(a -> a.getId().equals(job.getId())));
+        assert repository.claimDueRetryJobs("node-c", now, now + 500, now + 1500, 10).isEmpty();
+
+        // node-a keeps renewing, node-b stops, its leases are taken over once expired.
+        assert repository.renewRetryJobLeases("node-a", now + 500, now + 5000) == 6;
+        List<RequestRetryJob> claimedByC = repository.claimDueRetryJobs("node-c", now, now + 1000, now + 2000, 10);
+        assert claimedByC.size() == 4;
+        assert repository.renewRetryJobLeases("node-b", now + 1000, now + 3000) == 0;
+
+        // jobs already held are returned to their owner again.
+        assert repository.claimDueRetryJobs("node-a", now, now + 1000, now + 6000, 10).size() == 6;
+    }
+
+
+    @DisplayName("Test a claim racing another node skips its rows and still reaches the limit")
+    @Test
+    public void testPartialClaim() {
+        long now = System.currentTimeMillis();
+        List<Tuple2<RequestLog, RequestRetryJob>> batch = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            batch.add(Tuple2.of(requestLog("http://localhost/" + i), retryJob(now - i, 1, 3)));
+        }
+        repository.saveRequestLogsAndRetryJobs(batch);
+
+        // node-b leases half of the candidates after node-a read them, before its first conditional update.
+        AtomicInteger connections = new AtomicInteger();
+        DataSource dataSource = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+            if (method.getName().equals("getConnection") && connections.incrementAndGet() == 2) {
+                jdbc.execute("UPDATE request_retry_job SET lease_owner = 'node-b', lease_expire_time_millis = " + (now + 1000) + " WHERE MOD(id, 2) = 0");
+            }
+            return method.invoke(jdbc.getDataSource(), args);
+        });
+        JdbcRequestLogRepository racingRepository = new JdbcRequestLogRepository(dataSource);
+
+        List<RequestRetryJob> claimedByA = racingRepository.claimDueRetryJobs("node-a", now, now, now + 1000, 5);
+        assert claimedByA.size() == 5;
+        assert claimedByA.stream().map(RequestRetryJob::getId).distinct().count() == 5;
+        assert claimedByA.stream().allMatch(job -> job.getId() % 2 == 1 && "node-a".equals(job.getLeaseOwner()));
+
+        // jobs held from the first claim match the read back too, it stops at the limit.
+        assert repository.claimDueRetryJobs("node-a", now, now, now + 1000, 3).size() == 3;
+        assert repository.claimDueRetryJobs("node-a", now, now, now + 1000, 10).size() == 10;
+    }
+
+
+    @DisplayName("Test sql errors are reported with the failed operation")
+    @Test
+    public void testErrorMessages() {
+        RequestRetryJob retryJob = retryJob(System.currentTimeMillis(), 1, 3);
+        repository.saveRequestLogAndRetryJob(requestLog("http://localhost/error"), retryJob);
+        jdbc.execute("DROP TABLE request_retry_job");
+
+        Map<String, Runnable> operations = new LinkedHashMap<>();
+        operations.put("renew retry job leases error", () -> repository.renewRetryJobLeases("node-a", 0, 1));
+        operations.put("update request retry jobs error", () -> repository.updateRequestRetryJobs(Arrays.asList(retryJob)));
+        operations.put("delete request retry jobs error", () -> repository.deleteRequestRetryJobs(Arrays.asList(retryJob)));
+        operations.forEach((message, operation) -> {
+            try {
+                operation.run();
+                assert false : "should fail: " + message;
+            } catch (IllegalStateException e) {
+                assert message.equals(e.getMessage()) : e.getMessage();
+            }
+        });
+    }
+
+
+    @DisplayName("Test due retry job query is served by the index")
+    @Test
+    public void testDueRetryJobIndex() {
+        String plan = jdbc.explain("SELECT id FROM request_retry_job WHERE next_execute_time_millis <= 1 AND execute_count < max_execute_count ORDER BY next_execute_time_millis");
+        assert plan.toUpperCase().contains("IDX_REQUEST_RETRY_JOB_DUE") : plan;
+    }
+
+
+    @DisplayName("Test retry job and retry log reference saved request log")
+    @Test
+    public void testSaveRetryJobAndLog() {
+        RequestLog requestLog = requestLog("http://localhost/manual");
+        RequestRetryJob retryJob = repository.generateNewRetryJob(requestLog);
+        // request log not saved yet, saved along with the job.
+        repository.saveRequestRetryJob(retryJob);
+        assert requestLog.getId() != null;
+        assert retryJob.getId() != null;
+
+        RequestRryLog retryLog = new RequestRryLog();
+        retryLog.setRequestLog(requestLog);
+        retryLog.setRequestRetryJob(retryJob);
+        retryLog.setRetryClientType(RetryClientType.REST_TEMPLATE);
+        retryLog.setSucceed(true);
+        retryLog.setExecuteCount(2);
+        retryLog.setExecuteTimeMillis(System.currentTimeMillis());
+        retryLog.setResponseCode(200);
+        repository.saveRequestRetryLogs(Arrays.asList(retryLog, retryLog));
+
+        assert jdbc.count("request_log") == 1;
+        assert jdbc.count("request_retry_log") == 2;
+    }
+
+
+    private static RequestLog requestLog(String url) {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setContextType(RequestContextType.FEIGN);
+        requestLog.setLogErrorType(RequestLogErrorType.RESPONSE);
+        requestLog.setHttpMethod(HttpMethod.POST);
+        requestLog.setRequestUrl(url);
+        requestLog.setRequestPath("/");
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Content-Type", Arrays.asList("application/json"));
+        headers.put("X-Multi", Arrays.asList("a", "b"));
+        requestLog.setRequestHeaders(headers);
+        requestLog.setRequestBody("{}");
+        requestLog.setResponseCode(500);
+        requestLog.setDurationNanos(1_234_567L);
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("traceId", "line1\nline2");
+        requestLog.setAttributeMap(attributes);
+        return requestLog;
+    }
+
+    private static RequestRetryJob retryJob(long nextExecuteTimeMillis, int executeCount, int maxExecuteCount) {
+        RequestRetryJob retryJob = new RequestRetryJob();
+        retryJob.setRetryWaitStrategy(RetryWaitStrategy.FIXED);
+        retryJob.setRetryInterval(60);
+        retryJob.setLastExecuteTimeMillis(0L);
+        retryJob.setNextExecuteTimeMillis(nextExecuteTimeMillis);
+        retryJob.setExecuteCount(executeCount);
+        retryJob.setMaxExecuteCount(maxExecuteCount);
+        return retryJob;
+    }
+
+}
@@ -0,0 +1,217 @@
+package io.github.requestlog.core.repository;
+
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RequestLogErrorType;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.model.RequestRetryJob;
+import io.github.requestlog.core.repository.impl.BoundedInMemoryRequestLogRepository;
+import io.github.requestlog.core.repository.impl.ResilientRequestLogRepository;
+import io.github.requestlog.core.repository.impl.ResilientRequestLogRepository.State;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+
+public class ResilientRequestLogRepositoryTests {
+
+
+    @TempDir
+    Path directory;
+
+
+    @DisplayName("Test failures open the circuit, writes spill to the journal and are replayed once the delegate recovers")
+    @Test
+    public void testSpillAndReplay() throws Exception {
+
+        FlakyRepository delegate = new FlakyRepository();
+        delegate.failing = true;
+
+        try (ResilientRequestLogRepository repository = new ResilientRequestLogRepository(delegate, directory, 2, 1000, 200, 4096, 16)) {
+            for (int i = 0; i < 5; i++) {
+                repository.saveRequestLog(requestLog("http://localhost/" + i));
+            }
+            RequestLog retried = requestLog("http://localhost/retry");
+            repository.saveRequestLogAndRetryJob(retried, repository.generateNewRetryJob(retried));
+
+            assert repository.getState() == State.OPEN;
+            assert delegate.calls == 2;
+            assert repository.getSpilledCount() == 6;
+            assert delegate.getRequestLogs().isEmpty();
+
+            // trial call after the open duration.
+            delegate.failing = false;
+            Thread.sleep(300);
+            repository.saveRequestLog(requestLog("http://localhost/trial"));
+            assert repository.getState() == State.CLOSED;
+
+            await(() -> repository.getReplayedCount() == 6);
+            assert delegate.getRequestLogs().size() == 7;
+            assert delegate.getRequestLogs().get(1).getRequestUrl().equals("http://localhost/0");
+            assert delegate.getRequestRetryJobs().size() == 1;
+            assert delegate.getRequestRetryJobs().get(0).getRequestLog().getRequestUrl().equals("http://localhost/retry");
+            await(() -> epochCount() == 0);
+        }
+    }
+
+
+    @DisplayName("Test callers wait at most the slow call threshold on a hung delegate, writes are spilled and open the circuit")
+    @Test
+    public void testHungCalls() {
+
+        FlakyRepository delegate = new FlakyRepository();
+        delegate.hung = new CountDownLatch(1);
+
+        try (ResilientRequestLogRepository repository = new ResilientRequestLogRepository(delegate, directory, 2, 100, 60_000, 4096, 16)) {
+            long startNanos = System.nanoTime();
+            repository.saveRequestLog(requestLog("http://localhost/1"));
+            assert repository.getState() == State.CLOSED;
+            repository.saveRequestLog(requestLog("http://localhost/2"));
+            assert repository.getState() == State.OPEN;
+            repository.saveRequestLog(requestLog("http://localhost/3"));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            // two timed out calls, the third one is spilled without calling the delegate.
+            assert elapsedMillis >= 200 && elapsedMillis < 2000 : elapsedMillis;
+            assert delegate.calls == 2;
+            assert repository.getSpilledCount() == 3;
+            assert delegate.getRequestLogs().isEmpty();
+        } finally {
+            delegate.hung.countDown();
+        }
+    }
+
+
+    @DisplayName("Test the journal is bounded and replayed at the next start")
+    @Test
+    public void testBoundAndRestart() throws Exception {
+
+        FlakyRepository down = new FlakyRepository();
+        down.failing = true;
+
+        long spilled;
+        try (ResilientRequestLogRepository repository = new ResilientRequestLogRepository(down, directory, 1, 1000, 60_000, 4096, 1)) {
+            for (int i = 0; i < 100; i++) {
+                repository.saveRequestLog(requestLog("http://localhost/" + i));
+            }
+            spilled = repository.getSpilledCount();
+            assert spilled > 0;
+            assert repository.getDroppedCount() == 100 - spilled;
+        }
+
+        FlakyRepository up = new FlakyRepository();
+        try (ResilientRequestLogRepository repository = new ResilientRequestLogRepository(up, directory, 1, 1000, 60_000, 4096, 1)) {
+            await(() -> repository.getReplayedCount() == spilled);
+            assert up.getRequestLogs().size() == spilled;
+            assert up.getRequestLogs().get(0).getRequestUrl().equals("http://localhost/0");
+        }
+    }
+
+
+    @DisplayName("Test a failed startup replay is retried once the delegate recovers, without another spill")
+    @Test
+    public void testReplayAfterFailedReplay() throws Exception {
+
+        FlakyRepository down = new FlakyRepository();
+        down.failing = true;
+        try (ResilientRequestLogRepository repository = new ResilientRequestLogRepository(down, directory, 1, 1000, 60_000, 4096, 16)) {
+            for (int i = 0; i < 3; i++) {
+                repository.saveRequestLog(requestLog("http://localhost/" + i));
+            }
+            assert repository.getSpilledCount() == 3;
+        }
+
+        FlakyRepository delegate = new FlakyRepository();
+        delegate.failing = true;
+        try (ResilientRequestLogRepository repository = new ResilientRequestLogRepository(delegate, directory, 1, 1000, 200, 4096, 16)) {
+            // the startup replay fails and opens the circuit.
+            await(() -> repository.getState() == State.OPEN);
+            assert repository.getReplayedCount() == 0;
+
+            delegate.failing = false;
+            Thread.sleep(300);
+            repository.saveRequestLog(requestLog("http://localhost/trial"));
+            assert repository.getState() == State.CLOSED;
+            assert repository.getSpilledCount() == 0;
+
+            await(() -> repository.getReplayedCount() == 3);
+            assert delegate.getRequestLogs().size() == 4;
+            await(() -> epochCount() == 0);
+        }
+    }
+
+
+    private long epochCount() {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assert System.currentTimeMillis() < deadline;
+            Thread.sleep(10);
+        }
+    }
+
+    private static RequestLog requestLog(String url) {
+        RequestLog requestLog = new RequestLog();
+        requestLog.setContextType(RequestContextType.OK_HTTP);
+        requestLog.setLogErrorType(RequestLogErrorType.RESPONSE);
+        requestLog.setHttpMethod(HttpMethod.GET);
+        requestLog.setRequestUrl(url);
+        requestLog.setRequestPath("/");
+        requestLog.setResponseCode(500);
+        return requestLog;
+    }
+
+
+    /**
+     * Fails while {@code failing}, blocks until {@code hung} is released.
+     */
+    private static class FlakyRepository extends BoundedInMemoryRequestLogRepository {
+
+        volatile boolean failing;
+        volatile CountDownLatch hung;
+        volatile int calls;
+
+        private void call() {
+            calls++;
+            if (hung != null) {
+                try {
+                    hung.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("repository hung");
+            }
+            if (failing) {
+                throw new IllegalStateException("repository down");
+            }
+        }
+
+        @Override
+        public void saveRequestLog(RequestLog requestLog) {
+            call();
+            super.saveRequestLog(requestLog);
+        }
+
+        @Override
+        public void saveRequestLogAndRetryJob(RequestLog requestLog, RequestRetryJob requestRetryJob) {
+            call();
+            super.saveRequestLogAndRetryJob(requestLog, requestRetryJob);
+        }
+    }
+
+}
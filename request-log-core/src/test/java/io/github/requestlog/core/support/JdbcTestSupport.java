@@ -0,0 +1,79 @@
+package io.github.requestlog.core.support;
+
+import lombok.Getter;
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+
+/**
+ * Embedded H2 database initialized with 'request-log/schema-h2.sql'.
+ */
+public class JdbcTestSupport {
+
+    @Getter
+    private final DataSource dataSource;
+
+    private JdbcTestSupport(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * A new, isolated in-memory database.
+     */
+    public static JdbcTestSupport createDatabase() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTestSupport support = new JdbcTestSupport(dataSource);
+        try (InputStream inputStream = JdbcTestSupport.class.getClassLoader().getResourceAsStream("request-log/schema-h2.sql")) {
+            String schema = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
+            for (String sql : schema.split(";")) {
+                if (!sql.trim().isEmpty()) {
+                    support.execute(sql);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return support;
+    }
+
+
+    public void execute(String sql) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long count(String table) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String explain(String sql) {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package io.github.requestlog.core.support;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.context.request.OutboundRequestContext;
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * In-memory request context for core tests, no http client involved.
+ */
+public class TestRequestContext extends OutboundRequestContext {
+
+    private final String url;
+    private final Integer responseCode;
+    private final String responseBody;
+
+    public TestRequestContext(LogContext logContext, String url, Integer responseCode, String responseBody) {
+        super(logContext);
+        this.url = url;
+        this.responseCode = responseCode;
+        this.responseBody = responseBody;
+    }
+
+    public TestRequestContext(LogContext logContext, String url, Exception exception) {
+        this(logContext, url, null, null);
+        super.exception = exception;
+    }
+
+    /**
+     * A failed GET request which should be logged.
+     */
+    public static TestRequestContext failed(String url) {
+        return new TestRequestContext(LogContext.log(), url, 500, "{\"code\":500}");
+    }
+
+    @Override
+    public RequestContextType getRequestContextType() {
+        return RequestContextType.REST_TEMPLATE;
+    }
+
+    @Override
+    public HttpMethod getRequestMethod() {
+        return HttpMethod.GET;
+    }
+
+    @Override
+    public String getRequestUrl() {
+        return url;
+    }
+
+    @Override
+    public String getRequestPath() {
+        return URI.create(url).getPath();
+    }
+
+    @Override
+    public Map<String, List<String>> getRequestHeaders() {
+        return Collections.singletonMap("Accept", Collections.singletonList("application/json"));
+    }
+
+    @Override
+    public String getRequestBody() {
+        return null;
+    }
+
+    @Override
+    public Integer getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public Map<String, List<String>> getResponseHeaders() {
+        return Collections.singletonMap("Content-Type", Collections.singletonList("application/json"));
+    }
+
+    @Override
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+}
@@ -0,0 +1,77 @@
+package io.github.requestlog.core.support.concurrent;
+
+import io.github.requestlog.core.enums.OverflowPolicy;
+import io.github.requestlog.core.enums.ThreadMode;
+import io.github.requestlog.core.handler.impl.AsyncRequestLogHandler;
+import io.github.requestlog.core.repository.impl.BoundedInMemoryRequestLogRepository;
+import io.github.requestlog.core.support.TestRequestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+public class RequestLogExecutorsTests {
+
+
+    @DisplayName("Test virtual mode runs blocking tasks concurrently, on virtual threads where available")
+    @Test
+    public void testExecutor() throws Exception {
+
+        int tasks = 64;
+        ExecutorService executor = RequestLogExecutors.newExecutor("request-log-test", ThreadMode.VIRTUAL, tasks);
+        CountDownLatch started = new CountDownLatch(tasks);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread[] threads = new Thread[tasks];
+        for (int i = 0; i < tasks; i++) {
+            final int index = i;
+            executor.execute(() -> {
+                threads[index] = Thread.currentThread();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        // every task blocks at once.
+        assert started.await(5, TimeUnit.SECONDS);
+        release.countDown();
+        executor.shutdown();
+        assert executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        for (Thread thread : threads) {
+            assert thread.getName().startsWith("request-log-test-");
+            assert thread.isDaemon();
+            assert isVirtual(thread) == RequestLogExecutors.isVirtualThreadSupported();
+        }
+        assert RequestLogExecutors.resolve(ThreadMode.PLATFORM) == ThreadMode.PLATFORM;
+    }
+
+
+    @DisplayName("Test async handler consumers run in the requested thread mode")
+    @Test
+    public void testAsyncHandler() {
+
+        BoundedInMemoryRequestLogRepository repository = new BoundedInMemoryRequestLogRepository();
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(repository, 64, 2, OverflowPolicy.BLOCK, 16, 0, ThreadMode.VIRTUAL);
+        for (int i = 0; i < 100; i++) {
+            handler.handle(TestRequestContext.failed("http://localhost/" + i));
+        }
+        handler.shutdown();
+        assert repository.getRequestLogs().size() == 100;
+    }
+
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package io.github.requestlog.core.support.io;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+public class BytePoolTests {
+
+
+    @DisplayName("Test arrays are size-classed and reused after release")
+    @Test
+    public void testAcquireRelease() {
+        BytePool bytePool = new BytePool(256, 4096, 2);
+
+        byte[] small = bytePool.acquire(10);
+        assert small.length == 256;
+        byte[] medium = bytePool.acquire(1000);
+        assert medium.length == 1024;
+        // above the largest class, not pooled.
+        byte[] large = bytePool.acquire(5000);
+        assert large.length == 5000;
+
+        bytePool.release(small);
+        bytePool.release(medium);
+        bytePool.release(large);
+        bytePool.release(new byte[100]);
+        assert bytePool.getPooledCount() == 2;
+
+        assert bytePool.acquire(200) == small;
+        assert bytePool.acquire(1024) == medium;
+        assert bytePool.acquire(1024) != medium;
+        assert bytePool.getPooledCount() == 0;
+
+        // at most 2 per class.
+        for (int i = 0; i < 5; i++) {
+            bytePool.release(new byte[512]);
+        }
+        assert bytePool.getPooledCount() == 2;
+    }
+
+}
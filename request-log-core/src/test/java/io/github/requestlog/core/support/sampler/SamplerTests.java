@@ -0,0 +1,85 @@
+package io.github.requestlog.core.support.sampler;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.handler.impl.DefaultRequestLogHandler;
+import io.github.requestlog.core.repository.impl.BoundedInMemoryRequestLogRepository;
+import io.github.requestlog.core.support.TestRequestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class SamplerTests {
+
+
+    @DisplayName("Test sampled out requests are counted, requests with retry job are always kept")
+    @Test
+    public void testHandlerSampling() {
+
+        BoundedInMemoryRequestLogRepository repository = new BoundedInMemoryRequestLogRepository();
+        DefaultRequestLogHandler handler = new DefaultRequestLogHandler(repository);
+        RequestLogSampler dropAll = Samplers.rate(0);
+
+        for (int i = 0; i < 10; i++) {
+            handler.handle(new TestRequestContext(LogContext.log().sample(dropAll), "http://localhost/" + i, 500, "{}"));
+        }
+        handler.handle(new TestRequestContext(LogContext.retry().sample(dropAll), "http://localhost/retry", 500, "{}"));
+        handler.handle(new TestRequestContext(LogContext.log().sample(Samplers.rate(1)), "http://localhost/kept", 500, "{}"));
+
+        assert handler.getSampledOutCount() == 10;
+        assert repository.getRequestLogs().size() == 2;
+        assert repository.getRequestRetryJobs().size() == 1;
+    }
+
+
+    @DisplayName("Test token buckets are kept per endpoint and refill over time")
+    @Test
+    public void testTokenBucket() {
+
+        AtomicLong clock = new AtomicLong();
+        TokenBucketSampler sampler = new TokenBucketSampler(10, 2, 2, clock::get);
+
+        assert sampler.sample(context("http://localhost/a?id=1"));
+        assert sampler.sample(context("http://localhost/a?id=2"));
+        assert !sampler.sample(context("http://localhost/a?id=3"));
+        assert sampler.sample(context("http://localhost/b"));
+
+        // 100ms refills one permit at 10 per second.
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assert sampler.sample(context("http://localhost/a"));
+        assert !sampler.sample(context("http://localhost/a"));
+
+        // endpoints beyond the limit share one bucket.
+        assert sampler.sample(context("http://localhost/c"));
+        assert sampler.sample(context("http://localhost/d"));
+        assert !sampler.sample(context("http://localhost/e"));
+        assert sampler.getEndpointCount() == 2;
+    }
+
+
+    @DisplayName("Test the first requests of each window are kept, the rest sampled")
+    @Test
+    public void testWindow() {
+
+        AtomicLong clock = new AtomicLong();
+        WindowSampler sampler = new WindowSampler(3, Duration.ofSeconds(1), 0, clock::get);
+
+        int kept = 0;
+        for (int i = 0; i < 10; i++) {
+            kept += sampler.sample(context("http://localhost/")) ? 1 : 0;
+        }
+        assert kept == 3;
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assert sampler.sample(context("http://localhost/"));
+    }
+
+
+    private static TestRequestContext context(String url) {
+        return new TestRequestContext(LogContext.log(), url, 500, "{}");
+    }
+
+}
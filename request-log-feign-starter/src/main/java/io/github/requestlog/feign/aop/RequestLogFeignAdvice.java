@@ -4,8 +4,13 @@ import feign.Request;
 import feign.Response;
 import io.github.requestlog.core.context.LogContext;
 import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.enums.RequestContextType;
 import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.listener.RequestLogListeners;
+import io.github.requestlog.core.support.HttpUtils;
+import io.github.requestlog.core.support.Predicates;
 import io.github.requestlog.feign.context.request.FeignRequestContext;
+import io.github.requestlog.feign.support.CapturingResponseBody;
 import io.github.requestlog.feign.support.FeignUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +34,12 @@ public class RequestLogFeignAdvice {
     @Value("${request-log.feign.disable:#{null}}")
     private String disable;
 
+    /**
+     * Max response body bytes to capture, negative to buffer the whole body with {@link FeignUtils#convertAsRepeatableRead}.
+     */
+    @Value("${request-log.body-capture.max-bytes:-1}")
+    private int captureMaxBytes = -1;
+
 
     @Around("execution(* feign.Client.execute(..))")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
@@ -45,16 +56,45 @@ public class RequestLogFeignAdvice {
             return joinPoint.proceed();
         }
 
+        long startNanos = System.nanoTime();
         try {
             Response responseObj = (Response) joinPoint.proceed();
+            if (responseObj != null && Predicates.isDefaultSuccess(LogContext.THREAD_LOCAL.get(), RequestContextType.FEIGN, responseObj.status(), System.nanoTime() - startNanos)) {
+                RequestLogListeners.skipped(RequestContextType.FEIGN);
+                return responseObj;
+            }
+            if (captureMaxBytes >= 0 && responseObj != null) {
+                return capture(LogContext.THREAD_LOCAL.get(), request, responseObj, startNanos);
+            }
             responseObj = FeignUtils.convertAsRepeatableRead(responseObj); // TODO: 2024/2/1 need switch 2 turn it off?
-            requestLogHandler.handle(new FeignRequestContext(LogContext.THREAD_LOCAL.get(), request, responseObj));
+            requestLogHandler.handle(new FeignRequestContext(LogContext.THREAD_LOCAL.get(), request, responseObj).elapsedSince(startNanos));
             return responseObj;
         } catch (Exception e) {
-            requestLogHandler.handle(new FeignRequestContext(LogContext.THREAD_LOCAL.get(), request, e));
+            requestLogHandler.handle(new FeignRequestContext(LogContext.THREAD_LOCAL.get(), request, e).elapsedSince(startNanos));
             throw e;
         }
 
     }
 
+
+    /**
+     * Streams the response body through a {@link CapturingResponseBody}, the request is handled when the body completes.
+     * Binary bodies are not captured, the request is handled right away.
+     */
+    private Response capture(LogContext logContext, Request request, Response response, long startNanos) {
+        if (response.body() == null || HttpUtils.isBinaryContentType(HttpUtils.findContentType(FeignUtils.convertHeaders(response.headers())))) {
+            requestLogHandler.handle(new FeignRequestContext(logContext, request, response).elapsedSince(startNanos));
+            return response;
+        }
+        return response.toBuilder().body(new CapturingResponseBody(response.body(), captureMaxBytes, capturedBody -> {
+            try {
+                RequestLogListeners.bodyCaptured(RequestContextType.FEIGN, capturedBody.getCapture().size());
+                requestLogHandler.handle(new FeignRequestContext(logContext, request, response, capturedBody).elapsedSince(startNanos));
+            } catch (Exception e) {
+                // logging must not fail the caller reading the body.
+                log.warn("handle request log error, url: {}", request.url(), e);
+            }
+        })).build();
+    }
+
 }
@@ -4,6 +4,7 @@ import io.github.requestlog.core.context.LogContext;
 import io.github.requestlog.core.context.request.OutboundRequestContext;
 import io.github.requestlog.core.enums.HttpMethod;
 import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.support.io.CapturingInputStream;
 import io.github.requestlog.feign.support.FeignUtils;
 import feign.Request;
 import feign.Response;
@@ -13,6 +14,7 @@ import org.springframework.util.StreamUtils;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +34,7 @@ public class FeignRequestContext extends OutboundRequestContext {
 
     private final Request request;
     private final Response response;
+    private final CapturingInputStream capturedBody;
 
 
     public FeignRequestContext(LogContext logContext, Request request, Exception exception) {
@@ -39,12 +42,21 @@ public class FeignRequestContext extends OutboundRequestContext {
         super.exception = exception;
         this.request = request;
         this.response = null;
+        this.capturedBody = null;
     }
 
     public FeignRequestContext(LogContext logContext, Request request, Response response) {
+        this(logContext, request, response, null);
+    }
+
+    /**
+     * @param capturedBody the response body read by the caller, of a {@link io.github.requestlog.feign.support.CapturingResponseBody}.
+     */
+    public FeignRequestContext(LogContext logContext, Request request, Response response, CapturingInputStream capturedBody) {
         super(logContext);
         this.request = request;
         this.response = response;
+        this.capturedBody = capturedBody;
     }
 
 
@@ -91,6 +103,14 @@ public class FeignRequestContext extends OutboundRequestContext {
         return (requestBodyCache = new String(request.body(), StandardCharsets.UTF_8));
     }
 
+    @Override
+    public byte[] getRequestBodyBytes() {
+        if (requestBodyCache != null || request.body() == null || request.body().length == 0) {
+            return null;
+        }
+        return request.body();
+    }
+
     @Override
     public Integer getResponseCode() {
         return response == null ? null : response.status();
@@ -114,9 +134,15 @@ public class FeignRequestContext extends OutboundRequestContext {
     @Override
     public String getResponseBody() {
 
+        if (responseBodyCache != null) {
+            return responseBodyCache;
+        }
         if (response == null || response.body() == null) {
             return null;
         }
+        if (capturedBody != null) {
+            return (responseBodyCache = capturedBody.getCapture().toString(response.charset()));
+        }
 
         // If reading a non-repeatable body, it affects the normal reading of the main program.
         if (!response.body().isRepeatable()) {
@@ -130,4 +156,38 @@ public class FeignRequestContext extends OutboundRequestContext {
             return null;
         }
     }
+
+    @Override
+    public byte[] getResponseBodyBytes() {
+        if (responseBodyCache != null || capturedBody == null) {
+            return null;
+        }
+        return capturedBody.getCapture().toByteArray();
+    }
+
+    @Override
+    public Charset getResponseBodyCharset() {
+        return response == null ? StandardCharsets.UTF_8 : response.charset();
+    }
+
+    @Override
+    public Long getResponseBodyLength() {
+        if (capturedBody != null && capturedBody.isExhausted()) {
+            return capturedBody.getCapture().getLength();
+        }
+        if (response == null || response.body() == null || response.body().length() == null) {
+            return null;
+        }
+        return response.body().length().longValue();
+    }
+
+    @Override
+    public boolean isResponseBodyTruncated() {
+        if (capturedBody == null) {
+            return false;
+        }
+        return capturedBody.getCapture().isTruncated()
+                || (!capturedBody.isExhausted() && !Long.valueOf(capturedBody.getCapture().getLength()).equals(getResponseBodyLength()));
+    }
+
 }
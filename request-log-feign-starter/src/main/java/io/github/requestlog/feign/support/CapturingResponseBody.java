@@ -0,0 +1,66 @@
+package io.github.requestlog.feign.support;
+
+import feign.Response;
+import io.github.requestlog.core.support.io.CapturingInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.function.Consumer;
+
+
+/**
+ * Decorator for {@link Response.Body} that streams the body to the caller, recording only its first bytes.
+ *
+ * The body is read once, the completion callback runs when the caller reads it to the end or closes it,
+ * see {@link CapturingInputStream}.
+ */
+public class CapturingResponseBody implements Response.Body {
+
+    private final Response.Body target;
+    private final int maxBytes;
+    private final Consumer<CapturingInputStream> onComplete;
+
+    private CapturingInputStream inputStream;
+
+    public CapturingResponseBody(Response.Body target, int maxBytes, Consumer<CapturingInputStream> onComplete) {
+        this.target = target;
+        this.maxBytes = maxBytes;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public Integer length() {
+        return target.length();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return false;
+    }
+
+    @Override
+    public synchronized InputStream asInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new CapturingInputStream(target.asInputStream(), maxBytes, onComplete);
+        }
+        return inputStream;
+    }
+
+    @Override
+    public Reader asReader(Charset charset) throws IOException {
+        return new InputStreamReader(asInputStream(), charset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            asInputStream().close();
+        } finally {
+            target.close();
+        }
+    }
+
+}
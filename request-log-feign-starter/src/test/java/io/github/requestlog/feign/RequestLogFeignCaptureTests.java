@@ -0,0 +1,94 @@
+package io.github.requestlog.feign;
+
+
+import feign.FeignException;
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.repository.impl.InMemoryRequestLogRepository;
+import io.github.requestlog.feign.clients.TestFeignClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = TestApplication.class,
+        properties = "request-log.body-capture.max-bytes=1024"
+)
+public class RequestLogFeignCaptureTests {
+
+    @Autowired
+    private TestFeignClient testFeignClient;
+
+    @Autowired
+    private InMemoryRequestLogRepository inMemoryRequestLogRepository;
+
+
+    @DisplayName("Test large response streams through, only a prefix is logged")
+    @Test
+    public void testCaptureLargeBody() {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        try {
+            LogContext.log().execute(() -> testFeignClient.downloadError(200_000, MediaType.TEXT_PLAIN_VALUE));
+            assert false : "should respond 500";
+        } catch (FeignException e) {
+            assert e.status() == 500;
+        }
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getResponseBody().length() == 1024;
+        assert requestLog.getResponseBody().startsWith("abcdefghijklmnopqrstuvwxyzabc");
+        assert requestLog.getResponseBodyLength() == 200_000;
+        assert requestLog.getResponseBodyTruncated();
+    }
+
+
+    @DisplayName("Test binary response is not captured")
+    @Test
+    public void testSkipBinaryBody() {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        try {
+            LogContext.log().execute(() -> testFeignClient.downloadError(200_000, MediaType.APPLICATION_OCTET_STREAM_VALUE));
+            assert false : "should respond 500";
+        } catch (FeignException e) {
+            assert e.status() == 500;
+        }
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getResponseCode() == 500;
+        assert requestLog.getResponseBody() == null;
+        assert requestLog.getResponseBodyLength() == 200_000;
+    }
+
+
+    @DisplayName("Test small response is logged whole")
+    @Test
+    public void testCaptureSmallBody() {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        try {
+            LogContext.log().execute(() -> testFeignClient.downloadError(100, MediaType.TEXT_PLAIN_VALUE));
+            assert false : "should respond 500";
+        } catch (FeignException e) {
+            assert e.status() == 500;
+        }
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getResponseBody().length() == 100;
+        assert requestLog.getResponseBodyLength() == 100;
+        assert !requestLog.getResponseBodyTruncated();
+
+        // successful requests are not logged.
+        assert LogContext.log().execute(() -> testFeignClient.get()) != null;
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+    }
+
+}
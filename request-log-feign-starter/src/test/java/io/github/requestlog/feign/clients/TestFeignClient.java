@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import static io.github.requestlog.test.controller.TestRestController.*;
 
@@ -41,4 +42,7 @@ public interface TestFeignClient {
     @PostMapping(value = JSON_POST_ERROR_PATH, consumes = MediaType.APPLICATION_JSON_VALUE)
     ResponseModel jsonPostError(@RequestBody RequestParamModel param);
 
+    @GetMapping(DOWNLOAD_ERROR_PATH)
+    byte[] downloadError(@RequestParam("size") int size, @RequestParam("contentType") String contentType);
+
 }
@@ -0,0 +1,248 @@
+package io.github.requestlog.micrometer;
+
+import io.github.requestlog.core.context.request.BaseRequestContext;
+import io.github.requestlog.core.context.retry.RetryBulkhead;
+import io.github.requestlog.core.context.retry.RetryJobScheduler;
+import io.github.requestlog.core.context.retry.RetryResult;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.handler.impl.AsyncRequestLogHandler;
+import io.github.requestlog.core.listener.RequestLogListener;
+import io.github.requestlog.core.listener.RequestLogListeners;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Micrometer meters for request-log, collected as a {@link RequestLogListener} once bound to a registry.
+ *
+ * <ul>
+ *     <li>{@code request-log.requests}: counter of requests by {@code type} and {@code outcome}, logged, sampled (out), coalesced or skipped.</li>
+ *     <li>{@code request-log.retries}: counter of executed retries by {@code type}, {@code client} and {@code succeed}.</li>
+ *     <li>{@code request-log.repository.save}: timer of repository saves by {@code outcome}, success or error.</li>
+ *     <li>{@code request-log.body.captured}: summary of captured response body bytes by {@code type}.</li>
+ *     <li>{@code request-log.retry.pending}: gauge of retry jobs scheduled, with a {@link RetryJobScheduler}.</li>
+ *     <li>{@code request-log.async.pending} and {@code request-log.async.dropped}: buffer of an {@link AsyncRequestLogHandler}.</li>
+ *     <li>{@code request-log.retry.bulkhead.rejected}: retries rejected by the {@link RetryBulkhead}.</li>
+ * </ul>
+ */
+public class RequestLogMetrics implements RequestLogListener, MeterBinder, AutoCloseable {
+
+    private final AbstractRequestLogHandler requestLogHandler;
+    private final RetryJobScheduler retryJobScheduler;
+    private final RetryBulkhead retryBulkhead;
+
+    /**
+     * Meters of every registry bound to, copy-on-write like the listeners.
+     */
+    private volatile Meters[] meters = new Meters[0];
+    private boolean registered;
+
+
+    public RequestLogMetrics() {
+        this(null, null, null);
+    }
+
+    /**
+     * @param requestLogHandler handler to gauge if asynchronous, may be null.
+     * @param retryJobScheduler scheduler to gauge, may be null.
+     * @param retryBulkhead     bulkhead to gauge, null for the global one if registered when bound.
+     */
+    public RequestLogMetrics(AbstractRequestLogHandler requestLogHandler, RetryJobScheduler retryJobScheduler, RetryBulkhead retryBulkhead) {
+        this.requestLogHandler = requestLogHandler;
+        this.retryJobScheduler = retryJobScheduler;
+        this.retryBulkhead = retryBulkhead;
+    }
+
+
+    /**
+     * Registers the meters in {@code registry}, events are counted in every registry bound to. Binding a registry again has no effect.
+     */
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        for (Meters bound : meters) {
+            if (bound.registry == registry) {
+                return;
+            }
+        }
+        Meters[] updated = Arrays.copyOf(meters, meters.length + 1);
+        updated[meters.length] = new Meters(registry);
+        meters = updated;
+
+        if (retryJobScheduler != null) {
+            Gauge.builder("request-log.retry.pending", retryJobScheduler, RetryJobScheduler::getPendingCount)
+                    .description("Retry jobs scheduled and not yet executed")
+                    .register(registry);
+        }
+        if (requestLogHandler instanceof AsyncRequestLogHandler) {
+            AsyncRequestLogHandler asyncHandler = (AsyncRequestLogHandler) requestLogHandler;
+            Gauge.builder("request-log.async.pending", asyncHandler, AsyncRequestLogHandler::getPendingCount)
+                    .description("Request logs buffered and not yet saved")
+                    .register(registry);
+            FunctionCounter.builder("request-log.async.dropped", asyncHandler, AsyncRequestLogHandler::getDroppedCount)
+                    .description("Request logs dropped by the overflow policy")
+                    .register(registry);
+        }
+        RetryBulkhead bulkhead = retryBulkhead != null ? retryBulkhead : RetryBulkhead.getGlobal();
+        if (bulkhead != null) {
+            FunctionCounter.builder("request-log.retry.bulkhead.rejected", bulkhead, RetryBulkhead::getRejectedCount)
+                    .description("Retries rejected by the bulkhead")
+                    .register(registry);
+        }
+
+        if (!registered) {
+            RequestLogListeners.register(this);
+            registered = true;
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, RequestContextType type, String outcome) {
+        return Counter.builder("request-log.requests")
+                .description("Requests seen by request-log")
+                .tag("type", type.name())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter retryCounter(MeterRegistry registry, String type, RetryClientType client, boolean succeed) {
+        return Counter.builder("request-log.retries")
+                .description("Retries executed")
+                .tag("type", type)
+                .tag("client", client.name())
+                .tag("succeed", String.valueOf(succeed))
+                .register(registry);
+    }
+
+    private static Timer saveTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("request-log.repository.save")
+                .description("Repository calls saving request logs")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Stops collecting, registered meters are kept.
+     */
+    @Override
+    public synchronized void close() {
+        RequestLogListeners.unregister(this);
+        registered = false;
+    }
+
+
+    @Override
+    public void onLogged(BaseRequestContext requestContext) {
+        for (Meters bound : meters) {
+            bound.loggedCounters.get(requestContext.getRequestContextType()).increment();
+        }
+    }
+
+    @Override
+    public void onSampledOut(BaseRequestContext requestContext) {
+        for (Meters bound : meters) {
+            bound.sampledCounters.get(requestContext.getRequestContextType()).increment();
+        }
+    }
+
+    @Override
+    public void onCoalesced(BaseRequestContext requestContext) {
+        for (Meters bound : meters) {
+            bound.coalescedCounters.get(requestContext.getRequestContextType()).increment();
+        }
+    }
+
+    @Override
+    public void onSkipped(RequestContextType requestContextType) {
+        for (Meters bound : meters) {
+            bound.skippedCounters.get(requestContextType).increment();
+        }
+    }
+
+    @Override
+    public void onSaved(int count, long elapsedNanos, Throwable error) {
+        for (Meters bound : meters) {
+            (error == null ? bound.saveSuccessTimer : bound.saveErrorTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void onBodyCaptured(RequestContextType requestContextType, int capturedBytes) {
+        for (Meters bound : meters) {
+            bound.capturedSummaries.get(requestContextType).record(capturedBytes);
+        }
+    }
+
+    @Override
+    public void onRetried(RetryResult retryResult) {
+        RequestContextType type = retryResult.getRetryContext().getRequestLog().getContextType();
+        // the last row counts retries of logs without context type.
+        int typeIndex = type == null ? RequestContextType.values().length : type.ordinal();
+        int clientIndex = retryResult.getRetryClientType().ordinal();
+        int succeedIndex = retryResult.succeed() ? 1 : 0;
+        for (Meters bound : meters) {
+            bound.retryCounters[typeIndex][clientIndex][succeedIndex].increment();
+        }
+    }
+
+
+    /**
+     * Meters registered in one registry.
+     */
+    private static class Meters {
+
+        private final MeterRegistry registry;
+        private final Map<RequestContextType, Counter> loggedCounters = new EnumMap<>(RequestContextType.class);
+        private final Map<RequestContextType, Counter> sampledCounters = new EnumMap<>(RequestContextType.class);
+        private final Map<RequestContextType, Counter> coalescedCounters = new EnumMap<>(RequestContextType.class);
+        private final Map<RequestContextType, Counter> skippedCounters = new EnumMap<>(RequestContextType.class);
+        private final Map<RequestContextType, DistributionSummary> capturedSummaries = new EnumMap<>(RequestContextType.class);
+        private final Timer saveSuccessTimer;
+        private final Timer saveErrorTimer;
+
+        /**
+         * Indexed by request context type, UNKNOWN last, retry client type and succeed.
+         */
+        private final Counter[][][] retryCounters;
+
+        Meters(MeterRegistry registry) {
+            this.registry = registry;
+            for (RequestContextType type : RequestContextType.values()) {
+                loggedCounters.put(type, requestCounter(registry, type, "logged"));
+                sampledCounters.put(type, requestCounter(registry, type, "sampled"));
+                coalescedCounters.put(type, requestCounter(registry, type, "coalesced"));
+                skippedCounters.put(type, requestCounter(registry, type, "skipped"));
+                capturedSummaries.put(type, DistributionSummary.builder("request-log.body.captured")
+                        .description("Response body bytes captured for the log")
+                        .baseUnit("bytes")
+                        .tag("type", type.name())
+                        .register(registry));
+            }
+            saveSuccessTimer = saveTimer(registry, "success");
+            saveErrorTimer = saveTimer(registry, "error");
+
+            RequestContextType[] types = RequestContextType.values();
+            RetryClientType[] clients = RetryClientType.values();
+            retryCounters = new Counter[types.length + 1][clients.length][2];
+            for (int t = 0; t <= types.length; t++) {
+                String type = t < types.length ? types[t].name() : "UNKNOWN";
+                for (RetryClientType client : clients) {
+                    for (int succeed = 0; succeed < 2; succeed++) {
+                        retryCounters[t][client.ordinal()][succeed] = retryCounter(registry, type, client, succeed == 1);
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package io.github.requestlog.micrometer.autoconfigure;
+
+import io.github.requestlog.core.context.retry.RetryBulkhead;
+import io.github.requestlog.core.context.retry.RetryJobScheduler;
+import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.micrometer.RequestLogMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+/**
+ * RequestLog metrics with Micrometer, disabled by 'request-log.metrics.enabled=false'.
+ *
+ * {@link RequestLogMetrics} is a {@link MeterBinder}, bound to the registries of Spring Boot Actuator if present.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(MeterBinder.class)
+@ConditionalOnProperty(value = "request-log.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLogMetricsAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean(RequestLogMetrics.class)
+    public RequestLogMetrics requestLogMetrics(ObjectProvider<AbstractRequestLogHandler> requestLogHandler,
+                                               ObjectProvider<RetryJobScheduler> retryJobScheduler,
+                                               ObjectProvider<RetryBulkhead> retryBulkhead) {
+        return new RequestLogMetrics(requestLogHandler.getIfUnique(), retryJobScheduler.getIfUnique(), retryBulkhead.getIfUnique());
+    }
+
+}
@@ -0,0 +1,163 @@
+package io.github.requestlog.micrometer;
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.context.request.OutboundRequestContext;
+import io.github.requestlog.core.context.retry.RetryResult;
+import io.github.requestlog.core.enums.HttpMethod;
+import io.github.requestlog.core.enums.RequestContextType;
+import io.github.requestlog.core.enums.RetryClientType;
+import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.handler.impl.AsyncRequestLogHandler;
+import io.github.requestlog.core.handler.impl.DefaultRequestLogHandler;
+import io.github.requestlog.core.listener.RequestLogListeners;
+import io.github.requestlog.core.model.HttpRequestContext;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.repository.impl.BoundedInMemoryRequestLogRepository;
+import io.github.requestlog.core.support.sampler.Samplers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+
+public class RequestLogMetricsTests {
+
+
+    @DisplayName("Test logged, sampled and skipped requests, repository saves and captured bytes are recorded")
+    @Test
+    public void testHandlerMetrics() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AbstractRequestLogHandler handler = new DefaultRequestLogHandler(new BoundedInMemoryRequestLogRepository());
+        try (RequestLogMetrics metrics = new RequestLogMetrics(handler, null, null)) {
+            metrics.bindTo(registry);
+
+            handler.handle(new StubRequestContext(500));
+            handler.handle(new StubRequestContext(500));
+            handler.handle(new StubRequestContext(200));
+            handler.handle(new StubRequestContext(LogContext.log().sample(Samplers.rate(0)), 500));
+            RequestLogListeners.bodyCaptured(RequestContextType.OK_HTTP, 1024);
+        }
+        // no longer collecting once closed.
+        handler.handle(new StubRequestContext(500));
+
+        assert registry.get("request-log.requests").tags("type", "OK_HTTP", "outcome", "logged").counter().count() == 2;
+        assert registry.get("request-log.requests").tags("type", "OK_HTTP", "outcome", "skipped").counter().count() == 1;
+        assert registry.get("request-log.requests").tags("type", "OK_HTTP", "outcome", "sampled").counter().count() == 1;
+        assert registry.get("request-log.requests").tags("type", "FEIGN", "outcome", "logged").counter().count() == 0;
+        assert registry.get("request-log.repository.save").tags("outcome", "success").timer().count() == 2;
+        assert registry.get("request-log.body.captured").tags("type", "OK_HTTP").summary().totalAmount() == 1024;
+    }
+
+
+    @DisplayName("Test events are counted once in every bound registry, retries by type, client and succeed")
+    @Test
+    public void testMultipleRegistries() {
+
+        SimpleMeterRegistry first = new SimpleMeterRegistry();
+        SimpleMeterRegistry second = new SimpleMeterRegistry();
+        AbstractRequestLogHandler handler = new DefaultRequestLogHandler(new BoundedInMemoryRequestLogRepository());
+        try (RequestLogMetrics metrics = new RequestLogMetrics(handler, null, null)) {
+            metrics.bindTo(first);
+            metrics.bindTo(second);
+            metrics.bindTo(second);
+
+            handler.handle(new StubRequestContext(500));
+            RequestLog requestLog = new RequestLog();
+            requestLog.setContextType(RequestContextType.OK_HTTP);
+            requestLog.setHttpMethod(HttpMethod.GET);
+            requestLog.setRequestUrl("http://localhost/metrics");
+            HttpRequestContext requestContext = new HttpRequestContext();
+            requestContext.setResponseCode(200);
+            RequestLogListeners.retried(new RetryResult(RetryClientType.OK_HTTP, System.currentTimeMillis(), RetryContext.create(requestLog), requestContext));
+        }
+
+        for (SimpleMeterRegistry registry : Arrays.asList(first, second)) {
+            assert registry.get("request-log.requests").tags("type", "OK_HTTP", "outcome", "logged").counter().count() == 1;
+            assert registry.get("request-log.retries").tags("type", "OK_HTTP", "client", "OK_HTTP", "succeed", "true").counter().count() == 1;
+            assert registry.get("request-log.retries").tags("type", "OK_HTTP", "client", "OK_HTTP", "succeed", "false").counter().count() == 0;
+        }
+    }
+
+
+    @DisplayName("Test an async handler exposes its buffer")
+    @Test
+    public void testAsyncHandlerGauges() {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AsyncRequestLogHandler handler = new AsyncRequestLogHandler(new BoundedInMemoryRequestLogRepository());
+        try (RequestLogMetrics metrics = new RequestLogMetrics(handler, null, null)) {
+            metrics.bindTo(registry);
+            assert registry.get("request-log.async.pending").gauge().value() == 0;
+            assert registry.get("request-log.async.dropped").functionCounter().count() == 0;
+        } finally {
+            handler.shutdown();
+        }
+    }
+
+
+    private static class StubRequestContext extends OutboundRequestContext {
+
+        private final int responseCode;
+
+        StubRequestContext(int responseCode) {
+            this(LogContext.log(), responseCode);
+        }
+
+        StubRequestContext(LogContext logContext, int responseCode) {
+            super(logContext);
+            this.responseCode = responseCode;
+        }
+
+        @Override
+        public RequestContextType getRequestContextType() {
+            return RequestContextType.OK_HTTP;
+        }
+
+        @Override
+        public HttpMethod getRequestMethod() {
+            return HttpMethod.GET;
+        }
+
+        @Override
+        public String getRequestUrl() {
+            return "http://localhost/metrics";
+        }
+
+        @Override
+        public String getRequestPath() {
+            return "/metrics";
+        }
+
+        @Override
+        public Map<String, List<String>> getRequestHeaders() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public String getRequestBody() {
+            return null;
+        }
+
+        @Override
+        public Integer getResponseCode() {
+            return responseCode;
+        }
+
+        @Override
+        public Map<String, List<String>> getResponseHeaders() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public String getResponseBody() {
+            return "{}";
+        }
+    }
+
+}
@@ -6,6 +6,7 @@ import io.github.requestlog.okhttp.interceptor.RequestLogOkHttpInterceptor;
 import io.github.requestlog.okhttp.support.OkHttpRequestLogEnhancer;
 import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,8 +29,9 @@ public class RequestLogOkHttpAutoConfiguration {
     protected static class RequestLogOkHttpInterceptorConfiguration {
 
         @Bean
-        public RequestLogOkHttpInterceptor requestLogOkHttpInterceptor(@Autowired AbstractRequestLogHandler handler) {
-            return new RequestLogOkHttpInterceptor(handler);
+        public RequestLogOkHttpInterceptor requestLogOkHttpInterceptor(@Autowired AbstractRequestLogHandler handler,
+                                                                       @Value("${request-log.body-capture.max-bytes:-1}") int captureMaxBytes) {
+            return new RequestLogOkHttpInterceptor(handler, captureMaxBytes);
         }
 
     }
@@ -5,6 +5,7 @@ import io.github.requestlog.core.context.request.OutboundRequestContext;
 import io.github.requestlog.core.enums.HttpMethod;
 import io.github.requestlog.core.enums.RequestContextType;
 import io.github.requestlog.core.support.HttpUtils;
+import io.github.requestlog.okhttp.support.CapturingResponseBody;
 import io.github.requestlog.okhttp.support.OkHttpUtils;
 import okhttp3.*;
 import org.springframework.util.StringUtils;
@@ -115,6 +116,9 @@ public class OkHttpRequestContext extends OutboundRequestContext {
         if (responseBodyCache != null) {
             return responseBodyCache;
         }
+        if (OkHttpUtils.isResponseCaptured(response)) {
+            return (responseBodyCache = ((CapturingResponseBody) response.body()).getCapturedBody());
+        }
         if (!OkHttpUtils.isResponseRepeatable(response)) {
             return null;
         }
@@ -122,4 +126,17 @@ public class OkHttpRequestContext extends OutboundRequestContext {
         return (responseBodyCache = OkHttpUtils.responseBody2String(response));
     }
 
+    @Override
+    public Long getResponseBodyLength() {
+        if (OkHttpUtils.isResponseCaptured(response)) {
+            return ((CapturingResponseBody) response.body()).getBodyLength();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isResponseBodyTruncated() {
+        return OkHttpUtils.isResponseCaptured(response) && ((CapturingResponseBody) response.body()).isTruncated();
+    }
+
 }
@@ -9,11 +9,17 @@ import io.github.requestlog.core.enums.RetryClientType;
 import io.github.requestlog.core.support.Preconditions;
 import io.github.requestlog.okhttp.context.request.OkHttpRequestContext;
 import io.github.requestlog.okhttp.support.OkHttpUtils;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 
 /**
  * RetryClient for {@link OkHttpClient}
@@ -31,22 +37,65 @@ public class OkHttpRetryClient extends RetryClient<OkHttpClient> {
     @Override
     protected RetryResult doExecute() {
 
+        Request request = buildRequest();
+
+        try (Response response = OkHttpUtils.convertAsRepeatableRead(httpClient.newCall(request).execute())) {
+            return new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, new OkHttpRequestContext(null, request, response).buildHttpRequestContext());
+        } catch (Exception e) {
+            return new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, new OkHttpRequestContext(null, request, e).buildHttpRequestContext());
+        }
+    }
+
+
+    /**
+     * Enqueued on the dispatcher of the {@link OkHttpClient}, the future completes on its threads.
+     * {@code executor} only waits for the bulkhead permit if any.
+     */
+    @Override
+    protected CompletableFuture<RetryResult> doExecuteAsync(Executor executor) {
+        return executeNative(executor, this::enqueue);
+    }
+
+    private CompletableFuture<RetryResult> enqueue() {
+
+        Request request = buildRequest();
+
+        CompletableFuture<RetryResult> future = new CompletableFuture<>();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.complete(new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, new OkHttpRequestContext(null, request, e).buildHttpRequestContext()));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (Response repeatable = OkHttpUtils.convertAsRepeatableRead(response)) {
+                    future.complete(new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, new OkHttpRequestContext(null, request, repeatable).buildHttpRequestContext()));
+                } catch (Exception e) {
+                    future.complete(new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, new OkHttpRequestContext(null, request, e).buildHttpRequestContext()));
+                }
+            }
+        });
+        return future;
+    }
+
+
+    /**
+     * Tagged with the {@link RetryContext}, so {@link io.github.requestlog.okhttp.interceptor.RequestLogOkHttpInterceptor} skips it on any thread.
+     */
+    private Request buildRequest() {
+
         Preconditions.check(httpClient != null, "A okHttpClient is null");
         Preconditions.check(super.validContext(), "retryContext is not valid for retry");
 
         HttpMethod method = retryContext.getRequestLog().getHttpMethod();
 
-        Request.Builder builder = new Request.Builder()
+        return new Request.Builder()
                 .url(retryContext.buildRequestUrl())
                 .headers(OkHttpUtils.convertToHeaders(retryContext.buildRequestHeaders()))
-                .method(method.name(), !method.supportsRequestBody() ? null : RequestBody.create(null, retryContext.getRequestLog().getRequestBody()));
-        Request request = builder.build();
-
-        try (Response response = OkHttpUtils.convertAsRepeatableRead(httpClient.newCall(request).execute())) {
-            return new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, new OkHttpRequestContext(null, request, response).buildHttpRequestContext());
-        } catch (Exception e) {
-            return new RetryResult(RetryClientType.OK_HTTP, beforeDoExecuteTimeMillis, retryContext, new OkHttpRequestContext(null, request, e).buildHttpRequestContext());
-        }
+                .method(method.name(), !method.supportsRequestBody() ? null : RequestBody.create(null, retryContext.getRequestLog().getRequestBody()))
+                .tag(RetryContext.class, retryContext)
+                .build();
     }
 
 }
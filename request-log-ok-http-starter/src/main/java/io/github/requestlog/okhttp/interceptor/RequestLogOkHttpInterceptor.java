@@ -2,10 +2,14 @@ package io.github.requestlog.okhttp.interceptor;
 
 import io.github.requestlog.core.context.LogContext;
 import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.enums.RequestContextType;
 import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.listener.RequestLogListeners;
+import io.github.requestlog.core.support.Predicates;
 import io.github.requestlog.okhttp.context.request.OkHttpRequestContext;
+import io.github.requestlog.okhttp.support.CapturingResponseBody;
 import io.github.requestlog.okhttp.support.OkHttpUtils;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -17,31 +21,76 @@ import java.io.IOException;
 /**
  * RequestLog interceptor for {@link OkHttpClient}
  */
-@RequiredArgsConstructor
+@Slf4j
 public class RequestLogOkHttpInterceptor implements Interceptor {
 
 
     private final AbstractRequestLogHandler requestLogHandler;
 
+    /**
+     * Max response body bytes to capture, negative to buffer the whole body with {@link OkHttpUtils#convertAsRepeatableRead}.
+     */
+    private final int captureMaxBytes;
+
+
+    public RequestLogOkHttpInterceptor(AbstractRequestLogHandler requestLogHandler) {
+        this(requestLogHandler, -1);
+    }
+
+    /**
+     * With a non-negative {@code captureMaxBytes}, the response body streams to the caller and the request is handled
+     * once the caller has read or closed the body, see {@link CapturingResponseBody}.
+     */
+    public RequestLogOkHttpInterceptor(AbstractRequestLogHandler requestLogHandler, int captureMaxBytes) {
+        this.requestLogHandler = requestLogHandler;
+        this.captureMaxBytes = captureMaxBytes;
+    }
+
 
     @Override
     public Response intercept(Chain chain) throws IOException {
 
-        // Skipped, no logging is specified or current request contains retry.
-        if (LogContext.THREAD_LOCAL.get() == null || RetryContext.THREAD_LOCAL.get() != null) {
+        // Skipped, no logging is specified or current request contains retry, async retries are tagged.
+        if (LogContext.THREAD_LOCAL.get() == null || RetryContext.THREAD_LOCAL.get() != null || chain.request().tag(RetryContext.class) != null) {
             return chain.proceed(chain.request());
         }
 
         Request request = chain.request();
+        long startNanos = System.nanoTime();
         try {
             Response response = chain.proceed(request);
+            if (Predicates.isDefaultSuccess(LogContext.THREAD_LOCAL.get(), RequestContextType.OK_HTTP, response.code(), System.nanoTime() - startNanos)) {
+                RequestLogListeners.skipped(RequestContextType.OK_HTTP);
+                return response;
+            }
+            if (captureMaxBytes >= 0 && response.body() != null) {
+                return capture(LogContext.THREAD_LOCAL.get(), request, response, startNanos);
+            }
             response = OkHttpUtils.convertAsRepeatableRead(response);
-            requestLogHandler.handle(new OkHttpRequestContext(LogContext.THREAD_LOCAL.get(), request, response));
+            requestLogHandler.handle(new OkHttpRequestContext(LogContext.THREAD_LOCAL.get(), request, response).elapsedSince(startNanos));
             return response;
         } catch (Exception e) {
-            requestLogHandler.handle(new OkHttpRequestContext(LogContext.THREAD_LOCAL.get(), request, e));
+            requestLogHandler.handle(new OkHttpRequestContext(LogContext.THREAD_LOCAL.get(), request, e).elapsedSince(startNanos));
             throw e;
         }
 
     }
+
+
+    /**
+     * Streams the response body through a {@link CapturingResponseBody}, the request is handled when the body completes.
+     */
+    private Response capture(LogContext logContext, Request request, Response response, long startNanos) {
+        Response.Builder builder = response.newBuilder();
+        return builder.body(new CapturingResponseBody(response.body(), captureMaxBytes, body -> {
+            try {
+                RequestLogListeners.bodyCaptured(RequestContextType.OK_HTTP, body.getCapturedSize());
+                requestLogHandler.handle(new OkHttpRequestContext(logContext, request, builder.body(body).build()).elapsedSince(startNanos));
+            } catch (Exception e) {
+                // logging must not fail the caller reading the body.
+                log.warn("handle request log error, url: {}", request.url(), e);
+            }
+        })).build();
+    }
+
 }
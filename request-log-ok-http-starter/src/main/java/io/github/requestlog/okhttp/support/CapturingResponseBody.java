@@ -0,0 +1,141 @@
+package io.github.requestlog.okhttp.support;
+
+
+import io.github.requestlog.core.support.io.BodyCapture;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+
+/**
+ * Decorator for {@link ResponseBody} that streams the body to the caller, recording only its first bytes.
+ *
+ * Unlike {@link RepeatableResponseBodyWrapper} the body is never held in memory as a whole, and it can be read once.
+ * The completion callback runs once, when the caller reads to the end or closes the body.
+ * A body closed before the end is read on until the capture is full, so error responses closed unread are still recorded.
+ */
+public class CapturingResponseBody extends ResponseBody {
+
+    private final ResponseBody target;
+    private final BodyCapture capture;
+    private final Consumer<CapturingResponseBody> onComplete;
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private BufferedSource source;
+    private volatile boolean exhausted;
+
+    public CapturingResponseBody(ResponseBody target, int maxBytes, Consumer<CapturingResponseBody> onComplete) {
+        this.target = target;
+        this.capture = new BodyCapture(maxBytes);
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return target.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+        return target.contentLength();
+    }
+
+    @Override
+    public synchronized BufferedSource source() {
+        if (source == null) {
+            source = Okio.buffer(new ForwardingSource(target.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read;
+                    try {
+                        read = super.read(sink, byteCount);
+                    } catch (IOException e) {
+                        complete();
+                        throw e;
+                    }
+                    if (read == -1) {
+                        exhausted = true;
+                        complete();
+                        return -1;
+                    }
+                    long retained = Math.min(read, capture.remaining());
+                    if (retained > 0) {
+                        sink.copyTo(capture, sink.size() - read, retained);
+                    }
+                    capture.skip(read - retained);
+                    return read;
+                }
+            });
+        }
+        return source;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!completed.get() && capture.remaining() > 0) {
+                BufferedSource source = source();
+                Buffer discard = new Buffer();
+                while (capture.remaining() > 0 && source.read(discard, capture.remaining()) != -1) {
+                    discard.clear();
+                }
+            }
+        } catch (IOException ignored) {
+        } finally {
+            target.close();
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            onComplete.accept(this);
+        }
+    }
+
+
+    /**
+     * Bytes of the captured prefix.
+     */
+    public int getCapturedSize() {
+        return capture.size();
+    }
+
+    /**
+     * Captured prefix of the body, decoded with the charset of the content type, UTF-8 by default.
+     */
+    public String getCapturedBody() {
+        MediaType contentType = contentType();
+        return capture.toString(contentType == null ? StandardCharsets.UTF_8 : contentType.charset(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Length of the whole body, from the bytes read when read to the end, else from the Content-Length header if any.
+     */
+    public Long getBodyLength() {
+        if (exhausted) {
+            return capture.getLength();
+        }
+        long contentLength = contentLength();
+        return contentLength >= 0 ? contentLength : null;
+    }
+
+    /**
+     * Whether {@link #getCapturedBody()} is only a prefix of the body.
+     */
+    public boolean isTruncated() {
+        if (capture.isTruncated()) {
+            return true;
+        }
+        return !exhausted && !Long.valueOf(capture.getLength()).equals(getBodyLength());
+    }
+
+}
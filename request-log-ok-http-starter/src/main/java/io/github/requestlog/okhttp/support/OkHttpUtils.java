@@ -57,6 +57,14 @@ public class OkHttpUtils {
     }
 
 
+    /**
+     * Checks if the body of the given {@link Response} is a {@link CapturingResponseBody}.
+     */
+    public static boolean isResponseCaptured(Response response) {
+        return response != null && response.body() instanceof CapturingResponseBody;
+    }
+
+
     /**
      * Convert a {@link Response} to a new response with a repeatable body.
      * If the body is already repeatable, return the original response without re-conversion.
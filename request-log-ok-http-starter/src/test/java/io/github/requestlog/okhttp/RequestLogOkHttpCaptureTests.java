@@ -0,0 +1,120 @@
+package io.github.requestlog.okhttp;
+
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.model.RequestLog;
+import io.github.requestlog.core.repository.impl.InMemoryRequestLogRepository;
+import io.github.requestlog.core.support.function.SupplierExp;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.io.IOException;
+
+import static io.github.requestlog.test.controller.TestRestController.*;
+
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = TestApplication.class,
+        properties = "request-log.body-capture.max-bytes=1024"
+)
+public class RequestLogOkHttpCaptureTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OkHttpClient okHttpClient;
+
+    @Autowired
+    private InMemoryRequestLogRepository inMemoryRequestLogRepository;
+
+
+    @DisplayName("Test large response streams through, only a prefix is logged")
+    @Test
+    public void testCaptureLargeBody() throws IOException {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        long read = 0;
+        try (Response response = execute(DOWNLOAD_ERROR_PATH + "?size=200000")) {
+            assert response.code() == 500;
+            BufferedSource source = response.body().source();
+            Buffer buffer = new Buffer();
+            long count;
+            while ((count = source.read(buffer, 8192)) != -1) {
+                read += count;
+                buffer.clear();
+            }
+            // logged once the body is read to the end.
+            assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+        }
+        assert read == 200_000;
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getResponseBody().length() == 1024;
+        assert requestLog.getResponseBody().startsWith("abcdefghijklmnopqrstuvwxyzabc");
+        assert requestLog.getResponseBodyLength() == 200_000;
+        assert requestLog.getResponseBodyTruncated();
+    }
+
+
+    @DisplayName("Test response closed unread is still logged")
+    @Test
+    public void testCaptureClosedBody() throws IOException {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        try (Response response = execute(DOWNLOAD_ERROR_PATH + "?size=100000")) {
+            assert response.code() == 500;
+            assert inMemoryRequestLogRepository.getRequestLogSize() == size;
+        }
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert requestLog.getResponseBody().length() == 1024;
+        assert requestLog.getResponseBodyTruncated();
+    }
+
+
+    @DisplayName("Test small response is logged whole")
+    @Test
+    public void testCaptureSmallBody() throws IOException {
+        int size = inMemoryRequestLogRepository.getRequestLogSize();
+
+        String body;
+        try (Response response = execute(DOWNLOAD_ERROR_PATH + "?size=100")) {
+            body = response.body().string();
+        }
+        assert body.length() == 100;
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+
+        RequestLog requestLog = inMemoryRequestLogRepository.getLastRequestLog();
+        assert body.equals(requestLog.getResponseBody());
+        assert requestLog.getResponseBodyLength() == 100;
+        assert !requestLog.getResponseBodyTruncated();
+
+        // successful requests are not logged.
+        try (Response response = execute(GET_PATH)) {
+            assert response.body().string().length() > 0;
+        }
+        assert inMemoryRequestLogRepository.getRequestLogSize() - size == 1;
+    }
+
+
+    private Response execute(String path) throws IOException {
+        Request request = new Request.Builder()
+                .url(String.format("http://localhost:%s%s", port, path))
+                .build();
+        SupplierExp<Response, IOException> supplierExp = () -> okHttpClient.newCall(request).execute();
+        return LogContext.log().executeWithExp(supplierExp);
+    }
+
+}
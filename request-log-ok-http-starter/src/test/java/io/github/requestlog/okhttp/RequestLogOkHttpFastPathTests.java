@@ -0,0 +1,154 @@
+package io.github.requestlog.okhttp;
+
+
+import io.github.requestlog.core.context.LogContext;
+import io.github.requestlog.core.handler.impl.DefaultRequestLogHandler;
+import io.github.requestlog.core.repository.impl.InMemoryRequestLogRepository;
+import io.github.requestlog.okhttp.interceptor.RequestLogOkHttpInterceptor;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Interceptor against a stub chain, no server involved.
+ */
+public class RequestLogOkHttpFastPathTests {
+
+    private static final int ITERATIONS = 10_000;
+
+
+    @DisplayName("Test successful responses pass the interceptor without allocating a request context")
+    @Test
+    public void testSuccessAllocationFree() throws IOException {
+
+        InMemoryRequestLogRepository repository = new InMemoryRequestLogRepository();
+        RequestLogOkHttpInterceptor interceptor = new RequestLogOkHttpInterceptor(new DefaultRequestLogHandler(repository));
+        StubChain chain = new StubChain(200);
+
+        LogContext.log().executeWithExp(() -> {
+            // warm up
+            for (int i = 0; i < ITERATIONS; i++) {
+                assert interceptor.intercept(chain) == chain.response;
+            }
+            long allocated = allocatedBytes();
+            for (int i = 0; i < ITERATIONS; i++) {
+                interceptor.intercept(chain);
+            }
+            allocated = allocatedBytes() - allocated;
+            // a request context alone is well above one byte per call.
+            assert allocated < ITERATIONS : "allocated " + allocated + " bytes";
+        });
+        assert repository.getRequestLogSize() == 0;
+    }
+
+
+    @DisplayName("Test failed responses still build the request context")
+    @Test
+    public void testFailureAllocates() throws IOException {
+
+        InMemoryRequestLogRepository repository = new InMemoryRequestLogRepository();
+        RequestLogOkHttpInterceptor interceptor = new RequestLogOkHttpInterceptor(new DefaultRequestLogHandler(repository));
+        StubChain chain = new StubChain(500);
+
+        LogContext.log().executeWithExp(() -> {
+            long allocated = allocatedBytes();
+            for (int i = 0; i < 100; i++) {
+                interceptor.intercept(chain);
+            }
+            assert allocatedBytes() - allocated > 100 * 64;
+        });
+        assert repository.getRequestLogSize() == 100;
+    }
+
+
+    @DisplayName("Test a custom success predicate disables the fast path")
+    @Test
+    public void testCustomPredicate() throws IOException {
+
+        InMemoryRequestLogRepository repository = new InMemoryRequestLogRepository();
+        RequestLogOkHttpInterceptor interceptor = new RequestLogOkHttpInterceptor(new DefaultRequestLogHandler(repository));
+
+        LogContext.log().successWhenResponse(ctx -> false).executeWithExp(() -> interceptor.intercept(new StubChain(200)));
+        assert repository.getRequestLogSize() == 1;
+    }
+
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+
+    private static class StubChain implements Interceptor.Chain {
+
+        private final Request request = new Request.Builder().url("http://localhost/stub").build();
+        private final Response response;
+
+        StubChain(int code) {
+            this.response = new Response.Builder().request(request).protocol(Protocol.HTTP_1_1).code(code).message("stub")
+                    .body(ResponseBody.create(MediaType.get("application/json"), "{}")).build();
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) {
+            return response;
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @Override
+        public Call call() {
+            return null;
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+    }
+
+}
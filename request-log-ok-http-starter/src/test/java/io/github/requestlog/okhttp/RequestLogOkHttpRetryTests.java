@@ -11,6 +11,7 @@ import io.github.requestlog.test.model.RequestParamModel;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -18,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -86,6 +88,33 @@ public class RequestLogOkHttpRetryTests {
     }
 
 
+    @DisplayName("Test async retry with OK Http, retried requests are not logged on dispatcher threads")
+    @Test
+    public void testRetryAsync() {
+
+        LogContext.retry().execute(() -> {
+            try (Response response = okHttpClient.newCall(new Request.Builder().url(String.format("http://localhost:%s%s", port, GET_ERROR_PATH)).build()).execute()) {
+            } catch (Exception ignored) {
+            }
+        });
+        int requestLogSize = repository.getRequestLogSize();
+
+        // dispatcher threads may inherit the log context of the caller.
+        CompletableFuture<RetryResult> failed = LogContext.log().execute(() -> RetryContext.create(repository.getLastRequestLog())
+                .with(OkHttpRetryClient.class, okHttpClient)
+                .executeAsync());
+        CompletableFuture<RetryResult> succeed = LogContext.log().execute(() -> RetryContext.create(repository.getLastRequestLog())
+                .rewritePath(GET_PATH)
+                .with(OkHttpRetryClient.class, okHttpClient)
+                .executeAsync());
+
+        assert !failed.join().succeed();
+        assert succeed.join().succeed();
+        assert succeed.join().getDurationNanos() > 0;
+        assert repository.getRequestLogSize() == requestLogSize;
+    }
+
+
     /**
      * Provides parameters for {@link #testRetry}
      */
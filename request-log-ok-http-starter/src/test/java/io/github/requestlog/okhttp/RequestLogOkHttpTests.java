@@ -73,6 +73,7 @@ public class RequestLogOkHttpTests {
         assert inMemoryRequestLogRepository.getRequestLogSize() - size == expectsLogIncrease;
 
         if (expectsLogIncrease > 0) {
+            assert inMemoryRequestLogRepository.getLastRequestLog().getDurationNanos() > 0;
             log.info("last generated request-log: \n{}", asStringPretty(inMemoryRequestLogRepository.getLastRequestLog()));
         }
 
@@ -5,6 +5,7 @@ import io.github.requestlog.core.context.request.OutboundRequestContext;
 import io.github.requestlog.core.enums.HttpMethod;
 import io.github.requestlog.core.enums.RequestContextType;
 import io.github.requestlog.resttemplate.support.RestTemplateUtils;
+import io.github.requestlog.resttemplate.support.spring.BodyCacheClientHttpResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpResponse;
@@ -85,6 +86,11 @@ public class RestTemplateRequestContext extends OutboundRequestContext {
         return (requestBodyCache = (body == null ? null : new String(body, StandardCharsets.UTF_8)));
     }
 
+    @Override
+    public byte[] getRequestBodyBytes() {
+        return requestBodyCache == null ? body : null;
+    }
+
     @Override
     public Integer getResponseCode() {
         try {
@@ -116,6 +122,10 @@ public class RestTemplateRequestContext extends OutboundRequestContext {
         }
 
         try {
+            if (response instanceof BodyCacheClientHttpResponseWrapper) {
+                // decoded straight from the pooled array, before the response is closed and releases it.
+                return (responseBodyCache = ((BodyCacheClientHttpResponseWrapper) response).getBodyAsString());
+            }
             return (responseBodyCache = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8));
         } catch (IOException e) {
             log.warn("getResponseBody error", e);
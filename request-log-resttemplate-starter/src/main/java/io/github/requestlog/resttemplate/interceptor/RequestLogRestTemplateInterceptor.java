@@ -2,7 +2,10 @@ package io.github.requestlog.resttemplate.interceptor;
 
 import io.github.requestlog.core.context.LogContext;
 import io.github.requestlog.core.context.RetryContext;
+import io.github.requestlog.core.enums.RequestContextType;
 import io.github.requestlog.core.handler.AbstractRequestLogHandler;
+import io.github.requestlog.core.listener.RequestLogListeners;
+import io.github.requestlog.core.support.Predicates;
 import io.github.requestlog.resttemplate.context.request.RestTemplateRequestContext;
 import io.github.requestlog.resttemplate.support.RestTemplateUtils;
 import lombok.RequiredArgsConstructor;
@@ -32,13 +35,19 @@ public class RequestLogRestTemplateInterceptor implements ClientHttpRequestInter
             return execution.execute(request, body);
         }
 
+        long startNanos = System.nanoTime();
         try {
-            // Perform request and convert response as body repeatable read response.
-            ClientHttpResponse clientHttpResponse = RestTemplateUtils.convert2RepeatableBodyResponse(execution.execute(request, body));
-            requestLogHandler.handle(new RestTemplateRequestContext(LogContext.THREAD_LOCAL.get(), request, body, clientHttpResponse));
+            ClientHttpResponse response = execution.execute(request, body);
+            if (Predicates.isDefaultSuccess(LogContext.THREAD_LOCAL.get(), RequestContextType.REST_TEMPLATE, response.getRawStatusCode(), System.nanoTime() - startNanos)) {
+                RequestLogListeners.skipped(RequestContextType.REST_TEMPLATE);
+                return response;
+            }
+            // Convert response as body repeatable read response.
+            ClientHttpResponse clientHttpResponse = RestTemplateUtils.convert2RepeatableBodyResponse(response);
+            requestLogHandler.handle(new RestTemplateRequestContext(LogContext.THREAD_LOCAL.get(), request, body, clientHttpResponse).elapsedSince(startNanos));
             return clientHttpResponse;
         } catch (Exception e) {
-            requestLogHandler.handle(new RestTemplateRequestContext(LogContext.THREAD_LOCAL.get(), request, body, e));
+            requestLogHandler.handle(new RestTemplateRequestContext(LogContext.THREAD_LOCAL.get(), request, body, e).elapsedSince(startNanos));
             throw e;
         }
 
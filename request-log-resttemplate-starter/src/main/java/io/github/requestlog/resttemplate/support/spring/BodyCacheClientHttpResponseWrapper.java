@@ -1,29 +1,45 @@
 package io.github.requestlog.resttemplate.support.spring;
 
+import io.github.requestlog.core.support.io.BytePool;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.client.ClientHttpResponse;
-import org.springframework.util.StreamUtils;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 
 /**
  * Decorator for {@link ClientHttpResponse} that allows the body to be read multiple times.
  *
  * Due to the access limitation of {@link org.springframework.http.client.BufferingClientHttpResponseWrapper}.
+ *
+ * The body is cached in an array of a {@link BytePool}, returned to the pool on {@link #close()}.
+ * Streams from {@link #getBody()} read through this wrapper and throw once it is closed, never the bytes of a later response.
  */
 public class BodyCacheClientHttpResponseWrapper implements ClientHttpResponse {
 
+    private static final int DEFAULT_INITIAL_CAPACITY = 4096;
+
     private final ClientHttpResponse response;
 
-    // body cache
+    private final BytePool bytePool;
+
+    // body cache, the first bodyLength bytes are valid.
     private byte[] body;
+    private int bodyLength;
+    private boolean closed;
 
     public BodyCacheClientHttpResponseWrapper(ClientHttpResponse response) {
+        this(response, BytePool.DEFAULT);
+    }
+
+    public BodyCacheClientHttpResponseWrapper(ClientHttpResponse response, BytePool bytePool) {
         this.response = response;
+        this.bytePool = bytePool;
     }
 
     @Override
@@ -42,21 +58,157 @@ public class BodyCacheClientHttpResponseWrapper implements ClientHttpResponse {
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            bytePool.release(body);
+            body = null;
+        }
         response.close();
     }
 
     @Override
-    public InputStream getBody() throws IOException {
-        if (this.body == null) {
-            this.body = StreamUtils.copyToByteArray(this.response.getBody());
+    public synchronized InputStream getBody() throws IOException {
+        cacheBody();
+        return new CachedBodyInputStream();
+    }
+
+    /**
+     * Decodes the cached body, with the charset of the content type, UTF-8 by default.
+     */
+    public synchronized String getBodyAsString() throws IOException {
+        cacheBody();
+        return new String(this.body, 0, this.bodyLength, getCharset());
+    }
+
+    /**
+     * Charset of the content type, UTF-8 by default.
+     */
+    public Charset getCharset() {
+        MediaType contentType = getHeaders().getContentType();
+        return contentType == null || contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+    }
+
+    private void cacheBody() throws IOException {
+        if (closed) {
+            throw new IOException("response already closed");
+        }
+        if (this.body != null) {
+            return;
+        }
+        long contentLength = getHeaders().getContentLength();
+        byte[] buffer = bytePool.acquire(contentLength >= 0 && contentLength < DEFAULT_INITIAL_CAPACITY << 8 ? (int) contentLength : DEFAULT_INITIAL_CAPACITY);
+        int length = 0;
+        try {
+            InputStream inputStream = this.response.getBody();
+            while (true) {
+                if (length == buffer.length) {
+                    // full, grow only if the body continues.
+                    int next = inputStream.read();
+                    if (next == -1) {
+                        break;
+                    }
+                    byte[] grown = bytePool.acquire(length << 1);
+                    System.arraycopy(buffer, 0, grown, 0, length);
+                    bytePool.release(buffer);
+                    buffer = grown;
+                    buffer[length++] = (byte) next;
+                }
+                int read = inputStream.read(buffer, length, buffer.length - length);
+                if (read == -1) {
+                    break;
+                }
+                length += read;
+            }
+        } catch (IOException | RuntimeException e) {
+            bytePool.release(buffer);
+            throw e;
         }
-        return new ByteArrayInputStream(this.body);
+        this.body = buffer;
+        this.bodyLength = length;
     }
 
     @Override
     public HttpHeaders getHeaders() {
         return response.getHeaders();
     }
+
+
+    /**
+     * Reads the cached body while the wrapper is open, the array may be handed to another response after {@link #close()}.
+     */
+    private class CachedBodyInputStream extends InputStream {
+
+        private int position;
+        private int mark;
+
+        @Override
+        public int read() throws IOException {
+            synchronized (BodyCacheClientHttpResponseWrapper.this) {
+                checkOpen();
+                return position < bodyLength ? body[position++] & 0xff : -1;
+            }
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            synchronized (BodyCacheClientHttpResponseWrapper.this) {
+                checkOpen();
+                if (offset < 0 || length < 0 || length > bytes.length - offset) {
+                    throw new IndexOutOfBoundsException();
+                }
+                if (length == 0) {
+                    return 0;
+                }
+                if (position >= bodyLength) {
+                    return -1;
+                }
+                int read = Math.min(length, bodyLength - position);
+                System.arraycopy(body, position, bytes, offset, read);
+                position += read;
+                return read;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            synchronized (BodyCacheClientHttpResponseWrapper.this) {
+                checkOpen();
+                int skipped = (int) Math.max(0, Math.min(n, bodyLength - position));
+                position += skipped;
+                return skipped;
+            }
+        }
+
+        @Override
+        public int available() throws IOException {
+            synchronized (BodyCacheClientHttpResponseWrapper.this) {
+                checkOpen();
+                return bodyLength - position;
+            }
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public void mark(int readLimit) {
+            mark = position;
+        }
+
+        @Override
+        public void reset() {
+            position = mark;
+        }
+
+        private void checkOpen() throws IOException {
+            if (closed) {
+                throw new IOException("response already closed");
+            }
+        }
+    }
+
 }
 
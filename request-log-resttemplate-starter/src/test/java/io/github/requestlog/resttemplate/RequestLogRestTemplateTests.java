@@ -3,10 +3,12 @@ package io.github.requestlog.resttemplate;
 
 import io.github.requestlog.core.context.LogContext;
 import io.github.requestlog.core.repository.impl.InMemoryRequestLogRepository;
+import io.github.requestlog.core.support.io.BytePool;
 import io.github.requestlog.test.controller.TestRestController;
 import io.github.requestlog.test.model.RequestParamModel;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -15,8 +17,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.*;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -160,4 +166,45 @@ public class RequestLogRestTemplateTests {
         );
     }
 
-}
\ No newline at end of file
+
+
+    @DisplayName("Test cached bodies of logged responses go back to the pool on close, and their streams fail after close")
+    @Test
+    public void testPooledBody() {
+
+        String url = String.format("http://localhost:%s%s", port, TestRestController.GET_PATH);
+        // every response is logged, its body cached in a pooled array.
+        LogContext logContext = LogContext.log().successWhenResponse(response -> false);
+
+        int[] pooledWhileOpen = new int[2];
+        int[] pooledAfterClose = new int[2];
+        InputStream[] bodies = new InputStream[2];
+        String[] bodyStrings = new String[2];
+        for (int i = 0; i < 2; i++) {
+            final int index = i;
+            logContext.execute(() -> restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                bodies[index] = response.getBody();
+                bodyStrings[index] = StreamUtils.copyToString(response.getBody(), StandardCharsets.UTF_8);
+                pooledWhileOpen[index] = BytePool.DEFAULT.getPooledCount();
+                return null;
+            }));
+            pooledAfterClose[i] = BytePool.DEFAULT.getPooledCount();
+            // decoded before the array was released.
+            assert bodyStrings[i].equals(inMemoryRequestLogRepository.getLastRequestLog().getResponseBody());
+        }
+
+        // released on close, the second response takes the same array again.
+        assert pooledAfterClose[0] == pooledWhileOpen[0] + 1;
+        assert pooledAfterClose[1] == pooledWhileOpen[1] + 1;
+        assert pooledAfterClose[1] == pooledAfterClose[0];
+
+        // the first body array now belongs to the pool, its stream must not read it.
+        try {
+            bodies[0].read();
+            assert false;
+        } catch (IOException e) {
+            assert e.getMessage().contains("closed");
+        }
+    }
+
+}
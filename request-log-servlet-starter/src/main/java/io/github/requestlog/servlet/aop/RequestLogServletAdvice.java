@@ -40,12 +40,13 @@ public class RequestLogServletAdvice {
         }
 
         final long beforeExecuteTimeMillis = System.currentTimeMillis();
+        final long startNanos = System.nanoTime();
 
         try {
             THREAD_LOCAL.set(EMPTY_OBJECT);
             return joinPoint.proceed();
         } catch (Exception e) {
-            requestLogHandler.handle(new ServletRequestContext(reqLog, RequestContextHolder.getRequestAttributes(), e, beforeExecuteTimeMillis));
+            requestLogHandler.handle(new ServletRequestContext(reqLog, RequestContextHolder.getRequestAttributes(), e, beforeExecuteTimeMillis).elapsedSince(startNanos));
             throw e;
         } finally {
             THREAD_LOCAL.remove();
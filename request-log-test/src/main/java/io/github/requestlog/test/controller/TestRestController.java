@@ -4,7 +4,9 @@ package io.github.requestlog.test.controller;
 import io.github.requestlog.test.model.RequestParamModel;
 import io.github.requestlog.test.model.ResponseModel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 
@@ -20,6 +22,7 @@ public class TestRestController {
     public static final String FORM_POST_ERROR_PATH = PREFIX + "/formPostError";
     public static final String JSON_POST_PATH = PREFIX + "/jsonPost";
     public static final String JSON_POST_ERROR_PATH = PREFIX + "/jsonPostError";
+    public static final String DOWNLOAD_ERROR_PATH = PREFIX + "/downloadError";
 
 
     @RequestMapping(value = GET_PATH, method =  {RequestMethod.GET, RequestMethod.HEAD, RequestMethod.OPTIONS, RequestMethod.TRACE})
@@ -59,4 +62,17 @@ public class TestRestController {
     }
 
 
+    /**
+     * Responds 500 with a body of {@code size} bytes, cycling through 'a' to 'z'.
+     */
+    @GetMapping(DOWNLOAD_ERROR_PATH)
+    public ResponseEntity<byte[]> downloadError(@RequestParam int size, @RequestParam(defaultValue = MediaType.TEXT_PLAIN_VALUE) String contentType) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.parseMediaType(contentType)).body(body);
+    }
+
+
 }